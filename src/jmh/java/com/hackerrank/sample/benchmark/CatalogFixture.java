@@ -0,0 +1,118 @@
+package com.hackerrank.sample.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.dto.ProductDto;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.IProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Catálogo sintético y determinista para los benchmarks.
+ *
+ * Los nombres y descripciones combinan palabras de listas fijas, de modo que
+ * los filtros de texto encuentran una fracción estable del catálogo sin importar
+ * su tamaño.
+ */
+final class CatalogFixture {
+
+    static final long SEED = 42L;
+
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Hooli", "Vandelay"};
+    private static final String[] KINDS = {"Wireless Headphones", "Mechanical Keyboard", "Gaming Mouse", "Smart Watch",
+            "USB-C Hub", "Bluetooth Speaker", "4K Monitor", "Laptop Stand", "Webcam", "Power Bank"};
+    private static final String[] ADJECTIVES = {"compact", "durable", "lightweight", "premium", "portable",
+            "ergonomic", "silent", "waterproof", "fast", "rechargeable"};
+    private static final String[] COLORS = {"black", "white", "silver", "blue", "red"};
+
+    private CatalogFixture() {
+    }
+
+    static List<Product> products(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            products.add(product(i, random));
+        }
+        return products;
+    }
+
+    static ProductDto dto(SplittableRandom random) {
+        Product product = product(0, random);
+        ProductDto dto = new ProductDto();
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setRating(product.getRating());
+        dto.setImage(product.getImage());
+        dto.setSpecifications(product.getSpecifications());
+        return dto;
+    }
+
+    /**
+     * Crea un directorio temporal con un {@code products.json} del tamaño pedido
+     * y un repositorio listo para usar sobre ese archivo.
+     *
+     * El intervalo de escritura en segundo plano es de una hora para que la
+     * escritura del catálogo no se mezcle con las mediciones.
+     */
+
+    static IProductRepository repository(Path directory, String mode, int size) {
+        try {
+            Path file = directory.resolve("products.json");
+            new ObjectMapper().writeValue(file.toFile(), products(size));
+            IProductRepository repository = new IProductRepository(mode, file.toString(), 3_600_000L, 100, 64, false, 1,
+                    metrics());
+            repository.init();
+            return repository;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Métricas sin registro externo: los medidores existen pero nadie los publica.
+     */
+
+    static ProductMetrics metrics() {
+        return new ProductMetrics(new SimpleMeterRegistry());
+    }
+
+    static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Product product(long id, SplittableRandom random) {
+        String brand = BRANDS[random.nextInt(BRANDS.length)];
+        String kind = KINDS[random.nextInt(KINDS.length)];
+        String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+        String color = COLORS[random.nextInt(COLORS.length)];
+
+        Product product = new Product();
+        product.setId(id);
+        product.setName(brand + " " + kind + " " + (id % 1000));
+        product.setDescription("A " + adjective + " " + color + " " + kind.toLowerCase() + " by " + brand + ".");
+        product.setPrice(Math.round(random.nextDouble(5, 2000) * 100) / 100.0);
+        product.setRating(Math.round(random.nextDouble(1, 5) * 10) / 10.0);
+        product.setImage("https://img.example.com/products/" + id + ".jpg");
+        product.setSpecifications("color: " + color + "; weight: " + random.nextInt(50, 2500) + "g");
+        product.setVersion(1L);
+        return product;
+    }
+}
@@ -0,0 +1,113 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.cache.FilterResultCache;
+import com.hackerrank.sample.dto.FilterDto;
+import com.hackerrank.sample.mapper.ProductMapper;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.IProductRepository;
+import com.hackerrank.sample.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductService#filterProducts(List)} con filtros numéricos, de texto y
+ * combinados sobre el repositorio en memoria con sus índices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FilterBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * Resultados en la caché de filtros; con 0 cada iteración evalúa el filtro.
+     */
+    @Param({"0", "1000"})
+    public int cacheEntries;
+
+    @Param({"memory", "columnar"})
+    public String mode;
+
+    private Path directory;
+    private IProductRepository repository;
+    private ProductService service;
+    private List<FilterDto> numeric;
+    private List<FilterDto> text;
+    private List<FilterDto> mixed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("product-bench");
+        repository = CatalogFixture.repository(directory, mode, size);
+        ProductMetrics metrics = CatalogFixture.metrics();
+        service = new ProductService(repository, new ProductMapper(), metrics, new FilterResultCache(cacheEntries, 1L << 30, metrics));
+
+        numeric = List.of(
+                filter("price", "between", "100", "250"),
+                filter("rating", "gte", "4", null));
+        text = List.of(
+                filter("name", "match", "wireless headphones", null),
+                filter("specifications", "eq", "color: black", null));
+        mixed = List.of(
+                filter("price", "lt", "500", null),
+                filter("rating", "gte", "3.5", null),
+                filter("name", "match", "keyboard", null),
+                filter("description", "eq", "ergonomic", null));
+
+        // Construye los índices antes de medir.
+        service.filterProducts(numeric);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        repository.close();
+        CatalogFixture.delete(directory);
+    }
+
+    @Benchmark
+    public List<Product> numericRange() {
+        return service.filterProducts(numeric);
+    }
+
+    @Benchmark
+    public List<Product> textSearch() {
+        return service.filterProducts(text);
+    }
+
+    @Benchmark
+    public List<Product> mixedFilters() {
+        return service.filterProducts(mixed);
+    }
+
+    private static FilterDto filter(String key, String operator, String value, String valueTo) {
+        FilterDto filter = new FilterDto();
+        filter.setKey(key);
+        filter.setOperator(operator);
+        filter.setValue(value);
+        filter.setValueTo(valueTo);
+        return filter;
+    }
+}
@@ -0,0 +1,67 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.dto.ProductDto;
+import com.hackerrank.sample.mapper.ProductMapper;
+import com.hackerrank.sample.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de todo el catálogo con {@link ProductMapper#toEntity(ProductDto)}
+ * y {@link ProductMapper#toDto(Product)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MapperBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private final ProductMapper mapper = new ProductMapper();
+    private List<Product> products;
+    private List<ProductDto> dtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = CatalogFixture.products(size);
+        SplittableRandom random = new SplittableRandom(CatalogFixture.SEED);
+        dtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dtos.add(CatalogFixture.dto(random));
+        }
+    }
+
+    @Benchmark
+    public void toEntity(Blackhole blackhole) {
+        for (ProductDto dto : dtos) {
+            blackhole.consume(mapper.toEntity(dto));
+        }
+    }
+
+    @Benchmark
+    public void toDto(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(mapper.toDto(product));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.hackerrank.sample.benchmark;
+
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.IProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas y reemplazo completo del catálogo en {@link IProductRepository}.
+ *
+ * Por defecto se mide el modo {@code memory}, que es el configurado en la
+ * aplicación; el modo {@code file} se puede medir con {@code -p mode=file},
+ * aunque con un millón de productos cada operación relee el archivo completo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"memory", "columnar"})
+    public String mode;
+
+    private Path directory;
+    private IProductRepository repository;
+    private List<Product> catalog;
+    private long[] ids;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("product-bench");
+        repository = CatalogFixture.repository(directory, mode, size);
+        catalog = repository.getAll();
+
+        SplittableRandom random = new SplittableRandom(CatalogFixture.SEED);
+        ids = new long[4096];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        repository.close();
+        CatalogFixture.delete(directory);
+    }
+
+    @Benchmark
+    public List<Product> getAll() {
+        return repository.getAll();
+    }
+
+    @Benchmark
+    public Product findById() {
+        long id = ids[cursor++ & (ids.length - 1)];
+        return repository.findById(id);
+    }
+
+    @Benchmark
+    public void save() {
+        repository.save(catalog);
+    }
+}
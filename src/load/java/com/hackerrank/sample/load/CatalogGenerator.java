@@ -0,0 +1,41 @@
+package com.hackerrank.sample.load;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Genera un {@code products.json} sintético para las pruebas de carga.
+ *
+ * Uso: {@code --size=100000 --out=products.json --seed=42} más las opciones de
+ * distribución de {@link SyntheticProducts}. El archivo se escribe en streaming,
+ * así que el tamaño no está limitado por la memoria.
+ */
+public final class CatalogGenerator {
+
+    private CatalogGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        int size = options.getInt("size", 100_000);
+        File out = new File(options.get("out", "products.json"));
+        SyntheticProducts products = new SyntheticProducts(options, options.getLong("seed", 42));
+
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (long id = 1; id <= size; id++) {
+                writer.writeValue(generator, products.product(id));
+            }
+            generator.writeEndArray();
+        }
+        System.out.printf("Generados %d productos en %s%n", size, out.getAbsolutePath());
+    }
+}
@@ -0,0 +1,99 @@
+package com.hackerrank.sample.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias y resultados de una operación.
+ *
+ * La latencia se mide en microsegundos desde el instante en que la solicitud
+ * debía enviarse según la tasa de llegada, no desde que se envió, así que una
+ * demora del servidor también cuenta para las solicitudes que quedaron en cola.
+ */
+final class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Operation operation;
+    private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private Histogram total;
+
+    EndpointStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    Operation operation() {
+        return operation;
+    }
+
+    void record(long intendedStartNanos, int status) {
+        recordLatency(intendedStartNanos);
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            ok.increment();
+        }
+    }
+
+    /**
+     * Registra una solicitud que no obtuvo respuesta (error de conexión, tiempo
+     * agotado o descartada por exceder las solicitudes en curso).
+     */
+    void recordFailure(long intendedStartNanos) {
+        recordLatency(intendedStartNanos);
+        failures.increment();
+    }
+
+    /**
+     * Histograma acumulado de toda la medición.
+     */
+    Histogram histogram() {
+        if (total == null) {
+            total = recorder.getIntervalHistogram();
+        }
+        return total;
+    }
+
+    long ok() {
+        return ok.sum();
+    }
+
+    long clientErrors() {
+        return clientErrors.sum();
+    }
+
+    long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    long count() {
+        return ok() + clientErrors() + serverErrors() + failures();
+    }
+
+    /**
+     * Fracción de solicitudes con error del servidor o sin respuesta. Los 4xx se
+     * informan aparte porque incluyen IDs eliminados por otra solicitud en curso.
+     */
+    double errorRate() {
+        long count = count();
+        return count == 0 ? 0 : (double) (serverErrors() + failures()) / count;
+    }
+
+    private void recordLatency(long intendedStartNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+        recorder.recordValue(Math.min(Math.max(micros, 0), MAX_LATENCY_MICROS));
+    }
+}
@@ -0,0 +1,70 @@
+package com.hackerrank.sample.load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * IDs de productos existentes según lo que el propio driver creó y eliminó.
+ *
+ * Las altas llegan desde los hilos que completan las respuestas, por lo que el
+ * acceso se protege con un bloqueo; las bajas quitan un ID al azar con un
+ * intercambio con el último elemento.
+ */
+final class IdPool {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] ids = new long[1024];
+    private int size;
+
+    void add(long id) {
+        lock.lock();
+        try {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Un ID al azar, o {@code -1} si no hay productos.
+     */
+    long random() {
+        lock.lock();
+        try {
+            return size == 0 ? -1 : ids[ThreadLocalRandom.current().nextInt(size)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quita y devuelve un ID al azar, o {@code -1} si no hay productos.
+     */
+    long take() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return -1;
+            }
+            int index = ThreadLocalRandom.current().nextInt(size);
+            long id = ids[index];
+            ids[index] = ids[--size];
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
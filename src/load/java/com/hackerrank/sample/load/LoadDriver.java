@@ -0,0 +1,269 @@
+package com.hackerrank.sample.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Prueba de carga de extremo a extremo contra la aplicación en ejecución.
+ *
+ * Envía solicitudes a una tasa de llegada fija ({@code --rate} por segundo),
+ * independiente de cuánto tarde el servidor en responder, con la mezcla de
+ * operaciones de {@code --mix}. Tras {@code --warmup} mide durante
+ * {@code --duration} e informa por operación los percentiles de latencia de
+ * HdrHistogram y las tasas de error.
+ *
+ * Opciones: {@code --url}, {@code --rate}, {@code --duration}, {@code --warmup},
+ * {@code --mix}, {@code --max-in-flight}, {@code --timeout}, {@code --seed},
+ * {@code --label} y {@code --hgrm} (directorio donde guardar la distribución
+ * completa de cada operación), más las opciones de {@link SyntheticProducts}
+ * para los cuerpos de creación y actualización.
+ */
+public final class LoadDriver {
+
+    private static final String DEFAULT_MIX = "list=10,get=50,filter=20,create=10,update=5,delete=5";
+    private static final String[] SORTS = {"id", "-price", "rating", "name"};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Duration timeout;
+    private final SyntheticProducts products;
+    private final SplittableRandom random;
+    private final IdPool ids = new IdPool();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+
+    private LoadDriver(String baseUrl, Duration timeout, SyntheticProducts products, ExecutorService executor) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.products = products;
+        this.random = products.random();
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        int rate = options.getInt("rate", 500);
+        if (rate < 1) {
+            throw new IllegalArgumentException("La tasa debe ser mayor a cero");
+        }
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+        Operation.Mix mix = Operation.Mix.parse(options.get("mix", DEFAULT_MIX));
+        String label = options.get("label", "run");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            LoadDriver driver = new LoadDriver(options.get("url", "http://localhost:8080"),
+                    options.getDuration("timeout", Duration.ofSeconds(10)),
+                    new SyntheticProducts(options, options.getLong("seed", 42)), executor);
+            driver.loadIds();
+            driver.run(rate, warmup, duration, mix, options.getInt("max-in-flight", 5000));
+            driver.report(System.out, label, duration);
+            String hgrm = options.get("hgrm", null);
+            if (hgrm != null) {
+                driver.writeDistributions(Path.of(hgrm), label);
+            }
+        }
+    }
+
+    /**
+     * Obtiene los IDs existentes con el endpoint de exportación en streaming.
+     */
+    private void loadIds() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/product/stream?format=ndjson&fields=id"))
+                .GET()
+                .build();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            throw new IOException("No se pudo leer el catálogo: HTTP " + response.statusCode());
+        }
+        try (Stream<String> lines = response.body()) {
+            lines.filter(line -> !line.isBlank()).forEach(line -> ids.add(readId(line)));
+        }
+        System.out.printf("Catálogo inicial: %d productos%n", ids.size());
+    }
+
+    private void run(int rate, Duration warmup, Duration duration, Operation.Mix mix, int maxInFlight)
+            throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intended >= measureFrom;
+            Operation operation = mix.next(random);
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    stats.get(operation).recordFailure(intended);
+                }
+                continue;
+            }
+            send(operation, intended, measured);
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void send(Operation operation, long intended, boolean measured) {
+        long id = switch (operation) {
+            case GET, UPDATE -> ids.random();
+            case DELETE -> ids.take();
+            default -> 0;
+        };
+        Operation effective = id < 0 ? Operation.CREATE : operation;
+        HttpRequest request;
+        try {
+            request = request(effective, id);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        EndpointStats endpoint = stats.get(effective);
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    if (error != null) {
+                        if (measured) {
+                            endpoint.recordFailure(intended);
+                        }
+                        return;
+                    }
+                    if (measured) {
+                        endpoint.record(intended, response.statusCode());
+                    }
+                    if (effective == Operation.CREATE && response.statusCode() == 201) {
+                        ids.add(readId(response.body()));
+                    }
+                });
+    }
+
+    private HttpRequest request(Operation operation, long id) throws JsonProcessingException {
+        HttpRequest.Builder builder = switch (operation) {
+            case LIST -> HttpRequest.newBuilder(uri("/product?limit=50&sort=" + products.pick(SORTS))).GET();
+            case GET -> HttpRequest.newBuilder(uri("/product/" + id)).GET();
+            case FILTER -> HttpRequest.newBuilder(uri("/product/filter?limit=100"))
+                    .POST(json(filterBody()));
+            case CREATE -> HttpRequest.newBuilder(uri("/product")).POST(json(products.dto()));
+            case UPDATE -> HttpRequest.newBuilder(uri("/product/" + id)).PUT(json(products.dto()));
+            case DELETE -> HttpRequest.newBuilder(uri("/product/" + id)).DELETE();
+        };
+        return builder.timeout(timeout)
+                .header("Content-Type", "application/json")
+                .build();
+    }
+
+    /**
+     * Rango de precio al azar combinado con una búsqueda de texto sobre el nombre.
+     */
+    private List<Map<String, Object>> filterBody() {
+        double low = products.price();
+        double high = low * 1.5;
+        String kind = products.pick(SyntheticProducts.KINDS);
+        return List.of(
+                Map.of("key", "price", "operator", "between", "value", low, "valueTo", high),
+                Map.of("key", "name", "operator", "match", "value", kind.split(" ")[0]));
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws JsonProcessingException {
+        return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private long readId(String json) {
+        try {
+            JsonNode node = mapper.readTree(json);
+            return node.get("id").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta sin ID: " + json, e);
+        }
+    }
+
+    private void report(PrintStream out, String label, Duration duration) {
+        double seconds = Math.max(duration.toMillis(), 1) / 1000.0;
+        out.printf("%n== %s ==%n", label);
+        out.printf("%-8s %9s %9s %7s %7s %7s %8s %9s %9s %9s %9s %9s%n",
+                "op", "count", "req/s", "4xx", "5xx", "fallas", "error%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats endpoint : stats.values()) {
+            if (endpoint.count() == 0) {
+                continue;
+            }
+            Histogram histogram = endpoint.histogram();
+            out.printf("%-8s %9d %9.1f %7d %7d %7d %8.3f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.operation().key(),
+                    endpoint.count(),
+                    endpoint.count() / seconds,
+                    endpoint.clientErrors(),
+                    endpoint.serverErrors(),
+                    endpoint.failures(),
+                    endpoint.errorRate() * 100,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+    }
+
+    private void writeDistributions(Path directory, String label) throws IOException {
+        Files.createDirectories(directory);
+        for (EndpointStats endpoint : stats.values()) {
+            if (endpoint.count() == 0) {
+                continue;
+            }
+            Path file = directory.resolve(label + "-" + endpoint.operation().key() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                endpoint.histogram().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.printf("Distribuciones guardadas en %s%n", directory.toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
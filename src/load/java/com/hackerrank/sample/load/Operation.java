@@ -0,0 +1,80 @@
+package com.hackerrank.sample.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Operaciones del controlador que reproduce {@link LoadDriver}.
+ */
+enum Operation {
+    LIST("list"),
+    GET("get"),
+    FILTER("filter"),
+    CREATE("create"),
+    UPDATE("update"),
+    DELETE("delete");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation from(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Operación inválida: " + key);
+    }
+
+    /**
+     * Mezcla de operaciones con pesos relativos, por ejemplo
+     * {@code list=10,get=50,filter=20,create=10,update=5,delete=5}.
+     */
+    record Mix(Operation[] operations, int[] cumulative) {
+
+        static Mix parse(String spec) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.split("=");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Entrada de mezcla inválida: " + entry);
+                }
+                int weight = Integer.parseInt(parts[1].trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("El peso no puede ser negativo: " + entry);
+                }
+                weights.merge(from(parts[0]), weight, Integer::sum);
+            }
+            weights.values().removeIf(weight -> weight == 0);
+            if (weights.isEmpty()) {
+                throw new IllegalArgumentException("La mezcla no tiene operaciones");
+            }
+            Operation[] operations = weights.keySet().toArray(new Operation[0]);
+            int[] cumulative = new int[operations.length];
+            int total = 0;
+            for (int i = 0; i < operations.length; i++) {
+                total += weights.get(operations[i]);
+                cumulative[i] = total;
+            }
+            return new Mix(operations, cumulative);
+        }
+
+        Operation next(SplittableRandom random) {
+            int ticket = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (ticket < cumulative[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+    }
+}
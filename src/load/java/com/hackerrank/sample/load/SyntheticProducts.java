@@ -0,0 +1,139 @@
+package com.hackerrank.sample.load;
+
+import com.hackerrank.sample.dto.ProductDto;
+import com.hackerrank.sample.model.Product;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generador de productos sintéticos con distribuciones configurables.
+ *
+ * Opciones reconocidas:
+ * <ul>
+ *     <li>{@code --price=uniform|lognormal}, {@code --price-min}, {@code --price-max}</li>
+ *     <li>{@code --rating-min}, {@code --rating-max}</li>
+ *     <li>{@code --description-words}: palabras por descripción</li>
+ *     <li>{@code --spec-entries}: pares clave/valor en las especificaciones</li>
+ *     <li>{@code --null-rate}: fracción de campos opcionales que quedan nulos</li>
+ * </ul>
+ */
+final class SyntheticProducts {
+
+    static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Hooli", "Vandelay"};
+    static final String[] KINDS = {"Wireless Headphones", "Mechanical Keyboard", "Gaming Mouse", "Smart Watch",
+            "USB-C Hub", "Bluetooth Speaker", "4K Monitor", "Laptop Stand", "Webcam", "Power Bank"};
+    private static final String[] WORDS = {"compact", "durable", "lightweight", "premium", "portable", "ergonomic",
+            "silent", "waterproof", "fast", "rechargeable", "wireless", "adjustable", "foldable", "backlit", "slim"};
+    private static final String[] SPEC_KEYS = {"color", "weight", "battery", "warranty", "material", "connector"};
+    private static final String[] SPEC_VALUES = {"black", "white", "aluminium", "plastic", "12 months", "24 months",
+            "usb-c", "bluetooth 5.3", "1200mAh", "350g"};
+
+    private final SplittableRandom random;
+    private final boolean logNormalPrice;
+    private final double priceMin;
+    private final double priceMax;
+    private final double ratingMin;
+    private final double ratingMax;
+    private final int descriptionWords;
+    private final int specEntries;
+    private final double nullRate;
+
+    SyntheticProducts(Options options, long seed) {
+        this.random = new SplittableRandom(seed);
+        String price = options.get("price", "lognormal");
+        if (!price.equals("uniform") && !price.equals("lognormal")) {
+            throw new IllegalArgumentException("Distribución de precio inválida: " + price);
+        }
+        this.logNormalPrice = price.equals("lognormal");
+        this.priceMin = options.getDouble("price-min", 5);
+        this.priceMax = options.getDouble("price-max", 2000);
+        this.ratingMin = options.getDouble("rating-min", 1);
+        this.ratingMax = options.getDouble("rating-max", 5);
+        this.descriptionWords = options.getInt("description-words", 12);
+        this.specEntries = options.getInt("spec-entries", 3);
+        this.nullRate = options.getDouble("null-rate", 0);
+    }
+
+    Product product(long id) {
+        ProductDto dto = dto();
+        Product product = new Product();
+        product.setId(id);
+        product.setName(dto.getName());
+        product.setDescription(dto.getDescription());
+        product.setPrice(dto.getPrice());
+        product.setRating(dto.getRating());
+        product.setImage(dto.getImage());
+        product.setSpecifications(dto.getSpecifications());
+        product.setVersion(1L);
+        return product;
+    }
+
+    ProductDto dto() {
+        String brand = pick(BRANDS);
+        String kind = pick(KINDS);
+
+        ProductDto dto = new ProductDto();
+        dto.setName(brand + " " + kind + " " + random.nextInt(1000));
+        dto.setPrice(price());
+        dto.setRating(Math.round(random.nextDouble(ratingMin, ratingMax) * 10) / 10.0);
+        dto.setDescription(optional(description(brand, kind)));
+        dto.setImage(optional("https://img.example.com/products/" + random.nextInt(1_000_000) + ".jpg"));
+        dto.setSpecifications(optional(specifications()));
+        return dto;
+    }
+
+    /**
+     * Precio con distribución uniforme o log-normal acotada al rango; la
+     * log-normal concentra la mayoría de los productos en precios bajos, como
+     * en un catálogo real.
+     */
+    double price() {
+        double value;
+        if (logNormalPrice) {
+            double mu = Math.log(Math.sqrt(priceMin * priceMax));
+            double sigma = Math.log(priceMax / priceMin) / 6;
+            value = Math.exp(mu + sigma * gaussian());
+            value = Math.min(priceMax, Math.max(priceMin, value));
+        } else {
+            value = random.nextDouble(priceMin, priceMax);
+        }
+        return Math.round(value * 100) / 100.0;
+    }
+
+    String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    SplittableRandom random() {
+        return random;
+    }
+
+    private String description(String brand, String kind) {
+        StringBuilder description = new StringBuilder(kind).append(" by ").append(brand).append(':');
+        for (int i = 0; i < descriptionWords; i++) {
+            description.append(' ').append(pick(WORDS));
+        }
+        return description.append('.').toString();
+    }
+
+    private String specifications() {
+        StringBuilder specifications = new StringBuilder();
+        for (int i = 0; i < specEntries; i++) {
+            if (i > 0) {
+                specifications.append("; ");
+            }
+            specifications.append(pick(SPEC_KEYS)).append(": ").append(pick(SPEC_VALUES));
+        }
+        return specifications.toString();
+    }
+
+    private String optional(String value) {
+        return nullRate > 0 && random.nextDouble() < nullRate ? null : value;
+    }
+
+    private double gaussian() {
+        double u1 = 1 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,85 @@
+package com.hackerrank.sample.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codificación del cuerpo de una respuesta ({@code Content-Encoding}).
+ */
+public enum ContentCoding {
+    IDENTITY(null),
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Valor de {@code Content-Encoding}, o {@code null} si el cuerpo va sin codificar.
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Elige la codificación preferida entre las aceptadas por el cliente: gzip,
+     * luego deflate y, si no acepta ninguna, sin codificar. Se respeta
+     * {@code q=0} como rechazo explícito.
+     *
+     * @param acceptEncoding Valor de {@code Accept-Encoding}; puede ser {@code null}.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] pieces = part.split(";");
+            String coding = pieces[0].trim().toLowerCase();
+            if (isRejected(pieces)) {
+                continue;
+            }
+            if (coding.equals("gzip") || coding.equals("*")) {
+                gzip = true;
+            } else if (coding.equals("deflate")) {
+                deflate = true;
+            }
+        }
+        return gzip ? GZIP : deflate ? DEFLATE : IDENTITY;
+    }
+
+    byte[] encode(byte[] body) {
+        if (this == IDENTITY) {
+            return body;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (OutputStream out = this == GZIP ? new GZIPOutputStream(buffer) : new DeflaterOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static boolean isRejected(String[] pieces) {
+        for (int i = 1; i < pieces.length; i++) {
+            String parameter = pieces[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
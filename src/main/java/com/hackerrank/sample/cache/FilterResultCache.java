@@ -0,0 +1,231 @@
+package com.hackerrank.sample.cache;
+
+import com.hackerrank.sample.filter.FilterClause;
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.filter.ProductField;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.ProductChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caché LRU de los IDs que cumplen cada filtro.
+ *
+ * La clave es el conjunto de condiciones compiladas del {@link FilterPlan}: los
+ * textos ya están en minúsculas y los números parseados, y al ser un conjunto no
+ * importa el orden de los filtros. Se guardan solo los IDs, en el orden en que
+ * se encontraron, así que un acierto siempre devuelve la versión actual de los
+ * productos y solo cambia cuando cambia qué productos cumplen el filtro.
+ *
+ * Por cada cambio del repositorio se descartan únicamente los resultados cuyo
+ * filtro usa un campo modificado y para los que el producto pasó a cumplir o
+ * dejó de cumplir el filtro. El tamaño se limita por cantidad de resultados y
+ * por bytes estimados; al superarse se descarta el usado hace más tiempo.
+ */
+@Component
+public class FilterResultCache implements ProductChangeListener {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ProductMetrics metrics;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Set<FilterClause>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long generation;
+
+    @Autowired
+    public FilterResultCache(@Value("${product.filter-cache.max-entries:1000}") int maxEntries,
+                             @Value("${product.filter-cache.max-bytes:16777216}") long maxBytes,
+                             ProductMetrics metrics) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.metrics = metrics;
+        metrics.filterCacheSize(this::size);
+    }
+
+    /**
+     * La caché se desactiva con un límite de resultados o de bytes igual a cero.
+     * Los filtros vacíos no se guardan: su resultado es el catálogo completo.
+     */
+
+    public boolean isEnabled() {
+        return maxEntries > 0 && maxBytes > 0;
+    }
+
+    /**
+     * @return Los IDs guardados para el filtro, o {@code null} si no están en la caché.
+     */
+
+    public long[] get(FilterPlan plan) {
+        if (plan.isEmpty()) {
+            return null;
+        }
+        lock.lock();
+        try {
+            Entry entry = entries.get(key(plan));
+            if (entry == null) {
+                metrics.filterCacheMiss();
+                return null;
+            }
+            metrics.filterCacheHit();
+            return entry.ids();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marca de los cambios aplicados hasta ahora. Se toma antes de calcular un
+     * resultado y se pasa a {@link #put}, que lo descarta si hubo cambios en el
+     * medio.
+     */
+
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Guarda el resultado de un filtro calculado a partir del catálogo visto en
+     * {@code computedAt}.
+     */
+
+    public void put(FilterPlan plan, long[] ids, long computedAt) {
+        long size = ENTRY_OVERHEAD_BYTES + 8L * ids.length;
+        if (plan.isEmpty() || size > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (computedAt != generation) {
+                return;
+            }
+            Entry previous = entries.put(key(plan), new Entry(plan, fields(plan), ids, size));
+            if (previous != null) {
+                bytes -= previous.bytes();
+            }
+            bytes += size;
+            int evicted = 0;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                bytes -= eldest.next().bytes();
+                eldest.remove();
+                evicted++;
+            }
+            if (evicted > 0) {
+                metrics.filterCacheEvicted(evicted);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void changed(Product previous, Product current) {
+        EnumSet<ProductField> touched = touched(previous, current);
+        lock.lock();
+        try {
+            generation++;
+            if (touched.isEmpty()) {
+                return;
+            }
+            int invalidated = 0;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (!Collections.disjoint(entry.fields(), touched) && entry.affectedBy(previous, current)) {
+                    bytes -= entry.bytes();
+                    iterator.remove();
+                    invalidated++;
+                }
+            }
+            if (invalidated > 0) {
+                metrics.filterCacheInvalidated(invalidated);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void reloaded() {
+        lock.lock();
+        try {
+            generation++;
+            if (!entries.isEmpty()) {
+                metrics.filterCacheInvalidated(entries.size());
+            }
+            entries.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Set<FilterClause> key(FilterPlan plan) {
+        return Set.copyOf(plan.clauses());
+    }
+
+    private static EnumSet<ProductField> fields(FilterPlan plan) {
+        EnumSet<ProductField> fields = EnumSet.noneOf(ProductField.class);
+        for (FilterClause clause : plan.clauses()) {
+            fields.add(clause.field());
+        }
+        return fields;
+    }
+
+    /**
+     * Campos con distinto valor entre las dos versiones; un alta o una baja
+     * toca todos los campos.
+     */
+    private static EnumSet<ProductField> touched(Product previous, Product current) {
+        if (previous == null || current == null) {
+            return EnumSet.allOf(ProductField.class);
+        }
+        EnumSet<ProductField> touched = EnumSet.noneOf(ProductField.class);
+        for (ProductField field : ProductField.values()) {
+            if (!Objects.equals(field.get(previous), field.get(current))) {
+                touched.add(field);
+            }
+        }
+        return touched;
+    }
+
+    private record Entry(FilterPlan plan, EnumSet<ProductField> fields, long[] ids, long bytes) {
+
+        /**
+         * El resultado cambia solo si el producto pasó a cumplir el filtro o
+         * dejó de cumplirlo.
+         */
+        boolean affectedBy(Product previous, Product current) {
+            boolean before = previous != null && plan.matches(previous);
+            boolean after = current != null && plan.matches(current);
+            return before != after;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.hackerrank.sample.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.exception.NoSuchResourceFoundException;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.IProductRepository;
+import com.hackerrank.sample.repository.ProductChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché del JSON ya serializado de cada producto, para responder
+ * {@code GET /product/{id}} escribiendo los bytes directamente.
+ *
+ * Cada entrada guarda la versión del producto que serializó; una lectura solo
+ * la usa si coincide con la versión actual del almacén, así que un resultado
+ * serializado en paralelo con una actualización nunca se sirve desactualizado.
+ * Las variantes gzip y deflate se calculan la primera vez que se piden y solo
+ * para cuerpos de al menos {@code product.json-cache.compress-min-bytes}.
+ *
+ * Los cambios del repositorio descartan la entrada del producto para liberar
+ * memoria. Al llegar a {@code product.json-cache.max-entries} no se agregan
+ * entradas nuevas hasta que se descarte alguna. Solo aplica a los modos en
+ * memoria; en modo archivo {@link #get} devuelve {@code null}.
+ */
+@Component
+public class ProductJsonCache implements ProductChangeListener {
+
+    private final IProductRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ProductMetrics metrics;
+    private final int maxEntries;
+    private final int compressMinBytes;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProductJsonCache(IProductRepository repository,
+                            ObjectMapper objectMapper,
+                            ProductMetrics metrics,
+                            @Value("${product.json-cache.max-entries:100000}") int maxEntries,
+                            @Value("${product.json-cache.compress-min-bytes:512}") int compressMinBytes) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.maxEntries = maxEntries;
+        this.compressMinBytes = compressMinBytes;
+        repository.addChangeListener(this);
+    }
+
+    /**
+     * Cuerpo serializado del producto en la codificación pedida, o en JSON sin
+     * codificar si el cuerpo es demasiado chico para comprimirlo.
+     *
+     * @return El cuerpo, o {@code null} si el producto no existe, la caché está
+     * desactivada o el catálogo no está en memoria.
+     */
+
+    public Encoded get(long productId, ContentCoding coding) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        Long version = repository.versionOf(productId);
+        if (version == null) {
+            return null;
+        }
+        Entry entry = entries.get(productId);
+        if (entry != null && entry.version == version) {
+            metrics.jsonCacheHit();
+        } else {
+            metrics.jsonCacheMiss();
+            entry = load(productId);
+            if (entry == null) {
+                return null;
+            }
+        }
+        if (coding == ContentCoding.IDENTITY || entry.json.length < compressMinBytes) {
+            return new Encoded(entry.version, entry.json, ContentCoding.IDENTITY);
+        }
+        return new Encoded(entry.version, entry.encoded(coding), coding);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void changed(Product previous, Product current) {
+        Product product = current != null ? current : previous;
+        entries.remove(product.getId());
+    }
+
+    @Override
+    public void reloaded() {
+        entries.clear();
+    }
+
+    private Entry load(long productId) {
+        Product product;
+        try {
+            product = repository.findById(productId);
+        } catch (NoSuchResourceFoundException e) {
+            return null;
+        }
+        Entry entry;
+        try {
+            entry = new Entry(product.getVersion() != null ? product.getVersion() : 0,
+                    objectMapper.writeValueAsBytes(product));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error al serializar el producto " + productId, e);
+        }
+        if (entries.size() < maxEntries || entries.containsKey(productId)) {
+            entries.put(productId, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Cuerpo listo para escribir en la respuesta.
+     *
+     * @param version Versión del producto serializado, para el {@code ETag}.
+     * @param body    Bytes del cuerpo, ya codificados según {@code coding}.
+     * @param coding  Codificación aplicada al cuerpo.
+     */
+    public record Encoded(long version, byte[] body, ContentCoding coding) {
+    }
+
+    private static final class Entry {
+
+        private final long version;
+        private final byte[] json;
+        private volatile byte[] gzip;
+        private volatile byte[] deflate;
+
+        private Entry(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+
+        /**
+         * Variante comprimida; si dos lecturas la calculan a la vez, ambas
+         * obtienen bytes equivalentes y se conserva cualquiera.
+         */
+        private byte[] encoded(ContentCoding coding) {
+            if (coding == ContentCoding.GZIP) {
+                byte[] body = gzip;
+                if (body == null) {
+                    body = gzip = coding.encode(json);
+                }
+                return body;
+            }
+            byte[] body = deflate;
+            if (body == null) {
+                body = deflate = coding.encode(json);
+            }
+            return body;
+        }
+    }
+}
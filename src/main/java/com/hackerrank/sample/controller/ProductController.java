@@ -1,46 +1,258 @@
 package com.hackerrank.sample.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hackerrank.sample.cache.ContentCoding;
+import com.hackerrank.sample.cache.ProductJsonCache;
+import com.hackerrank.sample.dto.FacetRequestDto;
 import com.hackerrank.sample.dto.FilterDto;
 import com.hackerrank.sample.dto.ProductDto;
+import com.hackerrank.sample.dto.ProductPatchDto;
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.exception.ChangeFeedGapException;
+import com.hackerrank.sample.exception.ReadOnlyReplicaException;
+import com.hackerrank.sample.exception.VersionConflictException;
+import com.hackerrank.sample.feed.ChangeFeed;
 import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.page.PageRequest;
+import com.hackerrank.sample.service.ProductImportService;
 import com.hackerrank.sample.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/product")
 public class ProductController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     ProductService productService;
 
+    @Autowired
+    ProductImportService productImportService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    ProductJsonCache productJsonCache;
+
+    @Autowired
+    ChangeFeed changeFeed;
+
+    /**
+     * Lista el catálogo. Responde {@code ETag} y {@code Last-Modified} con la versión del
+     * catálogo y, si {@code If-None-Match} o {@code If-Modified-Since} siguen vigentes,
+     * responde 304 sin leer el catálogo.
+     */
     @GetMapping
-    public ResponseEntity<?> AllProduct(){
+    public ResponseEntity<?> AllProduct(@RequestParam(required = false) Integer limit,
+                                        @RequestParam(required = false) String after,
+                                        @RequestParam(required = false) String sort,
+                                        @RequestParam(required = false) String fields,
+                                        WebRequest webRequest){
         try {
-            return ResponseEntity.status(HttpStatus.OK).body(productService.getAll());
+            PageRequest page = PageRequest.of(limit, after, sort, fields);
+            ProductService.CatalogVersion version = productService.catalogVersion();
+            if (webRequest.checkNotModified(version.eTag(), version.lastModified())) {
+                return null;
+            }
+            if (page.isPaged()) {
+                return ResponseEntity.status(HttpStatus.OK).body(productService.getPage(page));
+            }
+            return ResponseEntity.status(HttpStatus.OK).body(productService.getAll(page));
+        }catch (BadResourceRequestException e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }catch (Exception e){
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
 
+    /**
+     * Exporta el catálogo completo escribiendo cada producto a medida que se lee
+     * del repositorio, sin armar la lista ni el cuerpo completo en memoria.
+     *
+     * @param format {@code ndjson} (un producto por línea) o {@code json} (un arreglo).
+     * @param fields Campos a incluir, separados por coma.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamProducts(@RequestParam(defaultValue = "ndjson") String format,
+                                                                @RequestParam(required = false) String fields) {
+        try {
+            boolean ndjson = switch (format.toLowerCase()) {
+                case "ndjson" -> true;
+                case "json" -> false;
+                default -> throw new BadResourceRequestException("Formato inválido: " + format);
+            };
+            PageRequest page = PageRequest.of(null, null, null, fields);
+            StreamingResponseBody body = out -> writeProducts(out, page, ndjson);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .contentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON)
+                    .body(body);
+        } catch (Exception e) {
+            // El tipo de retorno debe declarar StreamingResponseBody para que Spring
+            // lo escriba en streaming, así que el mensaje de error también va como tal.
+            byte[] message = String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(out -> out.write(message));
+        }
+    }
+
     @PostMapping("/filter")
-    public ResponseEntity<?> filterProducts(@RequestBody List<FilterDto> filters) {
+    public ResponseEntity<?> filterProducts(@RequestBody List<FilterDto> filters,
+                                            @RequestParam(defaultValue = "false") boolean rank,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String after,
+                                            @RequestParam(required = false) String sort,
+                                            @RequestParam(required = false) String fields) {
         try {
-            return ResponseEntity.ok(productService.filterProducts(filters));
+            PageRequest page = PageRequest.of(limit, after, sort, fields);
+            if (page.isPaged()) {
+                if (rank) {
+                    throw new BadResourceRequestException("El orden por relevancia no admite paginación");
+                }
+                return ResponseEntity.ok(productService.filterPage(filters, page));
+            }
+            return ResponseEntity.ok(productService.filterProducts(filters, rank, page));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
 
+    /**
+     * Facetas del resultado de un filtro: histogramas de precio y rating y
+     * valores más frecuentes de los campos pedidos, sin devolver los productos.
+     */
+    @PostMapping("/filter/facets")
+    public ResponseEntity<?> facets(@RequestBody FacetRequestDto request){
+        try{
+            return ResponseEntity.status(HttpStatus.OK).body(productService.facets(request));
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Eventos del feed de cambios posteriores a {@code since}, en orden de secuencia. Con
+     * {@code waitMs}, si todavía no hay eventos nuevos espera a que se publique alguno (long
+     * polling). Responde 410 si alguno de los eventos pedidos ya se descartó; en ese caso hay
+     * que volver a empezar por {@code GET /product/changes/snapshot}.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> changes(@RequestParam(defaultValue = "0") long since,
+                                     @RequestParam(defaultValue = "500") int limit,
+                                     @RequestParam(defaultValue = "0") long waitMs){
+        try{
+            return ResponseEntity.status(HttpStatus.OK).body(changeFeed.read(since, limit, waitMs));
+        }catch (ChangeFeedGapException e){
+            return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Catálogo completo junto con la secuencia del feed desde la cual seguirlo.
+     */
+    @GetMapping("/changes/snapshot")
+    public ResponseEntity<?> changesSnapshot(){
+        return ResponseEntity.status(HttpStatus.OK).body(changeFeed.snapshot());
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<?> productsByIds(@RequestParam List<Long> ids){
+        try{
+            return ResponseEntity.status(HttpStatus.OK).body(productService.getByIds(ids));
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Compara los productos pedidos con una matriz de atributos alineada por producto.
+     */
+    @GetMapping("/compare")
+    public ResponseEntity<?> compare(@RequestParam List<Long> ids){
+        try{
+            return ResponseEntity.status(HttpStatus.OK).body(productService.compare(ids));
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<?> updateAll(@RequestBody List<ProductPatchDto> patches){
+        try{
+            return ResponseEntity.status(HttpStatus.OK).body(productService.updateAll(patches));
+        }catch (ReadOnlyReplicaException e){
+            return readOnly(e);
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteAll(@RequestParam List<Long> ids){
+        try{
+            return ResponseEntity.status(HttpStatus.OK).body(productService.deleteAll(ids));
+        }catch (ReadOnlyReplicaException e){
+            return readOnly(e);
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene un producto. Si {@code If-None-Match} coincide con su versión actual, o
+     * {@code If-Modified-Since} es posterior al último cambio del catálogo, responde 304
+     * sin copiar ni serializar el producto. Si no, escribe el JSON ya serializado de
+     * {@link ProductJsonCache}, comprimido con gzip o deflate si el cliente lo acepta; cada
+     * codificación tiene su propio ETag ({@code "<versión>-gzip"}, {@code "<versión>-deflate"}).
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> productById(@PathVariable Long id){
+    public ResponseEntity<?> productById(@PathVariable Long id, WebRequest webRequest,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        long lastModified = productService.catalogVersion().lastModified();
+        Long version = productService.versionOf(id);
+        ContentCoding coding = ContentCoding.negotiate(acceptEncoding);
+        if (version != null && webRequest.checkNotModified(eTag(version, coding), lastModified)) {
+            return null;
+        }
+        ProductJsonCache.Encoded cached = productJsonCache.get(id, coding);
+        if (cached != null) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(eTag(cached.version(), cached.coding()))
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (cached.coding() != ContentCoding.IDENTITY) {
+                response.header(HttpHeaders.CONTENT_ENCODING, cached.coding().token());
+            }
+            return response.body(cached.body());
+        }
         try{
             Product product  = productService.getById(id);
-            return ResponseEntity.status(HttpStatus.OK).body(product);
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(product)).body(product);
         }catch (Exception e){
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -51,16 +263,43 @@ public class ProductController {
         try{
             Product newProduct = productService.create(productDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(newProduct);
+        }catch (ReadOnlyReplicaException e){
+            return readOnly(e);
         }catch (Exception e){
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
 
+    /**
+     * Carga masiva de productos desde un arreglo JSON o NDJSON leído en streaming.
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> bulkImport(InputStream body){
+        try{
+            return ResponseEntity.status(HttpStatus.OK).body(productImportService.importProducts(body));
+        }catch (ReadOnlyReplicaException e){
+            return readOnly(e);
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Reemplaza un producto. Con {@code If-Match} la actualización solo se aplica si el
+     * producto sigue en la versión indicada; si no, responde 412 sin modificarlo.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<?> update(@PathVariable Long id, @RequestBody ProductDto productDto) {
+    public ResponseEntity<?> update(@PathVariable Long id, @RequestBody ProductDto productDto,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Product updated = productService.update(id, productDto);
-            return ResponseEntity.status(HttpStatus.OK).body(updated);
+            Product updated = productService.update(id, productDto, parseVersion(ifMatch));
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(updated)).body(updated);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (ReadOnlyReplicaException e) {
+            return readOnly(e);
+        } catch (BadResourceRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -70,8 +309,89 @@ public class ProductController {
     public ResponseEntity<?> delete(@PathVariable Long id){
         try{
             return ResponseEntity.status(HttpStatus.NO_CONTENT).body(productService.delete(id));
+        }catch (ReadOnlyReplicaException e){
+            return readOnly(e);
         }catch (Exception e){
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
+
+    private void writeProducts(OutputStream out, PageRequest page, boolean ndjson) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            if (ndjson) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                generator.writeStartArray();
+            }
+            try {
+                productService.forEachProduct(page, product -> {
+                    try {
+                        writer.writeValue(generator, product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (ndjson) {
+                generator.writeRaw('\n');
+            } else {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * Respuesta a una escritura sobre una réplica: 405 con los métodos que sí admite.
+     */
+    private static ResponseEntity<String> readOnly(ReadOnlyReplicaException e) {
+        return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                .header(HttpHeaders.ALLOW, "GET, HEAD")
+                .body(e.getMessage());
+    }
+
+    private static String eTag(Product product) {
+        return eTag(product.getVersion() != null ? product.getVersion() : 0);
+    }
+
+    private static String eTag(long version) {
+        return eTag(version, ContentCoding.IDENTITY);
+    }
+
+    /**
+     * ETag de la representación con la codificación dada: los cuerpos comprimidos
+     * no son idénticos byte a byte al original, así que no comparten el ETag fuerte.
+     */
+    private static String eTag(long version, ContentCoding coding) {
+        return coding == ContentCoding.IDENTITY
+                ? "\"" + version + "\""
+                : "\"" + version + "-" + coding.token() + "\"";
+    }
+
+    /**
+     * Versión indicada en {@code If-Match}, o {@code null} si no se envió o es {@code *}.
+     * Acepta también el ETag de una variante comprimida.
+     */
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        int suffix = value.indexOf('-');
+        if (suffix > 0) {
+            value = value.substring(0, suffix);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadResourceRequestException("If-Match inválido: " + ifMatch);
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDto {
+    private List<?> items;
+    /**
+     * IDs pedidos que no existen en el catálogo.
+     */
+    private List<Long> missing;
+}
@@ -0,0 +1,27 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeBatchDto {
+    /**
+     * Identifica la ejecución de la instancia; cambia al reiniciarla y con ella
+     * la numeración de los eventos.
+     */
+    private long epoch;
+    /**
+     * Secuencia del último evento publicado, aunque no esté en esta respuesta.
+     */
+    private long latestSequence;
+    /**
+     * Momento del último evento publicado, o del inicio si no hubo cambios.
+     */
+    private long latestTimestamp;
+    private List<ChangeEventDto> events;
+}
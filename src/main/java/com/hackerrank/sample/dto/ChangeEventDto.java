@@ -0,0 +1,30 @@
+package com.hackerrank.sample.dto;
+
+import com.hackerrank.sample.feed.ChangeType;
+import com.hackerrank.sample.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDto {
+    /**
+     * Número de secuencia del evento; consecutivo desde el inicio de la instancia.
+     */
+    private long sequence;
+    private ChangeType type;
+    /**
+     * ID del producto, o {@code null} en {@link ChangeType#RELOADED}.
+     */
+    private Long productId;
+    /**
+     * Producto tal como quedó, o {@code null} si se eliminó.
+     */
+    private Product product;
+    /**
+     * Momento en que se aplicó el cambio, en milisegundos.
+     */
+    private long timestamp;
+}
@@ -0,0 +1,25 @@
+package com.hackerrank.sample.dto;
+
+import com.hackerrank.sample.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeSnapshotDto {
+    private long epoch;
+    /**
+     * Secuencia leída antes que los productos: seguir el feed desde ella
+     * aplica todos los cambios que la foto pudo no incluir.
+     */
+    private long sequence;
+    /**
+     * Momento, según la instancia que publica el feed, del evento {@code sequence}.
+     */
+    private long latestTimestamp;
+    private List<Product> products;
+}
@@ -0,0 +1,23 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComparisonDto {
+    /**
+     * IDs de los productos comparados; cada fila tiene un valor por producto en este orden.
+     */
+    private List<Long> productIds;
+    private List<String> names;
+    private List<ComparisonRowDto> attributes;
+    /**
+     * IDs pedidos que no existen en el catálogo.
+     */
+    private List<Long> missing;
+}
@@ -0,0 +1,27 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComparisonRowDto {
+    private String name;
+    /**
+     * Unidad común de los valores numéricos, o {@code null} si no tienen o la fila es de texto.
+     */
+    private String unit;
+    /**
+     * Un valor por producto: números si todos los presentes lo son con la misma
+     * unidad, textos si no; {@code null} donde el producto no tiene el atributo.
+     */
+    private List<Object> values;
+    /**
+     * Si algún producto tiene un valor distinto o no tiene el atributo.
+     */
+    private boolean differs;
+}
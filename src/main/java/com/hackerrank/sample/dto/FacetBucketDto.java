@@ -0,0 +1,20 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetBucketDto {
+    /**
+     * Límite inferior incluido, o {@code null} en el primer intervalo.
+     */
+    private Double from;
+    /**
+     * Límite superior excluido, o {@code null} en el último intervalo.
+     */
+    private Double to;
+    private long count;
+}
@@ -0,0 +1,18 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetHistogramDto {
+    private List<FacetBucketDto> buckets;
+    /**
+     * Productos sin valor en el campo.
+     */
+    private long missing;
+}
@@ -0,0 +1,30 @@
+package com.hackerrank.sample.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class FacetRequestDto {
+    /**
+     * Filtros del resultado a agregar, con el mismo formato que {@code POST /product/filter}.
+     */
+    private List<FilterDto> filters;
+    /**
+     * Límites ascendentes de los intervalos de precio; sin límites no se agrega el precio.
+     */
+    private List<Double> priceBuckets;
+    /**
+     * Límites ascendentes de los intervalos de rating; sin límites no se agrega el rating.
+     */
+    private List<Double> ratingBuckets;
+    /**
+     * Campos de texto ({@code name}, {@code image}, {@code description},
+     * {@code specifications}) o atributos {@code spec.<nombre>} cuyos valores se cuentan.
+     */
+    private List<String> terms;
+    /**
+     * Cantidad máxima de valores por campo de {@code terms}.
+     */
+    private Integer size;
+}
@@ -0,0 +1,24 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetsDto {
+    /**
+     * Productos que cumplen los filtros.
+     */
+    private long total;
+    private FacetHistogramDto price;
+    private FacetHistogramDto rating;
+    /**
+     * Valores más frecuentes de cada campo pedido, de mayor a menor cantidad.
+     */
+    private Map<String, List<FacetTermDto>> terms;
+}
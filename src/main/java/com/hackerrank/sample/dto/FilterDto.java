@@ -6,4 +6,12 @@ import lombok.Data;
 public class FilterDto {
     private String key;
     private String value;
+    /**
+     * Operador de comparación: eq (por defecto), gt, gte, lt, lte o between.
+     */
+    private String operator;
+    /**
+     * Límite superior del rango cuando el operador es between.
+     */
+    private String valueTo;
 }
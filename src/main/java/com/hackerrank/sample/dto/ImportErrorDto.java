@@ -0,0 +1,16 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDto {
+    /**
+     * Posición del registro en la entrada, empezando en 0.
+     */
+    private long record;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.hackerrank.sample.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportResultDto {
+    private long received;
+    private long imported;
+    private long failed;
+    /**
+     * Errores por registro; se informan como máximo los primeros
+     * {@code ProductImportService.MAX_REPORTED_ERRORS}.
+     */
+    private List<ImportErrorDto> errors = new ArrayList<>();
+    /**
+     * Motivo por el que se dejó de leer la entrada, o {@code null} si se leyó completa.
+     */
+    private String aborted;
+}
@@ -0,0 +1,18 @@
+package com.hackerrank.sample.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDto {
+    private List<?> items;
+    /**
+     * Cursor para pedir la página siguiente, o {@code null} si es la última.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package com.hackerrank.sample.dto;
+
+import lombok.Data;
+
+/**
+ * Actualización parcial de un producto: los campos en {@code null} se conservan.
+ */
+@Data
+public class ProductPatchDto {
+    private Long id;
+    private String name;
+    private String image;
+    private String description;
+    private Double price;
+    private Double rating;
+    private String specifications;
+}
@@ -0,0 +1,11 @@
+package com.hackerrank.sample.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GONE)
+public class ChangeFeedGapException extends RuntimeException {
+    public ChangeFeedGapException(String msg) {
+        super(msg);
+    }
+}
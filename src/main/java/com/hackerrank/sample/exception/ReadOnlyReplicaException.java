@@ -0,0 +1,11 @@
+package com.hackerrank.sample.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.METHOD_NOT_ALLOWED)
+public class ReadOnlyReplicaException extends RuntimeException {
+    public ReadOnlyReplicaException(String msg) {
+        super(msg);
+    }
+}
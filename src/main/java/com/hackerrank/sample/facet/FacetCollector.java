@@ -0,0 +1,228 @@
+package com.hackerrank.sample.facet;
+
+import com.hackerrank.sample.dto.FacetBucketDto;
+import com.hackerrank.sample.dto.FacetHistogramDto;
+import com.hackerrank.sample.dto.FacetRequestDto;
+import com.hackerrank.sample.dto.FacetTermDto;
+import com.hackerrank.sample.dto.FacetsDto;
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.filter.AttributeClause;
+import com.hackerrank.sample.filter.ProductField;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.spec.Attribute;
+import com.hackerrank.sample.spec.Specifications;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Agrega facetas sobre los productos que cumplen un filtro a medida que se
+ * encuentran, sin guardar los productos.
+ *
+ * Los histogramas de precio y rating son contadores {@code long[]} y cada
+ * valor cae en su intervalo con una búsqueda binaria sobre los límites. Los
+ * valores de texto se cuentan en un mapa de contadores por campo y las
+ * especificaciones de cada producto se interpretan una sola vez aunque se
+ * pidan varios atributos. Del producto recibido solo se conservan textos, que
+ * son inmutables, así que puede ser la vista reutilizada del modo columnar.
+ * No es seguro para hilos.
+ */
+public class FacetCollector implements Consumer<Product> {
+
+    static final int DEFAULT_SIZE = 10;
+    static final int MAX_SIZE = 100;
+    static final int MAX_BUCKETS = 100;
+
+    private static final Comparator<Map.Entry<String, Count>> WORST_FIRST =
+            Comparator.<Map.Entry<String, Count>>comparingLong(entry -> entry.getValue().value)
+                    .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+
+    private final Histogram price;
+    private final Histogram rating;
+    private final List<Term> terms;
+    private final boolean parsesSpecifications;
+    private final int size;
+    private long total;
+
+    private FacetCollector(Histogram price, Histogram rating, List<Term> terms, int size) {
+        this.price = price;
+        this.rating = rating;
+        this.terms = terms;
+        this.parsesSpecifications = terms.stream().anyMatch(term -> term.field() == null);
+        this.size = size;
+    }
+
+    /**
+     * Valida la petición y prepara los contadores.
+     *
+     * @throws BadResourceRequestException Si los límites no son números finitos
+     *                                     ascendentes, algún campo no es de texto ni
+     *                                     un atributo, o el tamaño está fuera de rango.
+     */
+    public static FacetCollector of(FacetRequestDto request) {
+        int size = request.getSize() != null ? request.getSize() : DEFAULT_SIZE;
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadResourceRequestException("El tamaño de las facetas debe estar entre 1 y " + MAX_SIZE);
+        }
+        Map<String, Term> terms = new LinkedHashMap<>();
+        if (request.getTerms() != null) {
+            for (String key : request.getTerms()) {
+                if (key == null || key.isBlank()) {
+                    throw new BadResourceRequestException("Debe indicar el campo de cada faceta");
+                }
+                terms.computeIfAbsent(key, FacetCollector::term);
+            }
+        }
+        return new FacetCollector(histogram("priceBuckets", request.getPriceBuckets()),
+                histogram("ratingBuckets", request.getRatingBuckets()),
+                new ArrayList<>(terms.values()), size);
+    }
+
+    @Override
+    public void accept(Product product) {
+        total++;
+        if (price != null) {
+            price.add(ProductField.PRICE.getDouble(product));
+        }
+        if (rating != null) {
+            rating.add(ProductField.RATING.getDouble(product));
+        }
+        Specifications specifications = parsesSpecifications
+                ? Specifications.parse(product.getSpecifications())
+                : null;
+        for (Term term : terms) {
+            String value;
+            if (term.field() != null) {
+                value = term.field().getText(product);
+            } else {
+                Attribute attribute = specifications.get(term.attribute());
+                value = attribute != null ? attribute.value() : null;
+            }
+            if (value != null) {
+                term.counts().computeIfAbsent(value, key -> new Count()).value++;
+            }
+        }
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public FacetsDto result() {
+        Map<String, List<FacetTermDto>> top = new LinkedHashMap<>();
+        for (Term term : terms) {
+            top.put(term.key(), top(term.counts()));
+        }
+        return new FacetsDto(total,
+                price != null ? price.toDto() : null,
+                rating != null ? rating.toDto() : null,
+                top);
+    }
+
+    /**
+     * Los {@code size} valores más frecuentes, con un montículo acotado en
+     * lugar de ordenar todos los valores; los empates se ordenan por texto.
+     */
+    private List<FacetTermDto> top(Map<String, Count> counts) {
+        PriorityQueue<Map.Entry<String, Count>> heap = new PriorityQueue<>(size + 1, WORST_FIRST);
+        for (Map.Entry<String, Count> entry : counts.entrySet()) {
+            heap.add(entry);
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        }
+        List<FacetTermDto> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Map.Entry<String, Count> entry = heap.poll();
+            result.add(new FacetTermDto(entry.getKey(), entry.getValue().value));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static Term term(String key) {
+        if (key.startsWith(AttributeClause.KEY_PREFIX)) {
+            String name = Attribute.normalizeName(key.substring(AttributeClause.KEY_PREFIX.length()));
+            if (name.isEmpty()) {
+                throw new BadResourceRequestException("Debe indicar el atributo después de " + AttributeClause.KEY_PREFIX);
+            }
+            return new Term(key, null, name, new HashMap<>());
+        }
+        ProductField field = ProductField.from(key);
+        if (field.isNumeric()) {
+            throw new BadResourceRequestException("Solo se cuentan valores de campos de texto: " + key);
+        }
+        return new Term(key, field, null, new HashMap<>());
+    }
+
+    private static Histogram histogram(String name, List<Double> bounds) {
+        if (bounds == null || bounds.isEmpty()) {
+            return null;
+        }
+        if (bounds.size() > MAX_BUCKETS) {
+            throw new BadResourceRequestException("Debe enviar como máximo " + MAX_BUCKETS + " límites en " + name);
+        }
+        double[] values = new double[bounds.size()];
+        for (int i = 0; i < values.length; i++) {
+            Double bound = bounds.get(i);
+            if (bound == null || !Double.isFinite(bound) || (i > 0 && bound <= values[i - 1])) {
+                throw new BadResourceRequestException("Los límites de " + name + " deben ser números ascendentes");
+            }
+            values[i] = bound;
+        }
+        return new Histogram(values);
+    }
+
+    /**
+     * Campo de texto o atributo de las especificaciones cuyos valores se cuentan.
+     */
+    private record Term(String key, ProductField field, String attribute, Map<String, Count> counts) {
+    }
+
+    private static final class Count {
+        private long value;
+    }
+
+    /**
+     * Contadores de los intervalos [-∞, b0), [b0, b1), ..., [bn, +∞).
+     */
+    private static final class Histogram {
+
+        private final double[] bounds;
+        private final long[] counts;
+        private long missing;
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.counts = new long[bounds.length + 1];
+        }
+
+        void add(double value) {
+            if (Double.isNaN(value)) {
+                missing++;
+                return;
+            }
+            int position = Arrays.binarySearch(bounds, value);
+            counts[position >= 0 ? position + 1 : -position - 1]++;
+        }
+
+        FacetHistogramDto toDto() {
+            List<FacetBucketDto> buckets = new ArrayList<>(counts.length);
+            for (int i = 0; i < counts.length; i++) {
+                buckets.add(new FacetBucketDto(
+                        i > 0 ? bounds[i - 1] : null,
+                        i < bounds.length ? bounds[i] : null,
+                        counts[i]));
+            }
+            return new FacetHistogramDto(buckets, missing);
+        }
+    }
+}
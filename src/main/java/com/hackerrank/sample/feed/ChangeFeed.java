@@ -0,0 +1,176 @@
+package com.hackerrank.sample.feed;
+
+import com.hackerrank.sample.dto.ChangeBatchDto;
+import com.hackerrank.sample.dto.ChangeEventDto;
+import com.hackerrank.sample.dto.ChangeSnapshotDto;
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.exception.ChangeFeedGapException;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.IProductRepository;
+import com.hackerrank.sample.repository.ProductChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feed ordenado de los cambios del catálogo.
+ *
+ * Cada alta, modificación o baja que aplica {@link IProductRepository}, venga
+ * de {@code ProductService} o de la carga masiva, se publica como un evento
+ * con un número de secuencia consecutivo. Los eventos se guardan en un búfer
+ * circular de {@code product.feed.capacity} posiciones; quien pide eventos
+ * más viejos que el primero guardado recibe {@link ChangeFeedGapException} y
+ * debe volver a empezar desde {@link #snapshot()}.
+ *
+ * La numeración empieza en cero con cada ejecución; {@code epoch}, el momento
+ * de inicio de la instancia, permite detectar que cambió. Una secuencia
+ * posterior a la última publicada solo puede venir de una ejecución anterior,
+ * así que también se responde con {@link ChangeFeedGapException}.
+ */
+@Component
+public class ChangeFeed implements ProductChangeListener {
+
+    static final int MAX_BATCH_SIZE = 1000;
+    static final long MAX_WAIT_MS = 30_000;
+
+    private final IProductRepository repository;
+    private final long epoch;
+    private final ChangeEventDto[] events;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long latest;
+    private long latestTimestamp;
+
+    @Autowired
+    public ChangeFeed(IProductRepository repository,
+                      @Value("${product.feed.capacity:10000}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad del feed de cambios debe ser mayor a cero");
+        }
+        this.repository = repository;
+        this.epoch = repository.startedAt();
+        this.latestTimestamp = epoch;
+        this.events = new ChangeEventDto[capacity];
+        repository.addChangeListener(this);
+    }
+
+    @Override
+    public void changed(Product previous, Product current) {
+        if (previous == null) {
+            append(ChangeType.CREATED, current.getId(), current);
+        } else if (current == null) {
+            append(ChangeType.DELETED, previous.getId(), null);
+        } else {
+            append(ChangeType.UPDATED, current.getId(), current);
+        }
+    }
+
+    @Override
+    public void reloaded() {
+        append(ChangeType.RELOADED, null, null);
+    }
+
+    /**
+     * Eventos posteriores a {@code since}, en orden de secuencia.
+     *
+     * Si todavía no hay eventos nuevos y {@code waitMs} es mayor a cero, espera
+     * hasta que se publique alguno o se cumpla el plazo (long polling); la
+     * respuesta vacía indica que no hubo cambios en ese tiempo.
+     *
+     * @param since  Secuencia del último evento recibido; {@code 0} para empezar desde el inicio.
+     * @param limit  Cantidad máxima de eventos, hasta {@value #MAX_BATCH_SIZE}.
+     * @param waitMs Tiempo máximo de espera, hasta {@value #MAX_WAIT_MS} ms.
+     * @return Los eventos y la secuencia del último publicado.
+     * @throws BadResourceRequestException Si los parámetros no son válidos.
+     * @throws ChangeFeedGapException      Si algún evento posterior a {@code since} ya no se guarda,
+     *                                     o {@code since} es de una ejecución anterior.
+     * @throws InterruptedException        Si el hilo se interrumpe mientras espera.
+     */
+
+    public ChangeBatchDto read(long since, int limit, long waitMs) throws InterruptedException {
+        if (limit < 1 || limit > MAX_BATCH_SIZE) {
+            throw new BadResourceRequestException("El límite debe estar entre 1 y " + MAX_BATCH_SIZE);
+        }
+        if (since < 0 || waitMs < 0) {
+            throw new BadResourceRequestException("La secuencia y la espera no pueden ser negativas");
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(Math.min(waitMs, MAX_WAIT_MS));
+        lock.lock();
+        try {
+            if (since > latest) {
+                throw new ChangeFeedGapException(String.format(
+                        "La secuencia %d no es de esta ejecución; la última es %d", since, latest));
+            }
+            while (since == latest && remaining > 0) {
+                remaining = appended.awaitNanos(remaining);
+            }
+            long oldest = Math.max(1, latest - events.length + 1);
+            if (since + 1 < oldest) {
+                throw new ChangeFeedGapException(String.format(
+                        "Los eventos posteriores a %d ya no están disponibles; el primero guardado es %d", since, oldest));
+            }
+            int count = (int) Math.min(limit, latest - since);
+            List<ChangeEventDto> batch = new ArrayList<>(count);
+            for (long sequence = since + 1; sequence <= since + count; sequence++) {
+                batch.add(events[slot(sequence)]);
+            }
+            return new ChangeBatchDto(epoch, latest, latestTimestamp, batch);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Foto del catálogo para empezar a seguir el feed.
+     *
+     * La secuencia se lee antes que los productos, así que la foto puede
+     * incluir cambios posteriores a ella pero nunca le falta uno anterior.
+     * Como cada evento trae el producto completo, volver a aplicar esos
+     * cambios deja el mismo resultado.
+     */
+
+    public ChangeSnapshotDto snapshot() {
+        long sequence;
+        long timestamp;
+        lock.lock();
+        try {
+            sequence = latest;
+            timestamp = latestTimestamp;
+        } finally {
+            lock.unlock();
+        }
+        return new ChangeSnapshotDto(epoch, sequence, timestamp, repository.getAll());
+    }
+
+    public long latestSequence() {
+        lock.lock();
+        try {
+            return latest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(ChangeType type, Long productId, Product product) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            latest++;
+            latestTimestamp = now;
+            events[slot(latest)] = new ChangeEventDto(latest, type, productId, product, now);
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) ((sequence - 1) % events.length);
+    }
+}
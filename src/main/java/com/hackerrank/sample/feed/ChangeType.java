@@ -0,0 +1,28 @@
+package com.hackerrank.sample.feed;
+
+/**
+ * Tipo de un evento del feed de cambios.
+ */
+public enum ChangeType {
+
+    /**
+     * Producto nuevo; el evento trae el producto completo.
+     */
+    CREATED,
+
+    /**
+     * Producto modificado; el evento trae el producto completo en su nueva versión.
+     */
+    UPDATED,
+
+    /**
+     * Producto eliminado; el evento solo trae su ID.
+     */
+    DELETED,
+
+    /**
+     * El catálogo se reemplazó por completo; quien sigue el feed debe volver a
+     * leer la foto.
+     */
+    RELOADED
+}
@@ -0,0 +1,225 @@
+package com.hackerrank.sample.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.dto.ChangeBatchDto;
+import com.hackerrank.sample.dto.ChangeEventDto;
+import com.hackerrank.sample.dto.ChangeSnapshotDto;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.repository.IProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Mantiene el catálogo de una réplica ({@code product.repository.mode=replica})
+ * al día con otra instancia.
+ *
+ * Un hilo propio lee la foto de {@code GET /product/changes/snapshot} de la
+ * instancia en {@code product.replica.primary-url} y luego sigue su feed con
+ * {@code GET /product/changes} en long polling, aplicando cada evento en orden
+ * sobre el almacén en memoria. Si la otra instancia se reinicia (cambia su
+ * {@code epoch}), reemplaza el catálogo completo o ya descartó eventos que la
+ * réplica no leyó (410), vuelve a empezar por la foto. Los errores de red se
+ * reintentan cada {@code product.replica.retry-interval-ms}.
+ *
+ * El retraso se publica en {@code product.replica.lag} y
+ * {@code product.replica.lag.events}. En los demás modos no hace nada.
+ */
+@Component
+public class FeedReplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedReplicator.class);
+
+    private final IProductRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ProductMetrics metrics;
+    private final URI primary;
+    private final long pollWaitMs;
+    private final long retryIntervalMs;
+    private final int batchSize;
+    private final HttpClient client;
+    private volatile boolean running;
+    private Thread worker;
+
+    // Estado del seguimiento: solo lo modifica el hilo de la réplica.
+    private Long epoch;
+    private volatile long applied;
+    private volatile long appliedTimestamp;
+    private volatile long primaryLatest;
+    private volatile long primaryLatestTimestamp;
+
+    @Autowired
+    public FeedReplicator(IProductRepository repository,
+                          ObjectMapper objectMapper,
+                          ProductMetrics metrics,
+                          @Value("${product.replica.primary-url:http://localhost:8080}") String primaryUrl,
+                          @Value("${product.replica.poll-wait-ms:10000}") long pollWaitMs,
+                          @Value("${product.replica.retry-interval-ms:1000}") long retryIntervalMs,
+                          @Value("${product.replica.batch-size:500}") int batchSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.primary = URI.create(primaryUrl.endsWith("/") ? primaryUrl : primaryUrl + "/");
+        this.pollWaitMs = pollWaitMs;
+        this.retryIntervalMs = retryIntervalMs;
+        this.batchSize = batchSize;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(Math.max(retryIntervalMs, 1000)))
+                .build();
+    }
+
+    /**
+     * Arranca el seguimiento si el repositorio es una réplica.
+     */
+
+    @PostConstruct
+    public void start() {
+        if (!repository.isReplica()) {
+            return;
+        }
+        metrics.replicationLag(this::lagEvents, this::lagSeconds);
+        running = true;
+        worker = new Thread(this::run, "product-replica");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Detiene el seguimiento e interrumpe la espera en curso.
+     */
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(retryIntervalMs + pollWaitMs);
+        }
+    }
+
+    /**
+     * Eventos publicados por la otra instancia que todavía no se aplicaron.
+     */
+    long lagEvents() {
+        return Math.max(0, primaryLatest - applied);
+    }
+
+    /**
+     * Tiempo entre el último cambio aplicado y el último publicado, medido con
+     * los momentos que informa la otra instancia; es cero si la réplica está al día.
+     */
+    double lagSeconds() {
+        if (primaryLatest <= applied) {
+            return 0;
+        }
+        return Math.max(0, primaryLatestTimestamp - appliedTimestamp) / 1000.0;
+    }
+
+    /**
+     * Reemplaza el catálogo por la foto y sigue el feed desde su secuencia.
+     * El momento aplicado es el que informa la otra instancia para esa
+     * secuencia, para medir el retraso con un solo reloj.
+     */
+    void load(ChangeSnapshotDto snapshot) {
+        repository.loadReplica(snapshot.getProducts());
+        epoch = snapshot.getEpoch();
+        applied = snapshot.getSequence();
+        appliedTimestamp = snapshot.getLatestTimestamp();
+        log.info("Réplica cargada primary={} epoch={} sequence={} products={}",
+                primary, epoch, applied, snapshot.getProducts().size());
+    }
+
+    /**
+     * Aplica en orden los eventos de una respuesta del feed.
+     *
+     * @return {@code false} si hay que volver a cargar la foto: la otra
+     * instancia se reinició o reemplazó el catálogo completo.
+     */
+    boolean apply(ChangeBatchDto batch) {
+        if (epoch == null || batch.getEpoch() != epoch) {
+            return false;
+        }
+        primaryLatest = batch.getLatestSequence();
+        primaryLatestTimestamp = batch.getLatestTimestamp();
+        for (ChangeEventDto event : batch.getEvents()) {
+            if (event.getSequence() <= applied) {
+                continue;
+            }
+            if (event.getType() == ChangeType.RELOADED) {
+                return false;
+            }
+            repository.applyReplicated(event.getProductId(),
+                    event.getType() == ChangeType.DELETED ? null : event.getProduct());
+            applied = event.getSequence();
+            appliedTimestamp = event.getTimestamp();
+        }
+        return true;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (epoch == null) {
+                    load(get("product/changes/snapshot", ChangeSnapshotDto.class));
+                }
+                ChangeBatchDto batch = get("product/changes?since=" + applied + "&limit=" + batchSize
+                        + "&waitMs=" + pollWaitMs, ChangeBatchDto.class);
+                if (!apply(batch)) {
+                    epoch = null;
+                }
+            } catch (FeedGoneException e) {
+                log.info("Feed de cambios discontinuo primary={} sequence={}; se vuelve a cargar la foto", primary, applied);
+                epoch = null;
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("No se pudo seguir el feed de cambios primary={} error={}", primary, e.toString());
+                try {
+                    Thread.sleep(retryIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private <T> T get(String path, Class<T> type) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(primary.resolve(path))
+                .timeout(Duration.ofMillis(pollWaitMs + Math.max(retryIntervalMs, 1000)))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 410) {
+                throw new FeedGoneException();
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException("Respuesta " + response.statusCode() + " de " + request.uri());
+            }
+            return objectMapper.readValue(body, type);
+        }
+    }
+
+    /**
+     * La otra instancia ya no guarda los eventos siguientes a los aplicados.
+     */
+    private static final class FeedGoneException extends RuntimeException {
+
+        FeedGoneException() {
+            super(null, null, false, false);
+        }
+    }
+}
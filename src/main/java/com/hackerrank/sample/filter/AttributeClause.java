@@ -0,0 +1,80 @@
+package com.hackerrank.sample.filter;
+
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.spec.Attribute;
+import com.hackerrank.sample.spec.Specifications;
+
+import java.util.Locale;
+
+/**
+ * Condición sobre un atributo de las especificaciones, con clave
+ * {@code spec.<nombre>} en el filtro.
+ *
+ * Si {@code value} no es nulo el atributo debe ser un texto igual al valor sin
+ * distinguir mayúsculas; si es nulo, un número dentro del intervalo, con la
+ * misma semántica que {@link NumericClause}. La unidad del atributo no se
+ * compara.
+ *
+ * @param name  Nombre del atributo, en minúsculas.
+ * @param value Texto esperado en minúsculas, o {@code null} si la condición es un intervalo.
+ */
+public record AttributeClause(String name,
+                              String value,
+                              double lower,
+                              boolean lowerInclusive,
+                              double upper,
+                              boolean upperInclusive) implements FilterClause {
+
+    public static final String KEY_PREFIX = "spec.";
+
+    public static AttributeClause equalTo(String name, String value) {
+        return new AttributeClause(name, value.toLowerCase(Locale.ROOT), Double.NaN, false, Double.NaN, false);
+    }
+
+    public static AttributeClause range(String name, NumericClause range) {
+        return new AttributeClause(name, null,
+                range.lower(), range.lowerInclusive(), range.upper(), range.upperInclusive());
+    }
+
+    public boolean isRange() {
+        return value == null;
+    }
+
+    @Override
+    public ProductField field() {
+        return ProductField.SPECIFICATIONS;
+    }
+
+    @Override
+    public boolean test(Product product) {
+        return matches(Specifications.parse(product.getSpecifications()).get(name));
+    }
+
+    /**
+     * @param attribute Atributo del producto, o {@code null} si no lo tiene.
+     */
+    public boolean matches(Attribute attribute) {
+        if (attribute == null) {
+            return false;
+        }
+        if (!isRange()) {
+            return !attribute.isNumeric() && attribute.normalizedValue().equals(value);
+        }
+        if (!attribute.isNumeric()) {
+            return false;
+        }
+        int fromLower = Double.compare(attribute.number(), lower);
+        int fromUpper = Double.compare(attribute.number(), upper);
+        return (lowerInclusive ? fromLower >= 0 : fromLower > 0)
+                && (upperInclusive ? fromUpper <= 0 : fromUpper < 0);
+    }
+
+    /**
+     * Evaluarla exige interpretar las especificaciones, así que va después de
+     * las búsquedas de texto.
+     */
+    @Override
+    public int cost() {
+        return 10 * (ProductField.SPECIFICATIONS.cost() + 2);
+    }
+}
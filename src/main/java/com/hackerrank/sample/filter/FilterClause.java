@@ -0,0 +1,18 @@
+package com.hackerrank.sample.filter;
+
+import com.hackerrank.sample.model.Product;
+
+/**
+ * Condición ya compilada de un filtro sobre un campo de {@link Product}.
+ */
+public interface FilterClause {
+
+    ProductField field();
+
+    boolean test(Product product);
+
+    /**
+     * Costo estimado de evaluar la condición; las más baratas se evalúan primero.
+     */
+    int cost();
+}
@@ -0,0 +1,48 @@
+package com.hackerrank.sample.filter;
+
+import com.hackerrank.sample.exception.BadResourceRequestException;
+
+/**
+ * Operadores de comparación admitidos en un filtro.
+ *
+ * Los campos de texto solo admiten {@link #EQ}, que se interpreta como
+ * búsqueda de subcadena, y {@link #MATCH}, que exige cada palabra del valor;
+ * los numéricos admiten todos salvo {@link #MATCH}.
+ */
+public enum FilterOperator {
+
+    EQ("eq"),
+    GT("gt"),
+    GTE("gte"),
+    LT("lt"),
+    LTE("lte"),
+    BETWEEN("between"),
+    MATCH("match");
+
+    private final String key;
+
+    FilterOperator(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Busca el operador por su nombre; si no se envía se asume {@link #EQ}.
+     *
+     * @throws BadResourceRequestException Si el operador no existe.
+     */
+    public static FilterOperator from(String key) {
+        if (key == null || key.isBlank()) {
+            return EQ;
+        }
+        for (FilterOperator operator : values()) {
+            if (operator.key.equalsIgnoreCase(key.trim())) {
+                return operator;
+            }
+        }
+        throw new BadResourceRequestException("Operador inválido: " + key);
+    }
+}
@@ -0,0 +1,170 @@
+package com.hackerrank.sample.filter;
+
+import com.hackerrank.sample.dto.FilterDto;
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.spec.Attribute;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Plan de filtrado compilado una sola vez por petición.
+ *
+ * Valida todos los filtros antes de recorrer productos, resuelve cada campo a
+ * su {@link ProductField}, convierte los literales y ordena las condiciones de
+ * la más barata a la más cara. Los filtros se combinan con AND lógico.
+ *
+ * Las claves {@code spec.<nombre>} filtran por un atributo de las
+ * especificaciones: con {@code eq} y un texto, por igualdad; con un número o
+ * un operador de comparación, por su valor numérico.
+ */
+public class FilterPlan {
+
+    private final FilterClause[] clauses;
+
+    private FilterPlan(List<FilterClause> clauses) {
+        this.clauses = clauses.toArray(new FilterClause[0]);
+    }
+
+    /**
+     * Compila la lista de filtros recibida por la API.
+     *
+     * @param filters Filtros a compilar (clave y valor).
+     * @return El plan listo para evaluar productos.
+     * @throws BadResourceRequestException Si algún filtro está vacío, la columna o el operador no existen,
+     *                                     el valor no es un número válido para un campo numérico
+     *                                     o el operador no aplica al campo.
+     */
+    public static FilterPlan compile(List<FilterDto> filters) {
+        List<FilterClause> clauses = new ArrayList<>(filters.size());
+        for (FilterDto filter : filters) {
+            compile(filter, clauses);
+        }
+        clauses.sort(Comparator.comparingInt(FilterClause::cost));
+        return new FilterPlan(clauses);
+    }
+
+    private static void compile(FilterDto filter, List<FilterClause> clauses) {
+        String key = filter.getKey();
+        String value = filter.getValue();
+        if (key == null || value == null || key.isEmpty() || value.isEmpty()) {
+            throw new BadResourceRequestException("Debe enviar al menos un filtro válido");
+        }
+        if (key.startsWith(AttributeClause.KEY_PREFIX)) {
+            clauses.add(compileAttribute(filter));
+            return;
+        }
+        ProductField field = ProductField.from(key);
+        FilterOperator operator = FilterOperator.from(filter.getOperator());
+        if (!field.isNumeric()) {
+            if (operator == FilterOperator.MATCH) {
+                String words = value.trim();
+                if (words.isEmpty()) {
+                    throw new BadResourceRequestException("Debe enviar al menos una palabra para " + key);
+                }
+                for (String word : words.split("\\s+")) {
+                    clauses.add(new TextClause(field, word));
+                }
+                return;
+            }
+            if (operator != FilterOperator.EQ) {
+                throw new BadResourceRequestException("El operador " + operator.key() + " solo aplica a campos numéricos");
+            }
+            clauses.add(new TextClause(field, value));
+            return;
+        }
+        double lower = parseNumber(key, value);
+        double upper = lower;
+        if (operator == FilterOperator.BETWEEN) {
+            String valueTo = filter.getValueTo();
+            if (valueTo == null || valueTo.isEmpty()) {
+                throw new BadResourceRequestException("El operador between requiere valueTo para " + key);
+            }
+            upper = parseNumber(key, valueTo);
+            if (upper < lower) {
+                throw new BadResourceRequestException("Rango inválido para " + key + ": " + value + " > " + valueTo);
+            }
+        }
+        clauses.add(NumericClause.of(field, operator, lower, upper));
+    }
+
+    private static AttributeClause compileAttribute(FilterDto filter) {
+        String key = filter.getKey();
+        String name = Attribute.normalizeName(key.substring(AttributeClause.KEY_PREFIX.length()));
+        if (name.isEmpty()) {
+            throw new BadResourceRequestException("Debe indicar el atributo después de " + AttributeClause.KEY_PREFIX);
+        }
+        FilterOperator operator = FilterOperator.from(filter.getOperator());
+        if (operator == FilterOperator.MATCH) {
+            throw new BadResourceRequestException("El operador match no aplica a atributos: " + key);
+        }
+        Attribute value = Attribute.of(name, filter.getValue());
+        if (operator == FilterOperator.EQ && !value.isNumeric()) {
+            return AttributeClause.equalTo(name, value.value());
+        }
+        double lower = attributeNumber(key, value);
+        double upper = lower;
+        if (operator == FilterOperator.BETWEEN) {
+            String valueTo = filter.getValueTo();
+            if (valueTo == null || valueTo.isEmpty()) {
+                throw new BadResourceRequestException("El operador between requiere valueTo para " + key);
+            }
+            upper = attributeNumber(key, Attribute.of(name, valueTo));
+            if (upper < lower) {
+                throw new BadResourceRequestException("Rango inválido para " + key + ": " + filter.getValue() + " > " + valueTo);
+            }
+        }
+        return AttributeClause.range(name, NumericClause.of(ProductField.SPECIFICATIONS, operator, lower, upper));
+    }
+
+    /**
+     * Número de un valor de atributo; la unidad, si se envía, se ignora.
+     */
+    private static double attributeNumber(String key, Attribute value) {
+        if (!value.isNumeric()) {
+            throw new BadResourceRequestException("Valor numérico inválido para " + key + ": " + value.value());
+        }
+        return value.number();
+    }
+
+    private static double parseNumber(String key, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new BadResourceRequestException("Valor numérico inválido para " + key + ": " + value);
+        }
+    }
+
+    public boolean matches(Product product) {
+        for (FilterClause clause : clauses) {
+            if (!clause.test(product)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Relevancia del producto para las búsquedas de texto del plan: cada
+     * aparición del texto buscado suma el peso de su campo.
+     */
+    public double relevance(Product product) {
+        double score = 0;
+        for (FilterClause clause : clauses) {
+            if (clause instanceof TextClause text) {
+                score += text.occurrences(product) * text.field().relevanceWeight();
+            }
+        }
+        return score;
+    }
+
+    public List<FilterClause> clauses() {
+        return List.of(clauses);
+    }
+
+    public boolean isEmpty() {
+        return clauses.length == 0;
+    }
+}
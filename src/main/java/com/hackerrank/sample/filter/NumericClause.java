@@ -0,0 +1,48 @@
+package com.hackerrank.sample.filter;
+
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.model.Product;
+
+/**
+ * Rango sobre un campo numérico, con los literales ya convertidos a {@code double}.
+ *
+ * Todos los operadores se normalizan a un intervalo: {@code eq} es
+ * {@code [v, v]}, {@code gt} es {@code (v, +∞]} y así sucesivamente, de modo
+ * que el mismo intervalo sirve para evaluar productos y para consultar un
+ * {@link com.hackerrank.sample.index.SortedDoubleIndex}.
+ */
+public record NumericClause(ProductField field,
+                            double lower,
+                            boolean lowerInclusive,
+                            double upper,
+                            boolean upperInclusive) implements FilterClause {
+
+    public static NumericClause of(ProductField field, FilterOperator operator, double value, double valueTo) {
+        return switch (operator) {
+            case EQ -> new NumericClause(field, value, true, value, true);
+            case GT -> new NumericClause(field, value, false, Double.POSITIVE_INFINITY, true);
+            case GTE -> new NumericClause(field, value, true, Double.POSITIVE_INFINITY, true);
+            case LT -> new NumericClause(field, Double.NEGATIVE_INFINITY, true, value, false);
+            case LTE -> new NumericClause(field, Double.NEGATIVE_INFINITY, true, value, true);
+            case BETWEEN -> new NumericClause(field, value, true, valueTo, true);
+            case MATCH -> throw new BadResourceRequestException("El operador match solo aplica a campos de texto");
+        };
+    }
+
+    @Override
+    public boolean test(Product product) {
+        double fieldValue = field.getDouble(product);
+        if (Double.isNaN(fieldValue)) {
+            return false;
+        }
+        int fromLower = Double.compare(fieldValue, lower);
+        int fromUpper = Double.compare(fieldValue, upper);
+        return (lowerInclusive ? fromLower >= 0 : fromLower > 0)
+                && (upperInclusive ? fromUpper <= 0 : fromUpper < 0);
+    }
+
+    @Override
+    public int cost() {
+        return 0;
+    }
+}
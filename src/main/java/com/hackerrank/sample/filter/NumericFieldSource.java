@@ -0,0 +1,15 @@
+package com.hackerrank.sample.filter;
+
+/**
+ * Producto que entrega sus campos numéricos como {@code double} sin crear
+ * objetos {@link Double} o {@link Long}. Lo implementan las vistas con las que
+ * se recorre un almacén por columnas, para que evaluar un filtro numérico no
+ * asigne memoria por producto.
+ */
+public interface NumericFieldSource {
+
+    /**
+     * @return El valor del campo, o {@link Double#NaN} si está vacío.
+     */
+    double getDouble(ProductField field);
+}
@@ -0,0 +1,91 @@
+package com.hackerrank.sample.filter;
+
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.model.Product;
+
+import java.util.function.Function;
+
+/**
+ * Campos de {@link Product} sobre los que se puede filtrar, con su acceso
+ * precompilado para no usar reflexión por cada producto.
+ */
+public enum ProductField {
+
+    ID("id", true, 0, Product::getId),
+    NAME("name", false, 1, Product::getName),
+    IMAGE("image", false, 2, Product::getImage),
+    DESCRIPTION("description", false, 3, Product::getDescription),
+    PRICE("price", true, 0, Product::getPrice),
+    RATING("rating", true, 0, Product::getRating),
+    SPECIFICATIONS("specifications", false, 3, Product::getSpecifications);
+
+    private final String key;
+    private final boolean numeric;
+    private final int cost;
+    private final Function<Product, ?> accessor;
+
+    ProductField(String key, boolean numeric, int cost, Function<Product, ?> accessor) {
+        this.key = key;
+        this.numeric = numeric;
+        this.cost = cost;
+        this.accessor = accessor;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    /**
+     * Costo relativo de evaluar el campo: los numéricos son una comparación y
+     * los de texto dependen del largo habitual del contenido.
+     */
+    public int cost() {
+        return cost;
+    }
+
+    /**
+     * Peso de una coincidencia de texto en el campo al ordenar por relevancia:
+     * coincidir en un campo corto como el nombre vale más que en la descripción.
+     */
+    public double relevanceWeight() {
+        return 1.0 / (cost + 1);
+    }
+
+    public Object get(Product product) {
+        return accessor.apply(product);
+    }
+
+    /**
+     * Valor numérico del campo o {@link Double#NaN} si está vacío.
+     */
+    public double getDouble(Product product) {
+        if (product instanceof NumericFieldSource source) {
+            return source.getDouble(this);
+        }
+        Object value = accessor.apply(product);
+        return value instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+
+    public String getText(Product product) {
+        Object value = accessor.apply(product);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Busca el campo por el nombre usado en {@link Product}.
+     *
+     * @throws BadResourceRequestException Si el campo no existe.
+     */
+    public static ProductField from(String key) {
+        for (ProductField field : values()) {
+            if (field.key.equals(key)) {
+                return field;
+            }
+        }
+        throw new BadResourceRequestException("Columna inválida: " + key);
+    }
+}
@@ -0,0 +1,65 @@
+package com.hackerrank.sample.filter;
+
+import com.hackerrank.sample.model.Product;
+
+import java.util.Locale;
+
+/**
+ * Búsqueda de subcadena sin distinguir mayúsculas sobre un campo de texto.
+ *
+ * El texto buscado se pasa a minúsculas una sola vez al compilar y la
+ * comparación se hace sobre el campo original, sin crear copias por producto.
+ */
+public record TextClause(ProductField field, String needle) implements FilterClause {
+
+    public TextClause(ProductField field, String needle) {
+        this.field = field;
+        this.needle = needle.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean test(Product product) {
+        String fieldValue = field.getText(product);
+        return fieldValue != null && containsIgnoreCase(fieldValue, needle);
+    }
+
+    /**
+     * Cantidad de apariciones sin solapamiento del texto buscado en el campo.
+     */
+    public int occurrences(Product product) {
+        String fieldValue = field.getText(product);
+        if (fieldValue == null || needle.isEmpty()) {
+            return 0;
+        }
+        int length = needle.length();
+        int last = fieldValue.length() - length;
+        int count = 0;
+        for (int i = 0; i <= last; i++) {
+            if (fieldValue.regionMatches(true, i, needle, 0, length)) {
+                count++;
+                i += length - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Los campos largos cuestan más y las búsquedas largas descartan más
+     * productos, por lo que se prefieren los campos cortos con textos largos.
+     */
+    @Override
+    public int cost() {
+        return 10 * (field.cost() + 1) - Math.min(needle.length(), 9);
+    }
+
+    static boolean containsIgnoreCase(String haystack, String needle) {
+        int length = needle.length();
+        int last = haystack.length() - length;
+        for (int i = 0; i <= last; i++) {
+            if (haystack.regionMatches(true, i, needle, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package com.hackerrank.sample.index;
+
+import com.hackerrank.sample.filter.AttributeClause;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.spec.Attribute;
+import com.hackerrank.sample.spec.Specifications;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice de los atributos de las especificaciones por nombre y valor.
+ *
+ * Los valores numéricos de cada atributo van a un {@link SortedDoubleIndex} y
+ * los de texto, en minúsculas, a una {@link PostingList} por valor, así que un
+ * filtro {@code spec.<nombre>} se resuelve sin interpretar las
+ * especificaciones de todo el catálogo.
+ * No es seguro para hilos; la sincronización corresponde a quien lo usa.
+ */
+public class AttributeIndex {
+
+    private final Map<String, SortedDoubleIndex> numeric = new HashMap<>();
+    private final Map<String, Map<String, PostingList>> text = new HashMap<>();
+
+    /**
+     * Reemplaza el contenido del índice por los atributos del catálogo. Los
+     * valores numéricos se cargan de una vez en lugar de insertarse ordenados
+     * uno por uno.
+     */
+
+    public void load(List<Product> products) {
+        numeric.clear();
+        text.clear();
+        Map<String, Column> columns = new HashMap<>();
+        for (Product product : products) {
+            long productId = product.getId();
+            for (Attribute attribute : Specifications.parse(product.getSpecifications()).attributes()) {
+                if (attribute.isNumeric()) {
+                    columns.computeIfAbsent(attribute.name(), name -> new Column()).add(productId, attribute.number());
+                } else {
+                    addText(productId, attribute);
+                }
+            }
+        }
+        columns.forEach((name, column) -> {
+            SortedDoubleIndex index = new SortedDoubleIndex();
+            index.load(Arrays.copyOf(column.ids, column.size), Arrays.copyOf(column.values, column.size));
+            numeric.put(name, index);
+        });
+    }
+
+    public void add(long productId, String specifications) {
+        for (Attribute attribute : Specifications.parse(specifications).attributes()) {
+            if (attribute.isNumeric()) {
+                numeric.computeIfAbsent(attribute.name(), name -> new SortedDoubleIndex())
+                        .add(productId, attribute.number());
+            } else {
+                addText(productId, attribute);
+            }
+        }
+    }
+
+    public void remove(long productId, String specifications) {
+        for (Attribute attribute : Specifications.parse(specifications).attributes()) {
+            if (attribute.isNumeric()) {
+                SortedDoubleIndex index = numeric.get(attribute.name());
+                if (index != null && index.remove(productId, attribute.number()) && index.size() == 0) {
+                    numeric.remove(attribute.name());
+                }
+                continue;
+            }
+            Map<String, PostingList> values = text.get(attribute.name());
+            PostingList ids = values != null ? values.get(attribute.normalizedValue()) : null;
+            if (ids != null && ids.remove(productId) && ids.isEmpty()) {
+                values.remove(attribute.normalizedValue());
+                if (values.isEmpty()) {
+                    text.remove(attribute.name());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return IDs de los productos que cumplen la condición, ordenados de menor a mayor.
+     */
+
+    public long[] candidates(AttributeClause clause) {
+        if (clause.isRange()) {
+            SortedDoubleIndex index = numeric.get(clause.name());
+            if (index == null) {
+                return new long[0];
+            }
+            long[] ids = index.range(clause.lower(), clause.lowerInclusive(), clause.upper(), clause.upperInclusive());
+            Arrays.sort(ids);
+            return ids;
+        }
+        PostingList ids = postings(clause);
+        return ids != null ? ids.toArray() : new long[0];
+    }
+
+    private PostingList postings(AttributeClause clause) {
+        Map<String, PostingList> values = text.get(clause.name());
+        return values != null ? values.get(clause.value()) : null;
+    }
+
+    private void addText(long productId, Attribute attribute) {
+        text.computeIfAbsent(attribute.name(), name -> new HashMap<>())
+                .computeIfAbsent(attribute.normalizedValue(), value -> new PostingList())
+                .add(productId);
+    }
+
+    /**
+     * Pares (ID, valor) de un atributo numérico acumulados durante la carga.
+     */
+    private static final class Column {
+
+        private long[] ids = new long[16];
+        private double[] values = new double[16];
+        private int size;
+
+        void add(long productId, double value) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+                values = Arrays.copyOf(values, size << 1);
+            }
+            ids[size] = productId;
+            values[size] = value;
+            size++;
+        }
+    }
+}
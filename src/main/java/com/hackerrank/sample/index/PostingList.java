@@ -0,0 +1,86 @@
+package com.hackerrank.sample.index;
+
+import java.util.Arrays;
+
+/**
+ * Lista ordenada de IDs de productos asociada a un término del índice de texto.
+ *
+ * Como los IDs nuevos siempre son mayores, agregar suele ser escribir al
+ * final; quitar busca el ID y desplaza la cola.
+ */
+class PostingList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    boolean add(long productId) {
+        if (size > 0 && ids[size - 1] >= productId) {
+            int position = Arrays.binarySearch(ids, 0, size, productId);
+            if (position >= 0) {
+                return false;
+            }
+            insertAt(-position - 1, productId);
+            return true;
+        }
+        insertAt(size, productId);
+        return true;
+    }
+
+    boolean remove(long productId) {
+        int position = Arrays.binarySearch(ids, 0, size, productId);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Intersección de los IDs ya ordenados con esta lista.
+     *
+     * Recorre los candidatos y busca cada uno por bisección a partir de la
+     * última posición encontrada, lo que conviene cuando los candidatos son
+     * pocos frente al largo de la lista.
+     */
+
+    long[] intersect(long[] candidates) {
+        long[] result = new long[Math.min(candidates.length, size)];
+        int count = 0;
+        int from = 0;
+        for (long candidate : candidates) {
+            int position = Arrays.binarySearch(ids, from, size, candidate);
+            if (position >= 0) {
+                result[count++] = candidate;
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+            if (from == size) {
+                break;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private void insertAt(int position, long productId) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size << 1);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = productId;
+        size++;
+    }
+}
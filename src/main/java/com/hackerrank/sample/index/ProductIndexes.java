@@ -0,0 +1,303 @@
+package com.hackerrank.sample.index;
+
+import com.hackerrank.sample.filter.AttributeClause;
+import com.hackerrank.sample.filter.FilterClause;
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.filter.NumericClause;
+import com.hackerrank.sample.filter.ProductField;
+import com.hackerrank.sample.filter.TextClause;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.ProductChangeListener;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Índices secundarios del catálogo usados por {@code ProductService.filterProducts}.
+ *
+ * Hay un {@link SortedDoubleIndex} para {@code price} y {@code rating} y un
+ * {@link TrigramIndex} para {@code name}, {@code description} y
+ * {@code specifications}, más un {@link AttributeIndex} con los atributos de
+ * las especificaciones. Se construyen la primera vez que se necesitan y
+ * luego se mantienen con cada alta, modificación y baja que notifica el
+ * repositorio como {@link ProductChangeListener}. Las operaciones son
+ * idempotentes: agregar un producto ya indexado o quitar uno ausente no tiene
+ * efecto, por lo que una mutación que coincide con la construcción inicial no
+ * deja el índice inconsistente.
+ */
+public class ProductIndexes implements ProductChangeListener {
+
+    private static final ProductField[] NUMERIC_FIELDS = {ProductField.PRICE, ProductField.RATING};
+    private static final ProductField[] TEXT_FIELDS = {ProductField.NAME, ProductField.DESCRIPTION, ProductField.SPECIFICATIONS};
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<ProductField, SortedDoubleIndex> numeric = new EnumMap<>(ProductField.class);
+    private final Map<ProductField, TrigramIndex> text = new EnumMap<>(ProductField.class);
+    private final AttributeIndex attributes = new AttributeIndex();
+    private volatile boolean built;
+
+    public ProductIndexes() {
+        for (ProductField field : NUMERIC_FIELDS) {
+            numeric.put(field, new SortedDoubleIndex());
+        }
+        for (ProductField field : TEXT_FIELDS) {
+            text.put(field, new TrigramIndex());
+        }
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Construye los índices a partir del catálogo si aún no existen.
+     *
+     * @param catalog Proveedor del catálogo completo; solo se invoca una vez.
+     */
+
+    public void ensureBuilt(Supplier<List<Product>> catalog) {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                rebuildLocked(catalog.get());
+                built = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica un cambio notificado por el repositorio.
+     */
+
+    @Override
+    public void changed(Product previous, Product current) {
+        if (previous == null) {
+            added(current);
+        } else if (current == null) {
+            removed(previous);
+        } else {
+            updated(previous, current);
+        }
+    }
+
+    /**
+     * El catálogo se reemplazó: los índices se reconstruyen en la próxima consulta.
+     */
+
+    @Override
+    public void reloaded() {
+        lock.writeLock().lock();
+        try {
+            built = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega un producto a los índices ya construidos.
+     *
+     * El estado de construcción se consulta con el bloqueo de escritura tomado:
+     * si hay una construcción en curso, el cambio espera a que termine y se
+     * aplica sobre ella, aunque la foto del catálogo ya lo incluya.
+     */
+
+    public void added(Product product) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            addLocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updated(Product previous, Product current) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            removeLocked(previous);
+            addLocked(current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removed(Product product) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            removeLocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resuelve con índices las cláusulas del plan que los admiten.
+     *
+     * De las cláusulas numéricas se usa solo la más selectiva, y de las de
+     * texto todas las que buscan al menos un trigrama; las de atributos se
+     * resuelven siempre con su índice. Los candidatos de cada una se
+     * intersectan. El resto de las cláusulas las evalúa quien llama
+     * sobre los candidatos devueltos.
+     *
+     * @return IDs candidatos ordenados de menor a mayor, o {@code null} si
+     *         ninguna cláusula del plan tiene índice y hay que recorrer el catálogo.
+     */
+
+    public long[] candidates(FilterPlan plan) {
+        lock.readLock().lock();
+        try {
+            long[] result = null;
+            NumericClause best = null;
+            int bestCount = Integer.MAX_VALUE;
+            for (FilterClause clause : plan.clauses()) {
+                if (clause instanceof NumericClause range && numeric.containsKey(range.field())) {
+                    int count = count(range);
+                    if (count < bestCount) {
+                        best = range;
+                        bestCount = count;
+                    }
+                } else if (clause instanceof TextClause search && text.containsKey(search.field())) {
+                    long[] ids = text.get(search.field()).candidates(search.needle());
+                    if (ids != null) {
+                        result = result == null ? ids : intersect(result, ids);
+                    }
+                } else if (clause instanceof AttributeClause attribute) {
+                    long[] ids = attributes.candidates(attribute);
+                    result = result == null ? ids : intersect(result, ids);
+                }
+            }
+            if (best != null && (result == null || bestCount < result.length)) {
+                long[] ids = numeric.get(best.field())
+                        .range(best.lower(), best.lowerInclusive(), best.upper(), best.upperInclusive());
+                Arrays.sort(ids);
+                result = result == null ? ids : intersect(result, ids);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si el campo tiene un índice ordenado que contiene los
+     * {@code catalogSize} productos, es decir, ninguno con el campo vacío.
+     */
+
+    public boolean coversSort(ProductField field, int catalogSize) {
+        SortedDoubleIndex index = numeric.get(field);
+        if (index == null || !built) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return index.size() == catalogSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * IDs de una página recorriendo el índice ordenado del campo.
+     *
+     * @see SortedDoubleIndex#page(boolean, boolean, double, long, int)
+     */
+
+    public long[] page(ProductField field, boolean descending, Double afterValue, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            boolean hasCursor = afterId != null;
+            return numeric.get(field).page(descending, hasCursor,
+                    hasCursor ? afterValue : 0, hasCursor ? afterId : 0, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int count(NumericClause range) {
+        return numeric.get(range.field())
+                .count(range.lower(), range.lowerInclusive(), range.upper(), range.upperInclusive());
+    }
+
+    private void rebuildLocked(List<Product> products) {
+        attributes.load(products);
+        for (ProductField field : TEXT_FIELDS) {
+            TrigramIndex index = text.get(field);
+            index.clear();
+            for (Product product : products) {
+                index.add(product.getId(), field.getText(product));
+            }
+        }
+        long[] ids = new long[products.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = products.get(i).getId();
+        }
+        for (ProductField field : NUMERIC_FIELDS) {
+            double[] values = new double[ids.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = field.getDouble(products.get(i));
+            }
+            numeric.get(field).load(ids, values);
+        }
+    }
+
+    private void addLocked(Product product) {
+        for (ProductField field : NUMERIC_FIELDS) {
+            numeric.get(field).add(product.getId(), field.getDouble(product));
+        }
+        for (ProductField field : TEXT_FIELDS) {
+            text.get(field).add(product.getId(), field.getText(product));
+        }
+        attributes.add(product.getId(), product.getSpecifications());
+    }
+
+    private void removeLocked(Product product) {
+        for (ProductField field : NUMERIC_FIELDS) {
+            numeric.get(field).remove(product.getId(), field.getDouble(product));
+        }
+        for (ProductField field : TEXT_FIELDS) {
+            text.get(field).remove(product.getId(), field.getText(product));
+        }
+        attributes.remove(product.getId(), product.getSpecifications());
+    }
+
+    /**
+     * Intersección de dos arreglos de IDs ordenados.
+     */
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,218 @@
+package com.hackerrank.sample.index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Índice secundario ordenado de un campo numérico.
+ *
+ * Guarda pares (valor, ID) en dos arreglos primitivos paralelos ordenados por
+ * valor y luego por ID, sin boxing de {@link Double} ni {@link Long}. Un rango
+ * se resuelve con dos búsquedas binarias y las altas y bajas desplazan la
+ * cola del arreglo con {@link System#arraycopy}.
+ *
+ * Los valores {@link Double#NaN} (campos vacíos) no se indexan.
+ * No es seguro para hilos; la sincronización corresponde a quien lo usa.
+ */
+public class SortedDoubleIndex {
+
+    private double[] values;
+    private long[] ids;
+    private int size;
+
+    public SortedDoubleIndex() {
+        this.values = new double[16];
+        this.ids = new long[16];
+    }
+
+    /**
+     * Reemplaza el contenido del índice por los pares recibidos.
+     *
+     * @param productIds IDs de los productos.
+     * @param fieldValues Valor del campo de cada producto, en la misma posición.
+     */
+
+    public void load(long[] productIds, double[] fieldValues) {
+        int[] order = IntStream.range(0, productIds.length)
+                .filter(i -> !Double.isNaN(fieldValues[i]))
+                .boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> fieldValues[i])
+                        .thenComparingLong(i -> productIds[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int capacity = Math.max(16, order.length);
+        values = new double[capacity];
+        ids = new long[capacity];
+        for (int i = 0; i < order.length; i++) {
+            values[i] = fieldValues[order[i]];
+            ids[i] = productIds[order[i]];
+        }
+        size = order.length;
+    }
+
+    /**
+     * Agrega el par si no estaba indexado.
+     *
+     * @return {@code true} si se agregó.
+     */
+
+    public boolean add(long productId, double value) {
+        if (Double.isNaN(value)) {
+            return false;
+        }
+        int position = find(value, productId);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+            ids = Arrays.copyOf(ids, size << 1);
+        }
+        System.arraycopy(values, position, values, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        values[position] = value;
+        ids[position] = productId;
+        size++;
+        return true;
+    }
+
+    /**
+     * Quita el par si estaba indexado.
+     *
+     * @return {@code true} si se quitó.
+     */
+
+    public boolean remove(long productId, double value) {
+        if (Double.isNaN(value)) {
+            return false;
+        }
+        int position = find(value, productId);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(values, position + 1, values, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Cantidad de productos cuyo valor cae en el rango, sin copiar IDs.
+     */
+
+    public int count(double lower, boolean lowerInclusive, double upper, boolean upperInclusive) {
+        int from = lowerBound(lower, lowerInclusive);
+        int to = upperBound(upper, upperInclusive);
+        return Math.max(0, to - from);
+    }
+
+    /**
+     * IDs de los productos cuyo valor cae en el rango, ordenados por valor.
+     */
+
+    public long[] range(double lower, boolean lowerInclusive, double upper, boolean upperInclusive) {
+        int from = lowerBound(lower, lowerInclusive);
+        int to = upperBound(upper, upperInclusive);
+        if (to <= from) {
+            return new long[0];
+        }
+        return Arrays.copyOfRange(ids, from, to);
+    }
+
+    /**
+     * IDs en orden de (valor, ID) a partir de una posición, para paginar sin
+     * ordenar.
+     *
+     * @param descending Si se recorre de mayor a menor.
+     * @param hasCursor  Si se continúa después de ({@code afterValue}, {@code afterId}).
+     * @param limit      Cantidad máxima de IDs.
+     */
+
+    public long[] page(boolean descending, boolean hasCursor, double afterValue, long afterId, int limit) {
+        int start;
+        if (descending) {
+            start = size - 1;
+            if (hasCursor) {
+                int position = find(afterValue, afterId);
+                start = position >= 0 ? position - 1 : -position - 2;
+            }
+            int count = Math.max(0, Math.min(limit, start + 1));
+            long[] result = new long[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = ids[start - i];
+            }
+            return result;
+        }
+        start = 0;
+        if (hasCursor) {
+            int position = find(afterValue, afterId);
+            start = position >= 0 ? position + 1 : -position - 1;
+        }
+        int count = Math.max(0, Math.min(limit, size - start));
+        return Arrays.copyOfRange(ids, start, start + count);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Primera posición cuyo valor es mayor (o igual, si es inclusivo) que el límite.
+     */
+
+    private int lowerBound(double lower, boolean inclusive) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = Double.compare(values[middle], lower);
+            if (inclusive ? comparison < 0 : comparison <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Primera posición cuyo valor ya queda fuera del límite superior.
+     */
+
+    private int upperBound(double upper, boolean inclusive) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = Double.compare(values[middle], upper);
+            if (inclusive ? comparison <= 0 : comparison < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int find(double value, long productId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = Double.compare(values[middle], value);
+            if (comparison == 0) {
+                comparison = Long.compare(ids[middle], productId);
+            }
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+}
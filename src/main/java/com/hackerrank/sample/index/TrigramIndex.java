@@ -0,0 +1,115 @@
+package com.hackerrank.sample.index;
+
+import com.hackerrank.sample.util.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Índice invertido de trigramas de un campo de texto.
+ *
+ * Cada secuencia de tres caracteres del campo, normalizada sin distinguir
+ * mayúsculas, apunta a la {@link PostingList} de productos que la contienen.
+ * Todo producto que contiene una subcadena contiene también todos sus
+ * trigramas, así que la intersección de sus listas es un superconjunto exacto
+ * de los resultados y solo esos candidatos se verifican contra el texto.
+ *
+ * No es seguro para hilos; la sincronización corresponde a quien lo usa.
+ */
+public class TrigramIndex {
+
+    static final int GRAM = 3;
+
+    private final LongObjectHashMap<PostingList> postings = new LongObjectHashMap<>();
+
+    public void add(long productId, String text) {
+        for (long gram : trigrams(text)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                list = new PostingList();
+                postings.put(gram, list);
+            }
+            list.add(productId);
+        }
+    }
+
+    public void remove(long productId, String text) {
+        for (long gram : trigrams(text)) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(productId) && list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Productos que contienen todos los trigramas del texto buscado.
+     *
+     * @return IDs candidatos ordenados de menor a mayor, o {@code null} si el
+     *         texto es más corto que un trigrama y el índice no sirve.
+     */
+
+    public long[] candidates(String needle) {
+        long[] grams = trigrams(needle);
+        if (grams.length == 0) {
+            return null;
+        }
+        List<PostingList> lists = new ArrayList<>(grams.length);
+        for (long gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        long[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = lists.get(i).intersect(result);
+        }
+        return result;
+    }
+
+    /**
+     * Trigramas distintos del texto, codificados en un {@code long} con 16
+     * bits por carácter.
+     */
+
+    static long[] trigrams(String text) {
+        if (text == null || text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        long c0 = normalize(text.charAt(0));
+        long c1 = normalize(text.charAt(1));
+        for (int i = GRAM; i <= text.length(); i++) {
+            long c2 = normalize(text.charAt(i - 1));
+            grams[i - GRAM] = (c0 << 32) | (c1 << 16) | c2;
+            c0 = c1;
+            c1 = c2;
+        }
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < grams.length; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == grams.length ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Misma equivalencia que {@link String#regionMatches(boolean, int, String, int, int)}
+     * sin distinguir mayúsculas.
+     */
+
+    private static char normalize(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
@@ -1,9 +1,15 @@
 package com.hackerrank.sample.mapper;
 
 import com.hackerrank.sample.dto.ProductDto;
+import com.hackerrank.sample.dto.ProductPatchDto;
+import com.hackerrank.sample.filter.ProductField;
 import com.hackerrank.sample.model.Product;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 @Component
 public class ProductMapper {
 
@@ -28,4 +34,32 @@ public class ProductMapper {
         productDto.setSpecifications(product.getSpecifications());
         return productDto;
     }
+
+    /**
+     * Copia del producto con los campos no nulos del parche aplicados; el
+     * producto original no se modifica.
+     */
+    public Product applyPatch(Product product, ProductPatchDto patch){
+        Product patched = new Product();
+        patched.setId(product.getId());
+        patched.setVersion(product.getVersion());
+        patched.setName(patch.getName() != null ? patch.getName() : product.getName());
+        patched.setDescription(patch.getDescription() != null ? patch.getDescription() : product.getDescription());
+        patched.setPrice(patch.getPrice() != null ? patch.getPrice() : product.getPrice());
+        patched.setRating(patch.getRating() != null ? patch.getRating() : product.getRating());
+        patched.setImage(patch.getImage() != null ? patch.getImage() : product.getImage());
+        patched.setSpecifications(patch.getSpecifications() != null ? patch.getSpecifications() : product.getSpecifications());
+        return patched;
+    }
+
+    /**
+     * Vista parcial del producto con solo los campos pedidos, en el orden del modelo.
+     */
+    public Map<String, Object> project(Product product, Set<ProductField> fields){
+        Map<String, Object> view = new LinkedHashMap<>();
+        for (ProductField field : fields) {
+            view.put(field.key(), field.get(product));
+        }
+        return view;
+    }
 }
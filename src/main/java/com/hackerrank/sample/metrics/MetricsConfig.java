@@ -0,0 +1,18 @@
+package com.hackerrank.sample.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Habilita {@link io.micrometer.core.annotation.Timed} en los métodos de los servicios.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry){
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,249 @@
+package com.hackerrank.sample.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas propias del catálogo que no cubren los temporizadores HTTP ni
+ * {@link io.micrometer.core.annotation.Timed}: las fases de lectura y escritura
+ * de {@code products.json}, el trabajo de cada filtro y las cachés de
+ * resultados de filtros y de productos serializados.
+ *
+ * Los medidores se registran una sola vez al crear el componente, así que
+ * registrar un valor no busca ni crea medidores.
+ */
+@Component
+public class ProductMetrics {
+
+    static final String FILE_TIMER = "product.repository.file";
+    static final String FILE_BYTES = "product.repository.file.bytes";
+    static final String PERSISTENCE_FAILURES = "product.repository.persistence.failures";
+    static final String FILTER_EXECUTIONS = "product.filter.executions";
+    static final String FILTER_SCANNED = "product.filter.rows.scanned";
+    static final String FILTER_MATCHED = "product.filter.rows.matched";
+    static final String FILTER_CACHE_REQUESTS = "product.filter.cache.requests";
+    static final String FILTER_CACHE_EVICTIONS = "product.filter.cache.evictions";
+    static final String FILTER_CACHE_INVALIDATIONS = "product.filter.cache.invalidations";
+    static final String FILTER_CACHE_SIZE = "product.filter.cache.size";
+    static final String JSON_CACHE_REQUESTS = "product.json.cache.requests";
+    static final String REPLICA_LAG = "product.replica.lag";
+    static final String REPLICA_LAG_EVENTS = "product.replica.lag.events";
+
+    private final MeterRegistry registry;
+
+    private final Timer fileRead;
+    private final Timer fileParse;
+    private final Timer fileSerialize;
+    private final Timer fileWrite;
+    private final Counter bytesRead;
+    private final Counter bytesWritten;
+    private final Counter indexFilters;
+    private final Counter scanFilters;
+    private final Counter queryFilters;
+    private final DistributionSummary rowsScanned;
+    private final DistributionSummary rowsMatched;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter cacheEvictions;
+    private final Counter cacheInvalidations;
+    private final Counter jsonCacheHits;
+    private final Counter jsonCacheMisses;
+
+    public ProductMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.fileRead = fileTimer(registry, "read");
+        this.fileParse = fileTimer(registry, "parse");
+        this.fileSerialize = fileTimer(registry, "serialize");
+        this.fileWrite = fileTimer(registry, "write");
+        this.bytesRead = Counter.builder(FILE_BYTES)
+                .description("Bytes leídos de products.json")
+                .baseUnit("bytes")
+                .tag("direction", "read")
+                .register(registry);
+        this.bytesWritten = Counter.builder(FILE_BYTES)
+                .description("Bytes escritos en products.json")
+                .baseUnit("bytes")
+                .tag("direction", "written")
+                .register(registry);
+        this.indexFilters = filterCounter(registry, "index");
+        this.scanFilters = filterCounter(registry, "scan");
+        this.queryFilters = filterCounter(registry, "query");
+        this.rowsScanned = DistributionSummary.builder(FILTER_SCANNED)
+                .description("Productos evaluados contra el filtro")
+                .baseUnit("rows")
+                .register(registry);
+        this.rowsMatched = DistributionSummary.builder(FILTER_MATCHED)
+                .description("Productos que cumplen el filtro")
+                .baseUnit("rows")
+                .register(registry);
+        this.cacheHits = cacheRequests(registry, "hit");
+        this.cacheMisses = cacheRequests(registry, "miss");
+        this.cacheEvictions = Counter.builder(FILTER_CACHE_EVICTIONS)
+                .description("Resultados descartados por superar el límite de la caché")
+                .register(registry);
+        this.cacheInvalidations = Counter.builder(FILTER_CACHE_INVALIDATIONS)
+                .description("Resultados descartados porque un cambio los modificó")
+                .register(registry);
+        this.jsonCacheHits = jsonCacheRequests(registry, "hit");
+        this.jsonCacheMisses = jsonCacheRequests(registry, "miss");
+    }
+
+    /**
+     * Registra una lectura del archivo del catálogo.
+     *
+     * @param bytes      Bytes leídos.
+     * @param readNanos  Tiempo esperando al disco.
+     * @param parseNanos Tiempo convirtiendo el JSON en productos.
+     */
+    public void fileRead(long bytes, long readNanos, long parseNanos) {
+        bytesRead.increment(bytes);
+        fileRead.record(readNanos, TimeUnit.NANOSECONDS);
+        fileParse.record(parseNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra una escritura del archivo del catálogo.
+     *
+     * @param bytes          Bytes escritos.
+     * @param serializeNanos Tiempo convirtiendo los productos en JSON.
+     * @param writeNanos     Tiempo escribiendo y sincronizando con el disco.
+     */
+    public void fileWritten(long bytes, long serializeNanos, long writeNanos) {
+        bytesWritten.increment(bytes);
+        fileSerialize.record(serializeNanos, TimeUnit.NANOSECONDS);
+        fileWrite.record(writeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Contador de fallas de una tarea de persistencia en segundo plano. Se pide
+     * una sola vez por tarea, al crearla.
+     *
+     * @param task Nombre de la tarea, por ejemplo {@code write-behind}, {@code fsync} o {@code compaction}.
+     */
+    public Counter persistenceFailures(String task) {
+        return Counter.builder(PERSISTENCE_FAILURES)
+                .description("Fallas de las escrituras de persistencia en segundo plano")
+                .tag("task", task)
+                .register(registry);
+    }
+
+    /**
+     * Registra la ejecución de un filtro.
+     *
+     * @param indexed Si los candidatos salieron de un índice en lugar de recorrer el catálogo.
+     * @param scanned Productos evaluados contra el filtro.
+     * @param matched Productos que lo cumplen.
+     */
+    public void filtered(boolean indexed, int scanned, int matched) {
+        (indexed ? indexFilters : scanFilters).increment();
+        rowsScanned.record(scanned);
+        rowsMatched.record(matched);
+    }
+
+    /**
+     * Registra un filtro resuelto por la base de datos con una consulta; las
+     * filas evaluadas no se conocen desde la aplicación.
+     *
+     * @param matched Productos que lo cumplen.
+     */
+    public void filteredInStorage(int matched) {
+        queryFilters.increment();
+        rowsMatched.record(matched);
+    }
+
+    /**
+     * Registra un recorrido sin índice que se detuvo al reunir los productos
+     * de una página; las filas evaluadas dependen de dónde se detuvo cada
+     * tramo y no se registran.
+     *
+     * @param matched Productos reunidos.
+     */
+    public void scanStopped(int matched) {
+        scanFilters.increment();
+        rowsMatched.record(matched);
+    }
+
+    public void filterCacheHit() {
+        cacheHits.increment();
+    }
+
+    public void filterCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    public void filterCacheEvicted(int entries) {
+        cacheEvictions.increment(entries);
+    }
+
+    public void filterCacheInvalidated(int entries) {
+        cacheInvalidations.increment(entries);
+    }
+
+    public void jsonCacheHit() {
+        jsonCacheHits.increment();
+    }
+
+    public void jsonCacheMiss() {
+        jsonCacheMisses.increment();
+    }
+
+    /**
+     * Publica la cantidad de resultados guardados en la caché de filtros.
+     */
+    public void filterCacheSize(Supplier<Number> size) {
+        Gauge.builder(FILTER_CACHE_SIZE, size)
+                .description("Resultados guardados en la caché de filtros")
+                .register(registry);
+    }
+
+    /**
+     * Publica el retraso de la réplica respecto de la instancia que sigue.
+     *
+     * @param events  Eventos publicados por la otra instancia que la réplica todavía no aplicó.
+     * @param seconds Tiempo entre el último cambio aplicado y el último publicado, según el reloj de la otra instancia.
+     */
+    public void replicationLag(Supplier<Number> events, Supplier<Number> seconds) {
+        Gauge.builder(REPLICA_LAG_EVENTS, events)
+                .description("Cambios de la instancia principal que la réplica todavía no aplicó")
+                .register(registry);
+        Gauge.builder(REPLICA_LAG, seconds)
+                .description("Retraso de la réplica respecto del último cambio de la instancia principal")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private static Timer fileTimer(MeterRegistry registry, String phase) {
+        return Timer.builder(FILE_TIMER)
+                .description("Tiempo de lectura y escritura de products.json por fase")
+                .tag("phase", phase)
+                .register(registry);
+    }
+
+    private static Counter cacheRequests(MeterRegistry registry, String result) {
+        return Counter.builder(FILTER_CACHE_REQUESTS)
+                .description("Consultas a la caché de filtros según su resultado")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter jsonCacheRequests(MeterRegistry registry, String result) {
+        return Counter.builder(JSON_CACHE_REQUESTS)
+                .description("Lecturas de productos serializados según si estaban en la caché")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter filterCounter(MeterRegistry registry, String path) {
+        return Counter.builder(FILTER_EXECUTIONS)
+                .description("Filtros ejecutados según el camino tomado")
+                .tag("path", path)
+                .register(registry);
+    }
+}
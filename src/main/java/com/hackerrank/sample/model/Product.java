@@ -13,4 +13,8 @@ public class Product {
     private Double price;
     private Double rating;
     private String specifications;
+    /**
+     * Versión del producto, incrementada en cada modificación; se usa como ETag.
+     */
+    private Long version;
 }
@@ -0,0 +1,48 @@
+package com.hackerrank.sample.page;
+
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.model.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición de una página: el ID y el valor de ordenamiento del último
+ * producto entregado. Se envía al cliente como texto opaco y la siguiente
+ * página empieza justo después, sin contar ni saltar filas.
+ *
+ * @param id    ID del último producto entregado.
+ * @param value Valor del campo de orden de ese producto, o {@code null} si estaba vacío.
+ */
+public record KeysetCursor(long id, Object value) {
+
+    public static KeysetCursor of(Product product, SortOrder sort) {
+        return new KeysetCursor(product.getId(), sort.key(product));
+    }
+
+    public String encode() {
+        String raw = id + ":" + (value == null ? "" : "v" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lee un cursor emitido por {@link #encode()} para el mismo orden.
+     *
+     * @throws BadResourceRequestException Si el cursor no es válido.
+     */
+    public static KeysetCursor decode(String cursor, SortOrder sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            long id = Long.parseLong(raw.substring(0, separator));
+            String value = raw.substring(separator + 1);
+            if (value.isEmpty()) {
+                return new KeysetCursor(id, null);
+            }
+            value = value.substring(1);
+            return new KeysetCursor(id, sort.field().isNumeric() ? Double.valueOf(value) : value);
+        } catch (RuntimeException e) {
+            throw new BadResourceRequestException("Cursor inválido: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.hackerrank.sample.page;
+
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.filter.ProductField;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Parámetros de un listado: tamaño de página, cursor, orden y proyección.
+ *
+ * @param limit  Cantidad máxima de productos, o {@code null} para devolver todos.
+ * @param after  Posición desde la cual continuar, o {@code null} para empezar.
+ * @param sort   Orden del listado.
+ * @param fields Campos a incluir en la respuesta, o {@code null} para todos.
+ */
+public record PageRequest(Integer limit, KeysetCursor after, SortOrder sort, Set<ProductField> fields) {
+
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Interpreta los parámetros recibidos por la API.
+     *
+     * @throws BadResourceRequestException Si el límite, el cursor, el orden o algún campo no son válidos.
+     */
+    public static PageRequest of(Integer limit, String after, String sort, String fields) {
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT)) {
+            throw new BadResourceRequestException("El límite debe estar entre 1 y " + MAX_LIMIT);
+        }
+        if (after != null && limit == null) {
+            throw new BadResourceRequestException("El cursor requiere un límite");
+        }
+        SortOrder order = SortOrder.from(sort);
+        KeysetCursor cursor = after != null && !after.isBlank() ? KeysetCursor.decode(after, order) : null;
+        return new PageRequest(limit, cursor, order, parseFields(fields));
+    }
+
+    public boolean isPaged() {
+        return limit != null;
+    }
+
+    public boolean isProjected() {
+        return fields != null;
+    }
+
+    /**
+     * El ID siempre se incluye porque identifica al producto y sostiene el cursor.
+     */
+    private static Set<ProductField> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<ProductField> result = EnumSet.of(ProductField.ID);
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                result.add(ProductField.from(field.trim()));
+            }
+        }
+        return result;
+    }
+}
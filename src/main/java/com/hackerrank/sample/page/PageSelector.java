@@ -0,0 +1,53 @@
+package com.hackerrank.sample.page;
+
+import com.hackerrank.sample.model.Product;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selecciona una página de productos sin ordenar toda la colección.
+ *
+ * Mantiene un montículo acotado con los {@code limit + 1} mejores productos
+ * posteriores al cursor, así que cuesta O(n log limit) en lugar de
+ * O(n log n); el elemento extra indica si hay una página siguiente.
+ */
+public final class PageSelector {
+
+    private PageSelector() {
+    }
+
+    public static ProductSlice select(Iterable<Product> products, SortOrder sort, KeysetCursor after, int limit) {
+        Comparator<Product> order = sort.comparator();
+        PriorityQueue<Product> best = new PriorityQueue<>(limit + 2, order.reversed());
+        for (Product product : products) {
+            if (after != null && !sort.isAfter(product, after)) {
+                continue;
+            }
+            if (best.size() <= limit) {
+                best.add(product);
+            } else if (order.compare(product, best.peek()) < 0) {
+                best.poll();
+                best.add(product);
+            }
+        }
+        List<Product> items = new ArrayList<>(best);
+        items.sort(order);
+        return ProductSlice.of(items, limit);
+    }
+
+    /**
+     * Ordena la colección completa; se usa cuando se pide orden sin límite.
+     */
+    public static List<Product> sortAll(List<Product> products, SortOrder sort) {
+        if (sort.isById() && !sort.descending()) {
+            return products;
+        }
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort(sort.comparator());
+        return Collections.unmodifiableList(sorted);
+    }
+}
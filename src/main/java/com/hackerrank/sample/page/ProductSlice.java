@@ -0,0 +1,22 @@
+package com.hackerrank.sample.page;
+
+import com.hackerrank.sample.model.Product;
+
+import java.util.List;
+
+/**
+ * Productos de una página y si existen más después de ella.
+ */
+public record ProductSlice(List<Product> items, boolean hasMore) {
+
+    /**
+     * Recorta una lista que se pidió con un elemento de más para saber si hay
+     * página siguiente.
+     */
+    public static ProductSlice of(List<Product> itemsPlusOne, int limit) {
+        if (itemsPlusOne.size() > limit) {
+            return new ProductSlice(itemsPlusOne.subList(0, limit), true);
+        }
+        return new ProductSlice(itemsPlusOne, false);
+    }
+}
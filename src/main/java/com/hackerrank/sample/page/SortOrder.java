@@ -0,0 +1,82 @@
+package com.hackerrank.sample.page;
+
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.filter.ProductField;
+import com.hackerrank.sample.model.Product;
+
+import java.util.Comparator;
+
+/**
+ * Orden de un listado: un campo de {@link Product} y su dirección, con el ID
+ * como desempate para que el orden sea total y sirva de clave de paginación.
+ *
+ * Los campos vacíos quedan al final en orden ascendente.
+ */
+public record SortOrder(ProductField field, boolean descending) {
+
+    public static final SortOrder BY_ID = new SortOrder(ProductField.ID, false);
+
+    /**
+     * Interpreta el parámetro {@code sort}: el nombre del campo, con un
+     * {@code -} delante para orden descendente.
+     *
+     * @throws BadResourceRequestException Si el campo no existe.
+     */
+    public static SortOrder from(String value) {
+        if (value == null || value.isBlank()) {
+            return BY_ID;
+        }
+        String trimmed = value.trim();
+        boolean descending = trimmed.startsWith("-");
+        return new SortOrder(ProductField.from(descending ? trimmed.substring(1) : trimmed), descending);
+    }
+
+    public boolean isById() {
+        return field == ProductField.ID;
+    }
+
+    /**
+     * Valor del campo usado para ordenar: {@link Double} para los numéricos,
+     * {@link String} para los de texto y {@code null} si está vacío. Para el
+     * ID no hace falta valor, el desempate ya ordena.
+     */
+    public Object key(Product product) {
+        if (isById()) {
+            return null;
+        }
+        if (field.isNumeric()) {
+            double value = field.getDouble(product);
+            return Double.isNaN(value) ? null : value;
+        }
+        return field.getText(product);
+    }
+
+    public Comparator<Product> comparator() {
+        return (left, right) -> compare(key(left), left.getId(), key(right), right.getId());
+    }
+
+    /**
+     * Indica si el producto va después de la posición del cursor.
+     */
+    public boolean isAfter(Product product, KeysetCursor cursor) {
+        return compare(key(product), product.getId(), cursor.value(), cursor.id()) > 0;
+    }
+
+    int compare(Object leftKey, long leftId, Object rightKey, long rightId) {
+        int comparison = compareKeys(leftKey, rightKey);
+        if (comparison == 0) {
+            comparison = Long.compare(leftId, rightId);
+        }
+        return descending ? -comparison : comparison;
+    }
+
+    private static int compareKeys(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : 1) : -1;
+        }
+        if (left instanceof Double leftNumber && right instanceof Double rightNumber) {
+            return Double.compare(leftNumber, rightNumber);
+        }
+        return left.toString().compareTo(right.toString());
+    }
+}
@@ -0,0 +1,408 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Lectura y escritura del catálogo en un formato binario por columnas
+ * ({@code products.bin}).
+ *
+ * Formato, versión {@value #FORMAT_VERSION}, en orden de bytes big-endian:
+ * <pre>
+ * [int "PCAT"][short versión][short reservado][int productos n][int textos d][int bytes de textos b]
+ * [int × (d + 1) inicio de cada texto][b bytes UTF-8]
+ * [long × n id]
+ * [presencia][long × n version]
+ * [presencia][double × n price]
+ * [presencia][double × n rating]
+ * [int × n name][int × n image][int × n description][int × n specifications]
+ * [int crc32]
+ * </pre>
+ * Los productos se escriben ordenados por ID. Cada presencia es un mapa de
+ * bits de ⌈n/8⌉ bytes con las filas que tienen valor. Los textos forman un
+ * diccionario: cada valor distinto se guarda una sola vez y las columnas de
+ * texto guardan su posición, o -1 si es nulo. El CRC cubre todo lo anterior.
+ *
+ * La lectura mapea el archivo en memoria y valida el CRC una sola vez por
+ * archivo; las filas y los textos se decodifican recién cuando se piden, así
+ * que buscar un producto o contar el catálogo no recorre el archivo completo.
+ */
+class BinaryCatalogFile implements CatalogFile {
+
+    static final String EXTENSION = ".bin";
+    static final int MAGIC = 0x50434154;
+    static final short FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 20;
+    private static final int TRAILER_BYTES = 4;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+    private static final List<Function<Product, String>> TEXT_GETTERS = List.of(
+            Product::getName, Product::getImage, Product::getDescription, Product::getSpecifications);
+    private static final List<BiConsumer<Product, String>> TEXT_SETTERS = List.of(
+            Product::setName, Product::setImage, Product::setDescription, Product::setSpecifications);
+
+    private final Path path;
+    private final BlockingIo io;
+    private final ProductMetrics metrics;
+    private volatile Snapshot current;
+
+    BinaryCatalogFile(Path path, BlockingIo io, ProductMetrics metrics) {
+        this.path = path;
+        this.io = io;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public List<Product> read() {
+        Snapshot snapshot = snapshot();
+        List<Product> products = new ArrayList<>(snapshot.count);
+        for (int row = 0; row < snapshot.count; row++) {
+            products.add(snapshot.row(row));
+        }
+        return products;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        Snapshot snapshot = snapshot();
+        for (int row = 0; row < snapshot.count; row++) {
+            action.accept(snapshot.row(row));
+        }
+    }
+
+    /**
+     * Busca el ID con una búsqueda binaria sobre la columna de IDs y decodifica
+     * solo esa fila.
+     */
+
+    @Override
+    public Product find(long productId) {
+        Snapshot snapshot = snapshot();
+        int row = snapshot.rowOf(productId);
+        return row >= 0 ? snapshot.row(row) : null;
+    }
+
+    @Override
+    public int count() {
+        return snapshot().count;
+    }
+
+    @Override
+    public long maxId() {
+        Snapshot snapshot = snapshot();
+        return snapshot.count > 0 ? snapshot.id(snapshot.count - 1) : 0;
+    }
+
+    @Override
+    public void write(List<Product> products) {
+        try {
+            io.run(() -> replace(products, false));
+        } catch (Exception e) {
+            throw new RuntimeException("Error al guardar el archivo", e);
+        }
+    }
+
+    @Override
+    public void writeDurably(List<Product> products) {
+        try {
+            io.run(() -> replace(products, true));
+        } catch (Exception e) {
+            throw new RuntimeException("Error al guardar el archivo", e);
+        }
+    }
+
+    /**
+     * Foto mapeada del archivo actual. Se vuelve a abrir solo si el archivo
+     * cambió desde la última lectura; como las escrituras reemplazan el
+     * archivo, el mapeo anterior sigue siendo válido para quien aún lo use.
+     */
+    private Snapshot snapshot() {
+        try {
+            return io.call(() -> {
+                if (!Files.exists(path)) {
+                    replace(List.of(), false);
+                }
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                FileStamp stamp = new FileStamp(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+                Snapshot snapshot = current;
+                if (snapshot != null && snapshot.stamp.equals(stamp)) {
+                    return snapshot;
+                }
+                long start = System.nanoTime();
+                ByteBuffer buffer;
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    if (channel.size() > Integer.MAX_VALUE) {
+                        throw new IOException("El archivo supera el tamaño máximo de " + Integer.MAX_VALUE + " bytes");
+                    }
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                snapshot = new Snapshot(stamp, buffer);
+                metrics.fileRead(buffer.capacity(), System.nanoTime() - start, 0);
+                current = snapshot;
+                return snapshot;
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error al leer el archivo", e);
+        }
+    }
+
+    private void replace(List<Product> products, boolean durable) throws IOException {
+        Path target = path.toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long start = System.nanoTime();
+
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort(Comparator.comparingLong(Product::getId));
+        int count = sorted.size();
+        Map<String, Integer> codes = new HashMap<>();
+        List<byte[]> texts = new ArrayList<>();
+        long textBytes = 0;
+        int[][] textColumns = new int[TEXT_GETTERS.size()][count];
+        for (int row = 0; row < count; row++) {
+            for (int column = 0; column < TEXT_GETTERS.size(); column++) {
+                String value = TEXT_GETTERS.get(column).apply(sorted.get(row));
+                if (value == null) {
+                    textColumns[column][row] = -1;
+                    continue;
+                }
+                Integer code = codes.get(value);
+                if (code == null) {
+                    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    code = texts.size();
+                    codes.put(value, code);
+                    texts.add(encoded);
+                    textBytes += encoded.length;
+                }
+                textColumns[column][row] = code;
+            }
+        }
+        if (textBytes > Integer.MAX_VALUE) {
+            throw new IOException("Los textos del catálogo superan " + Integer.MAX_VALUE + " bytes");
+        }
+
+        long diskNanos;
+        long bytes;
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             TimedOutputStream timed = new TimedOutputStream(file)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(timed, WRITE_BUFFER_BYTES);
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeShort(0);
+            out.writeInt(count);
+            out.writeInt(texts.size());
+            out.writeInt((int) textBytes);
+            int offset = 0;
+            for (byte[] text : texts) {
+                out.writeInt(offset);
+                offset += text.length;
+            }
+            out.writeInt(offset);
+            for (byte[] text : texts) {
+                out.write(text);
+            }
+            for (Product product : sorted) {
+                out.writeLong(product.getId());
+            }
+            out.write(presence(sorted, Product::getVersion));
+            for (Product product : sorted) {
+                out.writeLong(product.getVersion() != null ? product.getVersion() : 0);
+            }
+            out.write(presence(sorted, Product::getPrice));
+            for (Product product : sorted) {
+                out.writeDouble(product.getPrice() != null ? product.getPrice() : 0);
+            }
+            out.write(presence(sorted, Product::getRating));
+            for (Product product : sorted) {
+                out.writeDouble(product.getRating() != null ? product.getRating() : 0);
+            }
+            for (int[] column : textColumns) {
+                for (int code : column) {
+                    out.writeInt(code);
+                }
+            }
+            new DataOutputStream(buffered).writeInt((int) crc.getValue());
+            buffered.flush();
+            if (durable) {
+                file.getFD().sync();
+            }
+            bytes = timed.bytes();
+            diskNanos = timed.nanos();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        current = null;
+        long totalNanos = System.nanoTime() - start;
+        metrics.fileWritten(bytes, totalNanos - diskNanos, diskNanos);
+    }
+
+    private static byte[] presence(List<Product> products, Function<Product, ?> getter) {
+        byte[] bits = new byte[bitmapBytes(products.size())];
+        for (int row = 0; row < products.size(); row++) {
+            if (getter.apply(products.get(row)) != null) {
+                bits[row >>> 3] |= (byte) (1 << (row & 7));
+            }
+        }
+        return bits;
+    }
+
+    private static int bitmapBytes(int count) {
+        return (count + 7) >>> 3;
+    }
+
+    private record FileStamp(Object fileKey, FileTime modified, long size) {
+    }
+
+    /**
+     * Archivo mapeado y validado. Los textos del diccionario se decodifican la
+     * primera vez que se usan y luego se comparten entre todos los productos
+     * que los referencian; si dos hilos decodifican el mismo a la vez, ambos
+     * obtienen cadenas iguales.
+     */
+    private static final class Snapshot {
+
+        private final FileStamp stamp;
+        private final ByteBuffer buffer;
+        private final int count;
+        private final int textOffsets;
+        private final int textData;
+        private final int ids;
+        private final int versions;
+        private final int prices;
+        private final int ratings;
+        private final int textColumns;
+        private final String[] texts;
+
+        private Snapshot(FileStamp stamp, ByteBuffer buffer) throws IOException {
+            this.stamp = stamp;
+            this.buffer = buffer;
+            if (buffer.capacity() < HEADER_BYTES + TRAILER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("El archivo no es un catálogo binario");
+            }
+            short version = buffer.getShort(4);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Versión de catálogo binario no soportada: " + version);
+            }
+            count = buffer.getInt(8);
+            int textCount = buffer.getInt(12);
+            int textBytes = buffer.getInt(16);
+            if (count < 0 || count > buffer.capacity() / 8 || textCount < 0 || textCount > buffer.capacity() / 4
+                    || textBytes < 0 || textBytes > buffer.capacity()) {
+                throw new IOException("El catálogo binario está truncado o dañado");
+            }
+            int bitmap = bitmapBytes(count);
+            textOffsets = HEADER_BYTES;
+            textData = textOffsets + 4 * (textCount + 1);
+            ids = textData + textBytes;
+            versions = ids + 8 * count + bitmap;
+            prices = versions + 8 * count + bitmap;
+            ratings = prices + 8 * count + bitmap;
+            textColumns = ratings + 8 * count;
+            long expected = (long) textColumns + 4L * TEXT_GETTERS.size() * count + TRAILER_BYTES;
+            if (expected != buffer.capacity()) {
+                throw new IOException("El catálogo binario está truncado o dañado");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, buffer.capacity() - TRAILER_BYTES));
+            if ((int) crc.getValue() != buffer.getInt(buffer.capacity() - TRAILER_BYTES)) {
+                throw new IOException("El CRC del catálogo binario no coincide");
+            }
+            texts = new String[textCount];
+        }
+
+        long id(int row) {
+            return buffer.getLong(ids + 8 * row);
+        }
+
+        Product row(int row) {
+            Product product = new Product();
+            product.setId(id(row));
+            if (present(versions, row)) {
+                product.setVersion(buffer.getLong(versions + 8 * row));
+            }
+            if (present(prices, row)) {
+                product.setPrice(buffer.getDouble(prices + 8 * row));
+            }
+            if (present(ratings, row)) {
+                product.setRating(buffer.getDouble(ratings + 8 * row));
+            }
+            for (int column = 0; column < TEXT_SETTERS.size(); column++) {
+                int code = buffer.getInt(textColumns + 4 * (column * count + row));
+                if (code >= 0) {
+                    TEXT_SETTERS.get(column).accept(product, text(code));
+                }
+            }
+            return product;
+        }
+
+        int rowOf(long productId) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                long id = id(middle);
+                if (id < productId) {
+                    low = middle + 1;
+                } else if (id > productId) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Cada columna numérica está precedida por su mapa de presencia.
+         */
+        private boolean present(int column, int row) {
+            int bitmap = column - bitmapBytes(count);
+            return (buffer.get(bitmap + (row >>> 3)) & (1 << (row & 7))) != 0;
+        }
+
+        private String text(int code) {
+            String text = texts[code];
+            if (text == null) {
+                int start = buffer.getInt(textOffsets + 4 * code);
+                int end = buffer.getInt(textOffsets + 4 * (code + 1));
+                byte[] bytes = new byte[end - start];
+                buffer.get(textData + start, bytes);
+                text = new String(bytes, StandardCharsets.UTF_8);
+                texts[code] = text;
+            }
+            return text;
+        }
+    }
+}
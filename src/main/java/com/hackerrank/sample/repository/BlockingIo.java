@@ -0,0 +1,132 @@
+package com.hackerrank.sample.repository;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutor de la E/S de disco bloqueante de la persistencia.
+ *
+ * Leer, escribir o sincronizar un archivo no libera el hilo portador de un
+ * hilo virtual: mientras dura la llamada, ese portador no atiende a ningún
+ * otro hilo virtual. Con la descarga activada, las llamadas hechas desde un
+ * hilo virtual se ejecutan en un grupo acotado de hilos de plataforma y el
+ * hilo virtual solo espera el resultado, lo que sí libera al portador. Las
+ * llamadas desde hilos de plataforma, como las tareas en segundo plano, se
+ * ejecutan en el mismo hilo porque descargarlas solo agregaría un salto.
+ */
+final class BlockingIo implements AutoCloseable {
+
+    private final ExecutorService executor;
+
+    private BlockingIo(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    static BlockingIo inline() {
+        return new BlockingIo(null);
+    }
+
+    static BlockingIo offloaded(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("La cantidad de hilos de E/S debe ser mayor a cero");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return new BlockingIo(Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "product-io-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    static BlockingIo of(boolean offload, int threads) {
+        return offload ? offloaded(threads) : inline();
+    }
+
+    <T> T call(Task<T> task) throws IOException {
+        if (executor == null || !Thread.currentThread().isVirtual()) {
+            return task.call();
+        }
+        // Lo toma primero la tarea al empezar o quien la llama al desistir.
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future = executor.submit(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            return task.call();
+        });
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    if (claimed.compareAndSet(false, true)) {
+                        future.cancel(false);
+                        throw new InterruptedIOException("Operación de E/S interrumpida");
+                    }
+                    // La tarea ya empezó: interrumpir el hilo de E/S dentro de un
+                    // FileChannel lo cerraría para siempre, así que se espera a que termine.
+                } catch (ExecutionException e) {
+                    throw unwrap(e);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        throw new UncheckedIOException(new IOException(cause));
+    }
+
+    void run(VoidTask task) throws IOException {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    interface Task<T> {
+        T call() throws IOException;
+    }
+
+    @FunctionalInterface
+    interface VoidTask {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,113 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Catálogo que no vive en memoria y se consulta en cada operación: el archivo
+ * del modo {@link RepositoryMode#FILE} o la base de datos del modo
+ * {@link RepositoryMode#H2}.
+ *
+ * {@link IProductRepository} toma los bloqueos antes de cada mutación y
+ * notifica los cambios; la implementación solo lee y escribe.
+ */
+interface CatalogBackend extends AutoCloseable {
+
+    List<Product> getAll();
+
+    /**
+     * Entrega los productos de a uno, sin armar la lista completa.
+     */
+    void forEach(Consumer<? super Product> action);
+
+    /**
+     * @return El producto, o {@code null} si no existe.
+     */
+    Product find(long productId);
+
+    /**
+     * @return Los productos encontrados, en el orden de los IDs recibidos.
+     */
+    List<Product> findAll(long[] productIds);
+
+    /**
+     * Productos en orden de ID a partir del cursor.
+     */
+    List<Product> page(Long afterId, boolean descending, int limit);
+
+    /**
+     * Entrega de a uno los productos que cumplen el plan, en orden de ID. Por
+     * defecto recorre el catálogo y evalúa el plan en Java; una base de datos
+     * puede resolverlo con una consulta.
+     */
+    default void forEachMatching(FilterPlan plan, Consumer<? super Product> action) {
+        forEach(product -> {
+            if (plan.matches(product)) {
+                action.accept(product);
+            }
+        });
+    }
+
+    /**
+     * Productos que cumplen el plan, en orden de ID.
+     */
+    default List<Product> filter(FilterPlan plan) {
+        List<Product> result = new ArrayList<>();
+        forEachMatching(plan, result::add);
+        return result;
+    }
+
+    /**
+     * Indica si {@link #forEachMatching} se resuelve sin traer el catálogo a la JVM.
+     */
+    default boolean filtersInStorage() {
+        return false;
+    }
+
+    /**
+     * @return La versión del producto, o {@code null} si no existe o no se
+     * puede obtener sin leer el catálogo.
+     */
+    default Long versionOf(long productId) {
+        return null;
+    }
+
+    int count();
+
+    /**
+     * @return El mayor ID del catálogo, o 0 si está vacío.
+     */
+    long maxId();
+
+    void insertAll(List<Product> products);
+
+    /**
+     * Reemplaza los productos indicados por el resultado de aplicarles el
+     * cambio; si el cambio lanza una excepción no se escribe ninguno.
+     *
+     * @return Cada producto anterior con su reemplazo; los IDs inexistentes se omiten.
+     */
+    List<Change> updateAll(long[] productIds, UnaryOperator<Product> change);
+
+    /**
+     * @return Los productos eliminados; los IDs inexistentes se omiten.
+     */
+    List<Product> deleteAll(long[] productIds);
+
+    void replaceAll(List<Product> products);
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Un producto antes y después de una modificación.
+     */
+    record Change(Product previous, Product current) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Convierte un archivo de catálogo entre JSON y el formato binario de
+ * {@link BinaryCatalogFile}. El formato de cada archivo se deduce de su
+ * extensión, igual que en {@link IProductRepository}:
+ *
+ * <pre>
+ * CatalogConverter products.json products.bin
+ * CatalogConverter products.bin products.json
+ * </pre>
+ */
+public final class CatalogConverter {
+
+    private CatalogConverter() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Uso: CatalogConverter <origen> <destino>");
+            System.exit(2);
+        }
+        ProductMetrics metrics = new ProductMetrics(new SimpleMeterRegistry());
+        try (BlockingIo io = BlockingIo.inline()) {
+            CatalogFile source = CatalogFile.of(IProductRepository.mapper, Path.of(args[0]), io, metrics);
+            CatalogFile target = CatalogFile.of(IProductRepository.mapper, Path.of(args[1]), io, metrics);
+            List<Product> products = source.read();
+            target.writeDurably(products);
+            System.out.printf("%d productos convertidos de %s a %s%n", products.size(), source.path(), target.path());
+        }
+    }
+}
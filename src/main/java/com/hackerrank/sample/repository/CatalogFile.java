@@ -0,0 +1,67 @@
+package com.hackerrank.sample.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Archivo con el catálogo completo. El formato se elige por la extensión:
+ * {@value BinaryCatalogFile#EXTENSION} usa {@link BinaryCatalogFile} y
+ * cualquier otra, {@link JsonCatalogFile}.
+ */
+interface CatalogFile {
+
+    static CatalogFile of(ObjectMapper mapper, Path path, BlockingIo io, ProductMetrics metrics) {
+        if (path.getFileName().toString().endsWith(BinaryCatalogFile.EXTENSION)) {
+            return new BinaryCatalogFile(path, io, metrics);
+        }
+        return new JsonCatalogFile(mapper, path, io, metrics);
+    }
+
+    Path path();
+
+    /**
+     * Lee el catálogo completo; si el archivo no existe, lo crea vacío.
+     */
+    List<Product> read();
+
+    /**
+     * Entrega los productos de a uno, sin armar la lista completa.
+     */
+    void forEach(Consumer<? super Product> action);
+
+    /**
+     * @return El producto con el ID indicado, o {@code null} si no existe.
+     */
+    default Product find(long productId) {
+        return read().stream()
+                .filter(product -> product.getId() == productId)
+                .findFirst()
+                .orElse(null);
+    }
+
+    default int count() {
+        return read().size();
+    }
+
+    /**
+     * @return El mayor ID del catálogo, o 0 si está vacío.
+     */
+    default long maxId() {
+        return read().stream().mapToLong(Product::getId).max().orElse(0);
+    }
+
+    /**
+     * Reemplaza el archivo de forma atómica.
+     */
+    void write(List<Product> products);
+
+    /**
+     * Reemplaza el archivo de forma atómica después de sincronizarlo con disco.
+     */
+    void writeDurably(List<Product> products);
+}
@@ -0,0 +1,508 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.filter.NumericFieldSource;
+import com.hackerrank.sample.filter.ProductField;
+import com.hackerrank.sample.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Almacén en memoria del modo {@link RepositoryMode#COLUMNAR}: los productos
+ * se guardan por columnas en lugar de como objetos.
+ *
+ * ID, versión, precio y rating viven en arreglos primitivos paralelos y los
+ * textos en un {@link TextDictionary}, que guarda una sola vez cada valor
+ * repetido; una fila ocupa unos 50 bytes más sus textos distintos, contra un
+ * {@link Product} con sus {@link Long} y {@link Double} y la entrada del mapa
+ * por ID. Las filas están ordenadas por ID, así que buscar un producto es una
+ * búsqueda binaria. Como los IDs nuevos siempre son mayores, insertar es
+ * agregar al final; eliminar solo marca la fila como borrada hasta que la
+ * mitad de las filas lo están y se compactan.
+ *
+ * Las lecturas arman un {@link Product} nuevo por fila. {@link #filter}
+ * evalúa el predicado sobre una vista que se mueve de fila en fila y solo arma
+ * los productos que lo cumplen; la vista implementa {@link NumericFieldSource},
+ * así que los filtros numéricos leen las columnas sin boxing.
+ */
+class ColumnarProductStore implements ProductStore {
+
+    private static final byte LIVE = 1;
+    private static final byte HAS_VERSION = 2;
+    private static final byte HAS_PRICE = 4;
+    private static final byte HAS_RATING = 8;
+    private static final List<Function<Product, String>> TEXT_GETTERS = List.of(
+            Product::getName, Product::getImage, Product::getDescription, Product::getSpecifications);
+    private static final List<BiConsumer<Product, String>> TEXT_SETTERS = List.of(
+            Product::setName, Product::setImage, Product::setDescription, Product::setSpecifications);
+    private static final int NAME = 0;
+    private static final int IMAGE = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int SPECIFICATIONS = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TextDictionary dictionary = new TextDictionary();
+    private final int[][] texts = new int[TEXT_GETTERS.size()][16];
+    private long[] ids = new long[16];
+    private long[] versions = new long[16];
+    private double[] prices = new double[16];
+    private double[] ratings = new double[16];
+    private byte[] flags = new byte[16];
+    private int rows;
+    private int live;
+
+    @Override
+    public void load(List<Product> initial) {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(flags, 0, rows, (byte) 0);
+            dictionary.clear();
+            rows = 0;
+            live = 0;
+            initial.stream()
+                    .sorted(Comparator.comparingLong(Product::getId))
+                    .forEach(this::putLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> getAll() {
+        lock.readLock().lock();
+        try {
+            List<Product> result = new ArrayList<>(live);
+            for (int row = 0; row < rows; row++) {
+                if (isLive(row)) {
+                    result.add(materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> page(Long afterId, boolean descending, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Product> result = new ArrayList<>(Math.min(limit, live));
+            if (descending) {
+                int start = rows - 1;
+                if (afterId != null) {
+                    int position = search(afterId);
+                    start = position >= 0 ? position - 1 : -position - 2;
+                }
+                for (int row = start; row >= 0 && result.size() < limit; row--) {
+                    if (isLive(row)) {
+                        result.add(materialize(row));
+                    }
+                }
+            } else {
+                int start = 0;
+                if (afterId != null) {
+                    int position = search(afterId);
+                    start = position >= 0 ? position + 1 : -position - 1;
+                }
+                for (int row = start; row < rows && result.size() < limit; row++) {
+                    if (isLive(row)) {
+                        result.add(materialize(row));
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Product get(long productId) {
+        lock.readLock().lock();
+        try {
+            int row = liveRow(productId);
+            return row >= 0 ? materialize(row) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Long versionOf(long productId) {
+        lock.readLock().lock();
+        try {
+            int row = liveRow(productId);
+            if (row < 0) {
+                return null;
+            }
+            return has(row, HAS_VERSION) ? versions[row] : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> filter(Predicate<? super Product> predicate, int limit, ParallelScan scan) {
+        lock.readLock().lock();
+        try {
+            return scan.filter(rows, () -> {
+                RowView view = new RowView();
+                return (from, to, out, max) -> {
+                    for (int row = from; row < to && out.size() < max; row++) {
+                        if (isLive(row)) {
+                            view.row = row;
+                            if (predicate.test(view)) {
+                                out.add(materialize(row));
+                            }
+                        }
+                    }
+                };
+            }, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void scan(Consumer<? super Product> action) {
+        lock.readLock().lock();
+        try {
+            RowView view = new RowView();
+            for (int row = 0; row < rows; row++) {
+                if (isLive(row)) {
+                    view.row = row;
+                    action.accept(view);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Product put(Product product) {
+        lock.writeLock().lock();
+        try {
+            return putLocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void putAll(List<Product> products) {
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                putLocked(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Product replace(Product product) {
+        lock.writeLock().lock();
+        try {
+            int row = liveRow(product.getId());
+            if (row < 0) {
+                return null;
+            }
+            Product previous = materialize(row);
+            write(row, product, true);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> replaceExisting(List<Product> products) {
+        lock.writeLock().lock();
+        try {
+            List<Product> replaced = new ArrayList<>(products.size());
+            for (Product product : products) {
+                int row = liveRow(product.getId());
+                if (row >= 0) {
+                    write(row, product, true);
+                    replaced.add(product);
+                }
+            }
+            return replaced;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> removeAll(long[] productIds) {
+        lock.writeLock().lock();
+        try {
+            List<Product> removed = new ArrayList<>(productIds.length);
+            for (long productId : productIds) {
+                int row = liveRow(productId);
+                if (row >= 0) {
+                    removed.add(materialize(row));
+                    for (int[] column : texts) {
+                        dictionary.release(column[row]);
+                    }
+                    flags[row] = 0;
+                    live--;
+                }
+            }
+            if (!removed.isEmpty() && rows > 64 && live < rows / 2) {
+                compact();
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void replaceAll(List<Product> all) {
+        load(all);
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long maxId() {
+        lock.readLock().lock();
+        try {
+            for (int row = rows - 1; row >= 0; row--) {
+                if (isLive(row)) {
+                    return ids[row];
+                }
+            }
+            return 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de textos distintos guardados.
+     */
+    int distinctTexts() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Product putLocked(Product product) {
+        long productId = product.getId();
+        int position = search(productId);
+        if (position >= 0) {
+            if (isLive(position)) {
+                Product previous = materialize(position);
+                write(position, product, true);
+                return previous;
+            }
+            write(position, product, false);
+            live++;
+            return null;
+        }
+        int row = -position - 1;
+        insertRowAt(row);
+        write(row, product, false);
+        live++;
+        return null;
+    }
+
+    /**
+     * Escribe el producto en la fila. Los textos nuevos se toman antes de
+     * soltar los anteriores, así que un texto que no cambia no sale del
+     * diccionario.
+     */
+    private void write(int row, Product product, boolean replacing) {
+        byte rowFlags = LIVE;
+        ids[row] = product.getId();
+        if (product.getVersion() != null) {
+            versions[row] = product.getVersion();
+            rowFlags |= HAS_VERSION;
+        }
+        if (product.getPrice() != null) {
+            prices[row] = product.getPrice();
+            rowFlags |= HAS_PRICE;
+        }
+        if (product.getRating() != null) {
+            ratings[row] = product.getRating();
+            rowFlags |= HAS_RATING;
+        }
+        flags[row] = rowFlags;
+        for (int column = 0; column < texts.length; column++) {
+            int code = dictionary.acquire(TEXT_GETTERS.get(column).apply(product));
+            if (replacing) {
+                dictionary.release(texts[column][row]);
+            }
+            texts[column][row] = code;
+        }
+    }
+
+    private Product materialize(int row) {
+        Product product = new Product();
+        product.setId(ids[row]);
+        if (has(row, HAS_VERSION)) {
+            product.setVersion(versions[row]);
+        }
+        if (has(row, HAS_PRICE)) {
+            product.setPrice(prices[row]);
+        }
+        if (has(row, HAS_RATING)) {
+            product.setRating(ratings[row]);
+        }
+        for (int column = 0; column < texts.length; column++) {
+            TEXT_SETTERS.get(column).accept(product, dictionary.get(texts[column][row]));
+        }
+        return product;
+    }
+
+    private void insertRowAt(int row) {
+        if (rows == ids.length) {
+            int capacity = rows << 1;
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            for (int column = 0; column < texts.length; column++) {
+                texts[column] = Arrays.copyOf(texts[column], capacity);
+            }
+        }
+        int tail = rows - row;
+        if (tail > 0) {
+            System.arraycopy(ids, row, ids, row + 1, tail);
+            System.arraycopy(versions, row, versions, row + 1, tail);
+            System.arraycopy(prices, row, prices, row + 1, tail);
+            System.arraycopy(ratings, row, ratings, row + 1, tail);
+            System.arraycopy(flags, row, flags, row + 1, tail);
+            for (int[] column : texts) {
+                System.arraycopy(column, row, column, row + 1, tail);
+            }
+        }
+        rows++;
+    }
+
+    private void compact() {
+        int target = 0;
+        for (int row = 0; row < rows; row++) {
+            if (!isLive(row)) {
+                continue;
+            }
+            if (target != row) {
+                ids[target] = ids[row];
+                versions[target] = versions[row];
+                prices[target] = prices[row];
+                ratings[target] = ratings[row];
+                flags[target] = flags[row];
+                for (int[] column : texts) {
+                    column[target] = column[row];
+                }
+            }
+            target++;
+        }
+        Arrays.fill(flags, target, rows, (byte) 0);
+        rows = target;
+    }
+
+    /**
+     * Posición del ID entre las filas, borradas incluidas, con la convención
+     * de {@link Arrays#binarySearch(long[], int, int, long)}.
+     */
+    private int search(long productId) {
+        return Arrays.binarySearch(ids, 0, rows, productId);
+    }
+
+    private int liveRow(long productId) {
+        int row = search(productId);
+        return row >= 0 && isLive(row) ? row : -1;
+    }
+
+    private boolean isLive(int row) {
+        return (flags[row] & LIVE) != 0;
+    }
+
+    private boolean has(int row, byte flag) {
+        return (flags[row] & flag) != 0;
+    }
+
+    /**
+     * Vista de solo lectura de la fila actual. Se reutiliza para todas las
+     * filas de un recorrido y no debe escapar de él.
+     */
+    private final class RowView extends Product implements NumericFieldSource {
+
+        private int row;
+
+        @Override
+        public double getDouble(ProductField field) {
+            return switch (field) {
+                case ID -> ids[row];
+                case PRICE -> has(row, HAS_PRICE) ? prices[row] : Double.NaN;
+                case RATING -> has(row, HAS_RATING) ? ratings[row] : Double.NaN;
+                default -> Double.NaN;
+            };
+        }
+
+        @Override
+        public Long getId() {
+            return ids[row];
+        }
+
+        @Override
+        public Long getVersion() {
+            return has(row, HAS_VERSION) ? versions[row] : null;
+        }
+
+        @Override
+        public Double getPrice() {
+            return has(row, HAS_PRICE) ? prices[row] : null;
+        }
+
+        @Override
+        public Double getRating() {
+            return has(row, HAS_RATING) ? ratings[row] : null;
+        }
+
+        @Override
+        public String getName() {
+            return dictionary.get(texts[NAME][row]);
+        }
+
+        @Override
+        public String getImage() {
+            return dictionary.get(texts[IMAGE][row]);
+        }
+
+        @Override
+        public String getDescription() {
+            return dictionary.get(texts[DESCRIPTION][row]);
+        }
+
+        @Override
+        public String getSpecifications() {
+            return dictionary.get(texts[SPECIFICATIONS][row]);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.util.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Catálogo del modo {@link RepositoryMode#FILE}: cada lectura lee el archivo y
+ * cada mutación lo lee, lo modifica y lo reescribe completo.
+ * {@link IProductRepository} serializa las mutaciones, así que nadie más
+ * modifica el archivo entre la lectura y la escritura.
+ */
+class FileCatalogBackend implements CatalogBackend {
+
+    private final CatalogFile file;
+
+    FileCatalogBackend(CatalogFile file) {
+        this.file = file;
+    }
+
+    @Override
+    public List<Product> getAll() {
+        return file.read();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        file.forEach(action);
+    }
+
+    @Override
+    public Product find(long productId) {
+        return file.find(productId);
+    }
+
+    @Override
+    public List<Product> findAll(long[] productIds) {
+        LongObjectHashMap<Product> byId = new LongObjectHashMap<>(productIds.length);
+        for (Product product : getAll()) {
+            byId.put(product.getId(), product);
+        }
+        List<Product> result = new ArrayList<>(productIds.length);
+        for (long productId : productIds) {
+            Product product = byId.get(productId);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Product> page(Long afterId, boolean descending, int limit) {
+        List<Product> products = getAll();
+        products.sort(Comparator.comparingLong(Product::getId));
+        if (descending) {
+            Collections.reverse(products);
+        }
+        return products.stream()
+                .filter(product -> afterId == null
+                        || (descending ? product.getId() < afterId : product.getId() > afterId))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public int count() {
+        return file.count();
+    }
+
+    @Override
+    public long maxId() {
+        return file.maxId();
+    }
+
+    @Override
+    public void insertAll(List<Product> products) {
+        List<Product> all = getAll();
+        all.addAll(products);
+        file.write(all);
+    }
+
+    @Override
+    public List<Change> updateAll(long[] productIds, UnaryOperator<Product> change) {
+        List<Product> all = getAll();
+        LongObjectHashMap<Integer> positions = new LongObjectHashMap<>(all.size());
+        for (int i = 0; i < all.size(); i++) {
+            positions.put(all.get(i).getId(), i);
+        }
+        List<Change> changes = new ArrayList<>(productIds.length);
+        for (long productId : productIds) {
+            Integer position = positions.get(productId);
+            if (position != null) {
+                Product previous = all.get(position);
+                changes.add(new Change(previous, change.apply(previous)));
+            }
+        }
+        if (changes.isEmpty()) {
+            return changes;
+        }
+        for (Change updated : changes) {
+            all.set(positions.get(updated.current().getId()), updated.current());
+        }
+        file.write(all);
+        return changes;
+    }
+
+    @Override
+    public List<Product> deleteAll(long[] productIds) {
+        LongObjectHashMap<Boolean> targets = new LongObjectHashMap<>(productIds.length);
+        for (long productId : productIds) {
+            targets.put(productId, Boolean.TRUE);
+        }
+        List<Product> all = getAll();
+        List<Product> removed = new ArrayList<>();
+        all.removeIf(product -> {
+            boolean target = targets.containsKey(product.getId());
+            if (target) {
+                removed.add(product);
+            }
+            return target;
+        });
+        if (!removed.isEmpty()) {
+            file.write(all);
+        }
+        return removed;
+    }
+
+    @Override
+    public void replaceAll(List<Product> products) {
+        file.write(products);
+    }
+}
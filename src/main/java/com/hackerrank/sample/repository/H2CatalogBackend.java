@@ -0,0 +1,445 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.filter.AttributeClause;
+import com.hackerrank.sample.filter.FilterClause;
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.filter.NumericClause;
+import com.hackerrank.sample.filter.TextClause;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.util.LongObjectHashMap;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Catálogo del modo {@link RepositoryMode#H2}: una tabla {@code products} en
+ * una base H2 embebida, accedida con JDBC a través de un pool Hikari propio.
+ *
+ * Las escrituras de varios productos se envían en lotes de
+ * {@link H2Settings#batchSize()} filas dentro de una sola transacción. La
+ * tabla tiene índices sobre {@code price}, {@code rating} y {@code name}, y
+ * {@link #forEachMatching} traduce el plan a una cláusula {@code WHERE}: los
+ * rangos numéricos se resuelven con los índices y las búsquedas de texto con
+ * {@code LOWER(campo) LIKE}, así que filtrar no trae el catálogo a la JVM.
+ * Los filtros por atributo de las especificaciones solo se acotan en SQL a
+ * las filas que mencionan el atributo y se terminan de evaluar en Java.
+ */
+class H2CatalogBackend implements CatalogBackend {
+
+    private static final String COLUMNS = "id, name, image, description, price, rating, specifications, version";
+    private static final String SELECT = "SELECT " + COLUMNS + " FROM products";
+    private static final String INSERT = "INSERT INTO products "
+            + "(name, image, description, price, rating, specifications, version, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE products SET name = ?, image = ?, description = ?, price = ?, "
+            + "rating = ?, specifications = ?, version = ? WHERE id = ?";
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS products ("
+                    + "id BIGINT PRIMARY KEY, "
+                    + "name VARCHAR, "
+                    + "image VARCHAR, "
+                    + "description VARCHAR, "
+                    + "price DOUBLE PRECISION, "
+                    + "rating DOUBLE PRECISION, "
+                    + "specifications VARCHAR, "
+                    + "version BIGINT)",
+            "CREATE INDEX IF NOT EXISTS products_price ON products (price)",
+            "CREATE INDEX IF NOT EXISTS products_rating ON products (rating)",
+            "CREATE INDEX IF NOT EXISTS products_name ON products (name)"
+    };
+
+    private final HikariDataSource dataSource;
+    private final int batchSize;
+
+    H2CatalogBackend(H2Settings settings) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("product-h2");
+        config.setJdbcUrl(settings.url());
+        config.setUsername(settings.username());
+        config.setPassword(settings.password());
+        config.setMaximumPoolSize(settings.poolSize());
+        config.setMinimumIdle(settings.poolSize());
+        config.setConnectionTimeout(settings.connectionTimeoutMs());
+        this.dataSource = new HikariDataSource(config);
+        this.batchSize = Math.max(1, settings.batchSize());
+        createSchema();
+    }
+
+    @Override
+    public List<Product> getAll() {
+        return query(SELECT + " ORDER BY id", statement -> {
+        });
+    }
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        inChunks("", List.of(), action);
+    }
+
+    @Override
+    public Product find(long productId) {
+        List<Product> found = query(SELECT + " WHERE id = ?", statement -> statement.setLong(1, productId));
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public List<Product> findAll(long[] productIds) {
+        if (productIds.length == 0) {
+            return new ArrayList<>();
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            return ordered(productIds, select(connection, productIds));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al leer la base de datos", e);
+        }
+    }
+
+    @Override
+    public List<Product> page(Long afterId, boolean descending, int limit) {
+        String sql = SELECT
+                + (afterId != null ? (descending ? " WHERE id < ?" : " WHERE id > ?") : "")
+                + (descending ? " ORDER BY id DESC" : " ORDER BY id")
+                + " FETCH FIRST ? ROWS ONLY";
+        return query(sql, statement -> {
+            int index = 1;
+            if (afterId != null) {
+                statement.setLong(index++, afterId);
+            }
+            statement.setInt(index, limit);
+        });
+    }
+
+    @Override
+    public void forEachMatching(FilterPlan plan, Consumer<? super Product> action) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> parameters = new ArrayList<>();
+        String separator = " WHERE ";
+        boolean residual = false;
+        for (FilterClause clause : plan.clauses()) {
+            sql.append(separator);
+            if (clause instanceof AttributeClause attribute) {
+                sql.append("LOWER(specifications) LIKE ? ESCAPE '\\'");
+                parameters.add("%" + escapeLike(attribute.name()) + "%");
+                residual = true;
+            } else {
+                appendCondition(sql, parameters, clause);
+            }
+            separator = " AND ";
+        }
+        Consumer<? super Product> matching = !residual ? action : product -> {
+            if (plan.matches(product)) {
+                action.accept(product);
+            }
+        };
+        inChunks(sql.substring(SELECT.length()), parameters, matching);
+    }
+
+    @Override
+    public boolean filtersInStorage() {
+        return true;
+    }
+
+    @Override
+    public Long versionOf(long productId) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT version FROM products WHERE id = ?")) {
+            statement.setLong(1, productId);
+            try (ResultSet rows = statement.executeQuery()) {
+                if (!rows.next()) {
+                    return null;
+                }
+                long version = rows.getLong(1);
+                return rows.wasNull() ? 0 : version;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al leer la base de datos", e);
+        }
+    }
+
+    @Override
+    public int count() {
+        return (int) scalar("SELECT COUNT(*) FROM products");
+    }
+
+    @Override
+    public long maxId() {
+        return scalar("SELECT COALESCE(MAX(id), 0) FROM products");
+    }
+
+    @Override
+    public void insertAll(List<Product> products) {
+        inTransaction(connection -> {
+            write(connection, INSERT, products);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Change> updateAll(long[] productIds, UnaryOperator<Product> change) {
+        return inTransaction(connection -> {
+            List<Change> changes = new ArrayList<>(productIds.length);
+            for (Product previous : ordered(productIds, select(connection, productIds))) {
+                changes.add(new Change(previous, change.apply(previous)));
+            }
+            List<Product> updated = new ArrayList<>(changes.size());
+            changes.forEach(applied -> updated.add(applied.current()));
+            write(connection, UPDATE, updated);
+            return changes;
+        });
+    }
+
+    @Override
+    public List<Product> deleteAll(long[] productIds) {
+        return inTransaction(connection -> {
+            List<Product> removed = ordered(productIds, select(connection, productIds));
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM products WHERE id = ?")) {
+                int pending = 0;
+                for (Product product : removed) {
+                    statement.setLong(1, product.getId());
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+            return removed;
+        });
+    }
+
+    @Override
+    public void replaceAll(List<Product> products) {
+        inTransaction(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DELETE FROM products");
+            }
+            write(connection, INSERT, products);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    private void createSchema() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al crear la tabla de productos", e);
+        }
+    }
+
+    /**
+     * Las columnas tienen el mismo nombre que el campo, así que la clave del
+     * campo se puede usar en el SQL. Los límites infinitos se omiten y un
+     * valor nulo no cumple ninguna comparación, igual que en Java.
+     */
+    private static void appendCondition(StringBuilder sql, List<Object> parameters, FilterClause clause) {
+        String column = clause.field().key();
+        if (clause instanceof NumericClause range) {
+            List<String> bounds = new ArrayList<>(2);
+            if (range.lower() != Double.NEGATIVE_INFINITY) {
+                bounds.add(column + (range.lowerInclusive() ? " >= ?" : " > ?"));
+                parameters.add(range.lower());
+            }
+            if (range.upper() != Double.POSITIVE_INFINITY) {
+                bounds.add(column + (range.upperInclusive() ? " <= ?" : " < ?"));
+                parameters.add(range.upper());
+            }
+            sql.append(bounds.isEmpty() ? column + " IS NOT NULL" : String.join(" AND ", bounds));
+            return;
+        }
+        if (clause instanceof TextClause text) {
+            sql.append("LOWER(").append(column).append(") LIKE ? ESCAPE '\\'");
+            parameters.add("%" + escapeLike(text.needle()) + "%");
+            return;
+        }
+        throw new IllegalArgumentException("Condición sin traducción a SQL: " + clause);
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private List<Product> select(Connection connection, long[] productIds) throws SQLException {
+        Long[] boxed = new Long[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            boxed[i] = productIds[i];
+        }
+        Array ids = connection.createArrayOf("BIGINT", boxed);
+        try (PreparedStatement statement = connection.prepareStatement(SELECT + " WHERE id = ANY(?)")) {
+            statement.setArray(1, ids);
+            List<Product> result = new ArrayList<>(productIds.length);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    result.add(read(rows));
+                }
+            }
+            return result;
+        } finally {
+            ids.free();
+        }
+    }
+
+    /**
+     * Ordena los productos según los IDs pedidos; los repetidos se entregan una vez.
+     */
+    private static List<Product> ordered(long[] productIds, List<Product> products) {
+        LongObjectHashMap<Product> byId = new LongObjectHashMap<>(products.size());
+        products.forEach(product -> byId.put(product.getId(), product));
+        List<Product> result = new ArrayList<>(products.size());
+        for (long productId : productIds) {
+            Product product = byId.remove(productId);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    private void write(Connection connection, String sql, List<Product> products) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (Product product : products) {
+                statement.setString(1, product.getName());
+                statement.setString(2, product.getImage());
+                statement.setString(3, product.getDescription());
+                statement.setObject(4, product.getPrice(), Types.DOUBLE);
+                statement.setObject(5, product.getRating(), Types.DOUBLE);
+                statement.setString(6, product.getSpecifications());
+                statement.setObject(7, product.getVersion(), Types.BIGINT);
+                statement.setLong(8, product.getId());
+                statement.addBatch();
+                if (++pending == batchSize) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private List<Product> query(String sql, Binder binder) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            binder.bind(statement);
+            List<Product> result = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    result.add(read(rows));
+                }
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al leer la base de datos", e);
+        }
+    }
+
+    /**
+     * Entrega en orden de ID las filas que cumplen {@code where}, leyéndolas en
+     * tramos de {@link IProductRepository#STREAM_CHUNK_SIZE} por clave. Cada
+     * tramo usa una conexión del pool solo mientras se lee, así que una acción
+     * lenta (un cliente de {@code GET /product/stream}) no retiene la conexión.
+     */
+    private void inChunks(String where, List<Object> parameters, Consumer<? super Product> action) {
+        String sql = SELECT + where + (where.isEmpty() ? " WHERE " : " AND ")
+                + "id > ? ORDER BY id FETCH FIRST ? ROWS ONLY";
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            long after = afterId;
+            List<Product> chunk = query(sql, statement -> {
+                int index = 1;
+                for (Object parameter : parameters) {
+                    statement.setObject(index++, parameter);
+                }
+                statement.setLong(index++, after);
+                statement.setInt(index, IProductRepository.STREAM_CHUNK_SIZE);
+            });
+            chunk.forEach(action);
+            if (chunk.size() < IProductRepository.STREAM_CHUNK_SIZE) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
+    private long scalar(String sql) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(sql)) {
+            rows.next();
+            return rows.getLong(1);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al leer la base de datos", e);
+        }
+    }
+
+    private <T> T inTransaction(Work<T> work) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                T result = work.run(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al escribir en la base de datos", e);
+        }
+    }
+
+    private static Product read(ResultSet rows) throws SQLException {
+        Product product = new Product();
+        product.setId(rows.getLong("id"));
+        product.setName(rows.getString("name"));
+        product.setImage(rows.getString("image"));
+        product.setDescription(rows.getString("description"));
+        product.setPrice(rows.getObject("price", Double.class));
+        product.setRating(rows.getObject("rating", Double.class));
+        product.setSpecifications(rows.getString("specifications"));
+        product.setVersion(rows.getObject("version", Long.class));
+        return product;
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Work<T> {
+        T run(Connection connection) throws SQLException;
+    }
+}
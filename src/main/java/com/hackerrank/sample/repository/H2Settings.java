@@ -0,0 +1,19 @@
+package com.hackerrank.sample.repository;
+
+/**
+ * Configuración del modo {@link RepositoryMode#H2}.
+ *
+ * @param url                 URL JDBC de la base, por ejemplo {@code jdbc:h2:./data/products}.
+ * @param username            Usuario de la base.
+ * @param password            Contraseña de la base.
+ * @param poolSize            Conexiones del pool; el pool es de tamaño fijo.
+ * @param connectionTimeoutMs Espera máxima por una conexión libre.
+ * @param batchSize           Filas por lote en las escrituras por lotes.
+ */
+record H2Settings(String url,
+                  String username,
+                  String password,
+                  int poolSize,
+                  long connectionTimeoutMs,
+                  int batchSize) {
+}
@@ -1,63 +1,837 @@
 package com.hackerrank.sample.repository;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hackerrank.sample.exception.NoSuchResourceFoundException;
+import com.hackerrank.sample.exception.ReadOnlyReplicaException;
+import com.hackerrank.sample.exception.VersionConflictException;
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.metrics.ProductMetrics;
 import com.hackerrank.sample.model.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.io.DataOutput;
-import java.io.File;
-import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 @Repository
 public class IProductRepository {
 
     static final ObjectMapper mapper = new ObjectMapper();
     static final String FILE_PATH = "products.json";
+    static final int STREAM_CHUNK_SIZE = 512;
+    static final long INITIAL_VERSION = 1;
 
-    public List<Product> getAll() {
+    private final RepositoryMode mode;
+    private final CatalogFile catalogFile;
+    private final String filePath;
+    private final long flushIntervalMs;
+    private final int idBlockSize;
+    private final ProductStore store;
+    private final StripedLocks locks;
+    private final BlockingIo io;
+    private final ProductMetrics metrics;
+    private final ReentrantLock fileLock = new ReentrantLock();
+    private final List<ProductChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private volatile long lastModified = startedAt;
+    private ProductPersistence persistence;
+    private CatalogBackend backend;
+    private IdSequence sequence;
+    private ParallelScan parallelScan = ParallelScan.SERIAL;
+
+    @Value("${product.repository.wal.dir:data}")
+    private String walDirectory;
+
+    @Value("${product.repository.wal.fsync-interval-ms:50}")
+    private long walFsyncIntervalMs;
+
+    @Value("${product.repository.wal.fsync-batch-size:256}")
+    private int walFsyncBatchSize;
+
+    @Value("${product.repository.wal.compaction-interval-ms:60000}")
+    private long walCompactionIntervalMs;
+
+    @Value("${product.repository.wal.compaction-min-bytes:1048576}")
+    private long walCompactionMinBytes;
+
+    @Value("${product.repository.wal.export-on-close:true}")
+    private boolean walExportOnClose;
+
+    @Value("${product.repository.h2.url:jdbc:h2:./data/products}")
+    private String h2Url;
+
+    @Value("${product.repository.h2.username:sa}")
+    private String h2Username;
+
+    @Value("${product.repository.h2.password:}")
+    private String h2Password;
+
+    @Value("${product.repository.h2.pool-size:8}")
+    private int h2PoolSize;
+
+    @Value("${product.repository.h2.connection-timeout-ms:2000}")
+    private long h2ConnectionTimeoutMs;
+
+    @Value("${product.repository.h2.batch-size:500}")
+    private int h2BatchSize;
+
+    @Value("${product.repository.scan.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int scanParallelism;
+
+    @Value("${product.repository.scan.parallel-threshold:100000}")
+    private int scanParallelThreshold;
+
+    @Autowired
+    public IProductRepository(@Value("${product.repository.mode:file}") String mode,
+                              @Value("${product.repository.file:" + FILE_PATH + "}") String filePath,
+                              @Value("${product.repository.flush-interval-ms:1000}") long flushIntervalMs,
+                              @Value("${product.repository.id-block-size:100}") int idBlockSize,
+                              @Value("${product.repository.lock-stripes:64}") int lockStripes,
+                              @Value("${product.repository.io-offload:false}") boolean ioOffload,
+                              @Value("${product.repository.io-threads:4}") int ioThreads,
+                              ProductMetrics metrics) {
+        this.mode = RepositoryMode.from(mode);
+        this.store = this.mode == RepositoryMode.COLUMNAR ? new ColumnarProductStore() : new ObjectProductStore();
+        this.io = BlockingIo.of(ioOffload, ioThreads);
+        this.catalogFile = CatalogFile.of(mapper, Path.of(filePath), io, metrics);
+        this.filePath = filePath;
+        this.flushIntervalMs = flushIntervalMs;
+        this.idBlockSize = idBlockSize;
+        this.locks = new StripedLocks(lockStripes);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Inicializa la secuencia de IDs a partir del catálogo existente y, en los
+     * modos en memoria, carga el catálogo una sola vez desde su persistencia.
+     * En el modo H2 abre la base y, si la tabla está vacía, importa el archivo
+     * del catálogo. La réplica empieza vacía hasta recibir la foto de la
+     * instancia que sigue.
+     */
+
+    @PostConstruct
+    public void init() {
+        sequence = new IdSequence(Path.of(filePath + ".seq"), idBlockSize, io);
+        persistence = switch (mode) {
+            case FILE, H2, REPLICA -> null;
+            case MEMORY, COLUMNAR -> new WriteBehindPersistence(catalogFile, flushIntervalMs, this::persistedSnapshot, metrics);
+            case WAL -> new WalPersistence(mapper, catalogFile, new WalSettings(
+                    Path.of(walDirectory), walFsyncIntervalMs, walFsyncBatchSize,
+                    walCompactionIntervalMs, walCompactionMinBytes, walExportOnClose), this::persistedSnapshot, io, metrics);
+        };
+        backend = switch (mode) {
+            case FILE -> new FileCatalogBackend(catalogFile);
+            case H2 -> openH2();
+            case MEMORY, COLUMNAR, WAL, REPLICA -> null;
+        };
+        if (inMemory()) {
+            parallelScan = ParallelScan.of(scanParallelism, scanParallelThreshold);
+        }
+        if (persistence != null) {
+            store.load(persistence.load());
+            sequence.observe(store.maxId());
+        } else if (backend != null) {
+            sequence.observe(backend.maxId());
+        }
+    }
+
+    /**
+     * Persiste los cambios pendientes antes de detener la aplicación.
+     */
+
+    @PreDestroy
+    public void close() {
         try {
-            File file = new File(FILE_PATH);
-            if (!file.exists()) {
-                file.createNewFile();
-                mapper.writeValue(file, new ArrayList<>());
+            if (persistence != null) {
+                persistence.close();
             }
-            List<Product> products = mapper.readValue(file, new TypeReference<List<Product>>() {});
-            return products != null ? products : new ArrayList<>();
-        } catch (Exception e) {
-            throw new RuntimeException("Error al leer el archivo", e);
+            if (backend != null) {
+                backend.close();
+            }
+        } finally {
+            parallelScan.close();
+            io.close();
+        }
+    }
+
+    public List<Product> getAll() {
+        if (inMemory()) {
+            return store.getAll();
+        }
+        return backend.getAll();
+    }
+
+    /**
+     * Versión actual de un producto sin copiarlo ni leer el archivo. En el
+     * modo H2 se consulta solo la columna de la versión.
+     *
+     * @return La versión, o {@code null} si el producto no existe o el modo
+     * archivo no permite obtenerla sin leer el catálogo.
+     */
+
+    public Long versionOf(long productId) {
+        if (!inMemory()) {
+            return backend.versionOf(productId);
         }
+        return store.versionOf(productId);
+    }
+
+    /**
+     * Contador de cambios del catálogo: aumenta después de aplicar cada
+     * mutación, así que quien lo lee antes de leer el catálogo nunca obtiene un
+     * valor más nuevo que los datos. Se reinicia con la aplicación; junto con
+     * {@link #startedAt()} identifica una versión del catálogo.
+     */
+
+    public long catalogVersion() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * Momento de inicio de la aplicación, en milisegundos.
+     */
+
+    public long startedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Momento del último cambio del catálogo, o del inicio si no hubo cambios.
+     */
+
+    public long lastModified() {
+        return lastModified;
     }
 
     public Product findById(Long productId){
-        return getAll()
-                .stream()
-                .filter(product -> product.getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new NoSuchResourceFoundException(String.format("Producto con ID %d no encontrado", productId)));
+        if (inMemory()) {
+            Product product = store.get(productId);
+            if (product == null) {
+                throw new NoSuchResourceFoundException(String.format("Producto con ID %d no encontrado", productId));
+            }
+            return product;
+        }
+        Product product = backend.find(productId);
+        if (product == null) {
+            throw notFound(productId);
+        }
+        return product;
     }
 
-    public void save(List<Product> products){
-        try{
-            File file = new File(FILE_PATH);
-            mapper.writerWithDefaultPrettyPrinter().writeValue(file, products);
-        }catch (Exception e){
-            throw new RuntimeException("Error al guardar el archivo");
+    /**
+     * Busca varios productos en una sola pasada; los IDs inexistentes se omiten.
+     *
+     * @param productIds IDs a buscar.
+     * @return Los productos encontrados, en el orden de los IDs recibidos.
+     */
+
+    public List<Product> findAllById(long[] productIds) {
+        if (!inMemory()) {
+            return backend.findAll(productIds);
+        }
+        List<Product> result = new ArrayList<>(productIds.length);
+        for (long productId : productIds) {
+            Product product = store.get(productId);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Productos que cumplen el predicado, en orden de ID. En el modo columnar
+     * el predicado recibe una vista que se reutiliza entre productos y solo se
+     * arman los que lo cumplen, así que no debe retener el producto recibido.
+     * En los modos en memoria, desde {@code product.repository.scan.parallel-threshold}
+     * productos el catálogo se recorre por tramos en un pool propio, así que
+     * el predicado puede evaluarse desde varios hilos a la vez.
+     *
+     * @param predicate Condición a evaluar sobre cada producto.
+     * @return Los productos que la cumplen.
+     */
+
+    public List<Product> findAll(Predicate<? super Product> predicate) {
+        return findAll(predicate, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Igual que {@link #findAll(Predicate)}, pero devuelve solo los primeros
+     * {@code limit} productos en orden de ID. En los modos en memoria el
+     * recorrido se detiene al reunirlos, también cuando es paralelo.
+     *
+     * @param predicate Condición a evaluar sobre cada producto.
+     * @param limit     Cantidad máxima de productos.
+     * @return Los primeros productos que la cumplen.
+     */
+
+    public List<Product> findAll(Predicate<? super Product> predicate, int limit) {
+        if (inMemory()) {
+            return store.filter(predicate, limit, parallelScan);
+        }
+        List<Product> result = new ArrayList<>();
+        backend.forEach(product -> {
+            if (result.size() < limit && predicate.test(product)) {
+                result.add(product);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Productos que cumplen el plan, en orden de ID. En el modo H2 el plan se
+     * traduce a una consulta SQL y solo se leen los productos que lo cumplen.
+     *
+     * @param plan Filtro compilado.
+     * @return Los productos que lo cumplen.
+     */
+
+    public List<Product> findMatching(FilterPlan plan) {
+        if (inMemory()) {
+            return store.filter(plan::matches, Integer.MAX_VALUE, parallelScan);
+        }
+        return backend.filter(plan);
+    }
+
+    /**
+     * Entrega de a uno los productos que cumplen el plan, en orden de ID, sin
+     * armar la lista del resultado. En los modos en memoria se recorre el
+     * almacén con el bloqueo de lectura tomado y, en el modo columnar, la
+     * acción recibe una vista reutilizada que no debe retener; en el modo H2
+     * la consulta se lee por tramos de {@link #STREAM_CHUNK_SIZE} filas.
+     *
+     * @param plan   Filtro compilado.
+     * @param action Acción a ejecutar por cada producto que cumple el filtro.
+     */
+
+    public void forEachMatching(FilterPlan plan, Consumer<? super Product> action) {
+        if (inMemory()) {
+            store.scan(product -> {
+                if (plan.matches(product)) {
+                    action.accept(product);
+                }
+            });
+            return;
+        }
+        backend.forEachMatching(plan, action);
+    }
+
+    /**
+     * Indica si {@link #findMatching} y {@link #forEachMatching} se resuelven
+     * en el almacenamiento, sin recorrer el catálogo en la aplicación.
+     */
+
+    public boolean filtersInStorage() {
+        return !inMemory() && backend.filtersInStorage();
+    }
+
+    /**
+     * Página de productos en orden de ID. En los modos en memoria se lee
+     * directamente del índice primario sin copiar el catálogo.
+     *
+     * @param afterId    ID del último producto entregado, o {@code null} para empezar por el extremo.
+     * @param descending Si se recorre de mayor a menor ID.
+     * @param limit      Cantidad máxima de productos.
+     * @return Los productos de la página.
+     */
+
+    public List<Product> findPage(Long afterId, boolean descending, int limit) {
+        if (inMemory()) {
+            return store.page(afterId, descending, limit);
+        }
+        return backend.page(afterId, descending, limit);
+    }
+
+    /**
+     * Recorre el catálogo en orden de ID entregando los productos de a uno.
+     *
+     * En los modos en memoria se lee por tramos del índice primario, sin copiar
+     * el catálogo ni retener el bloqueo mientras se procesa cada producto; en
+     * el modo archivo se recorre el JSON con el parser de streaming y en el
+     * modo H2 se consulta por tramos del mismo tamaño, liberando la conexión
+     * entre uno y otro. El
+     * recorrido no es una foto instantánea: ve los cambios hechos en tramos
+     * aún no leídos.
+     *
+     * @param action Acción a ejecutar por cada producto.
+     */
+
+    public void forEach(Consumer<? super Product> action) {
+        if (!inMemory()) {
+            backend.forEach(action);
+            return;
+        }
+        Long afterId = null;
+        while (true) {
+            List<Product> chunk = store.page(afterId, false, STREAM_CHUNK_SIZE);
+            chunk.forEach(action);
+            if (chunk.size() < STREAM_CHUNK_SIZE) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Cantidad de productos del catálogo.
+     */
+
+    public int count() {
+        if (inMemory()) {
+            return store.size();
+        }
+        return backend.count();
+    }
+
+    /**
+     * Reserva el siguiente ID de producto. Es seguro ante creaciones concurrentes.
+     *
+     * @return Un ID que nunca fue entregado antes.
+     */
+
+    public long nextId() {
+        requireWritable();
+        return sequence.next();
+    }
+
+    /**
+     * Reserva un bloque de IDs consecutivos para una carga masiva.
+     *
+     * @param count Cantidad de IDs.
+     * @return El primero de los IDs reservados.
+     */
+
+    public long nextIds(int count) {
+        requireWritable();
+        return sequence.nextBlock(count);
+    }
+
+    /**
+     * Registra un oyente que recibe cada cambio mientras el producto sigue bloqueado.
+     */
+
+    public void addChangeListener(ProductChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Agrega un producto nuevo, que ya debe tener su ID asignado. El producto
+     * queda en la versión {@value #INITIAL_VERSION}.
+     *
+     * @param product Producto a insertar.
+     * @return El producto insertado.
+     */
+
+    public Product insert(Product product) {
+        product.setVersion(INITIAL_VERSION);
+        return withLocks(new long[]{product.getId()}, () -> {
+            Product previous;
+            if (inMemory()) {
+                persistence.upserted(product);
+                previous = store.put(product);
+            } else {
+                backend.insertAll(List.of(product));
+                previous = null;
+            }
+            notifyChanged(previous, product);
+            return product;
+        });
+    }
+
+    /**
+     * Agrega varios productos nuevos, que ya deben tener su ID asignado, como
+     * un solo lote: una toma de los bloqueos en memoria, una sola lectura y
+     * escritura del archivo o una transacción con inserciones por lotes.
+     *
+     * @param products Productos a insertar.
+     * @return Los productos insertados.
+     */
+
+    public List<Product> insertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return products;
         }
+        products.forEach(product -> product.setVersion(INITIAL_VERSION));
+        long[] productIds = products.stream().mapToLong(Product::getId).toArray();
+        return withLocks(productIds, () -> {
+            if (inMemory()) {
+                persistence.upsertedAll(products);
+                store.putAll(products);
+            } else {
+                backend.insertAll(products);
+            }
+            products.forEach(product -> notifyChanged(null, product));
+            return products;
+        });
+    }
+
+    /**
+     * Reemplaza un producto existente conservando su posición en el catálogo.
+     *
+     * @param product Producto con los nuevos datos.
+     * @return El producto actualizado.
+     * @throws NoSuchResourceFoundException Si el producto no existe.
+     */
+
+    public Product update(Product product) {
+        return update(product, null);
+    }
+
+    /**
+     * Reemplaza un producto existente si su versión sigue siendo la esperada.
+     *
+     * La comprobación y el reemplazo ocurren con el bloqueo del producto
+     * tomado, así que dos actualizaciones con la misma versión esperada no
+     * pueden tener éxito ambas. El producto guardado recibe la versión
+     * siguiente.
+     *
+     * @param product         Producto con los nuevos datos.
+     * @param expectedVersion Versión que el cliente leyó, o {@code null} para no comprobarla.
+     * @return El producto actualizado, con su nueva versión.
+     * @throws NoSuchResourceFoundException Si el producto no existe.
+     * @throws VersionConflictException     Si el producto cambió desde la versión esperada.
+     */
+
+    public Product update(Product product, Long expectedVersion) {
+        long productId = product.getId();
+        return withLocks(new long[]{productId}, () -> {
+            if (inMemory()) {
+                Product previous = store.get(productId);
+                if (previous == null) {
+                    throw notFound(productId);
+                }
+                checkVersion(previous, expectedVersion);
+                product.setVersion(nextVersion(previous));
+                persistence.upserted(product);
+                store.replace(product);
+                notifyChanged(previous, product);
+                return product;
+            }
+            List<CatalogBackend.Change> changes = backend.updateAll(new long[]{productId}, previous -> {
+                checkVersion(previous, expectedVersion);
+                product.setVersion(nextVersion(previous));
+                return product;
+            });
+            if (changes.isEmpty()) {
+                throw notFound(productId);
+            }
+            notifyChanged(changes.get(0).previous(), product);
+            return product;
+        });
+    }
+
+    /**
+     * Modifica varios productos existentes en una sola pasada y con una sola
+     * escritura de persistencia.
+     *
+     * La función recibe la versión vigente de cada producto con su bloqueo
+     * tomado, por lo que ningún cambio concurrente se pierde entre la lectura
+     * y la escritura. Cada producto modificado recibe la versión siguiente.
+     *
+     * @param productIds IDs a modificar.
+     * @param change     Calcula el producto nuevo a partir del vigente, sin modificarlo.
+     * @return Los productos actualizados; los IDs inexistentes se omiten.
+     */
+
+    public List<Product> updateAll(long[] productIds, UnaryOperator<Product> change) {
+        UnaryOperator<Product> versioned = current -> {
+            Product next = change.apply(current);
+            next.setId(current.getId());
+            next.setVersion(nextVersion(current));
+            return next;
+        };
+        return withLocks(productIds, () -> {
+            List<Product> updated;
+            if (inMemory()) {
+                List<Product> previous = findAllById(productIds);
+                updated = new ArrayList<>(previous.size());
+                for (Product current : previous) {
+                    updated.add(versioned.apply(current));
+                }
+                if (updated.isEmpty()) {
+                    return updated;
+                }
+                persistence.upsertedAll(updated);
+                store.replaceExisting(updated);
+                for (int i = 0; i < updated.size(); i++) {
+                    notifyChanged(previous.get(i), updated.get(i));
+                }
+                return updated;
+            }
+            List<CatalogBackend.Change> changes = backend.updateAll(productIds, versioned);
+            updated = new ArrayList<>(changes.size());
+            for (CatalogBackend.Change applied : changes) {
+                notifyChanged(applied.previous(), applied.current());
+                updated.add(applied.current());
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Elimina varios productos en una sola pasada y con una sola escritura de
+     * persistencia.
+     *
+     * @param productIds IDs a eliminar.
+     * @return Los productos eliminados; los IDs inexistentes se omiten.
+     */
+
+    public List<Product> deleteAll(long[] productIds) {
+        return withLocks(productIds, () -> {
+            List<Product> removed;
+            if (inMemory()) {
+                long[] existing = Arrays.stream(productIds).distinct()
+                        .filter(productId -> store.versionOf(productId) != null)
+                        .toArray();
+                persistence.deletedAll(existing);
+                removed = store.removeAll(existing);
+            } else {
+                removed = backend.deleteAll(productIds);
+            }
+            removed.forEach(product -> notifyChanged(product, null));
+            return removed;
+        });
+    }
+
+    /**
+     * Reemplaza el catálogo completo. Toma todos los bloqueos, así que espera a
+     * las mutaciones en curso y bloquea las nuevas hasta terminar.
+     */
+
+    public void save(List<Product> products){
+        withAllLocks(() -> {
+            if (inMemory()) {
+                persistence.replacedAll(products);
+                store.replaceAll(products);
+            } else {
+                backend.replaceAll(products);
+            }
+            listeners.forEach(ProductChangeListener::reloaded);
+            bumpCatalogVersion();
+        });
     }
 
     public Long delete(Long productId){
         try {
-            List<Product> products = getAll();
-            products.removeIf(product -> product.getId().equals(productId));
-            save(products);
+            deleteAll(new long[]{productId});
             return productId;
+        }catch (ReadOnlyReplicaException e){
+            throw e;
         }catch (Exception e){
             throw new RuntimeException(String.format("No se encontro el producto ID %d", productId));
         }
     }
-}
 
+    /**
+     * Carga en la réplica la foto recibida de la instancia que sigue,
+     * reemplazando el catálogo completo.
+     *
+     * @param products Catálogo completo de la otra instancia.
+     * @throws IllegalStateException Si el repositorio no es una réplica.
+     */
+
+    public void loadReplica(List<Product> products) {
+        requireReplica();
+        int[] stripes = locks.allStripes();
+        locks.lock(stripes);
+        try {
+            store.replaceAll(products);
+            listeners.forEach(ProductChangeListener::reloaded);
+            bumpCatalogVersion();
+        } finally {
+            locks.unlock(stripes);
+        }
+    }
+
+    /**
+     * Aplica en la réplica un cambio recibido del feed de la instancia que
+     * sigue, con el bloqueo del producto tomado. El producto recibido reemplaza
+     * al guardado tal como viene, con su versión; aplicar dos veces el mismo
+     * cambio deja el mismo resultado.
+     *
+     * @param productId ID del producto.
+     * @param current   Producto tal como quedó, o {@code null} si se eliminó.
+     * @throws IllegalStateException Si el repositorio no es una réplica.
+     */
+
+    public void applyReplicated(long productId, Product current) {
+        requireReplica();
+        int[] stripes = locks.stripesFor(new long[]{productId});
+        locks.lock(stripes);
+        try {
+            Product previous = store.get(productId);
+            if (current != null) {
+                store.put(current);
+                notifyChanged(previous, current);
+            } else if (previous != null) {
+                store.removeAll(new long[]{productId});
+                notifyChanged(previous, null);
+            }
+        } finally {
+            locks.unlock(stripes);
+        }
+    }
+
+    /**
+     * Indica si el repositorio es una réplica de solo lectura.
+     */
+
+    public boolean isReplica() {
+        return mode == RepositoryMode.REPLICA;
+    }
+
+    /**
+     * Exporta el catálogo actual al archivo configurado, sin importar el modo
+     * de almacenamiento.
+     */
+
+    public void exportCatalog() {
+        catalogFile.writeDurably(getAll());
+    }
+
+    /**
+     * Lleva a disco los cambios pendientes de los modos en memoria.
+     */
+
+    public void flush() {
+        if (persistence != null) {
+            persistence.flush();
+        }
+    }
+
+    /**
+     * Indica si el catálogo vive en memoria, es decir, si solo cambia a través
+     * de este repositorio y se pueden mantener índices sobre él.
+     */
+
+    public boolean isInMemory() {
+        return inMemory();
+    }
+
+    private boolean inMemory() {
+        return mode != RepositoryMode.FILE && mode != RepositoryMode.H2;
+    }
+
+    /**
+     * Abre la base del modo H2. Si la tabla está vacía y existe el archivo del
+     * catálogo, lo importa en una sola transacción.
+     */
+    private CatalogBackend openH2() {
+        H2CatalogBackend h2 = new H2CatalogBackend(new H2Settings(
+                h2Url, h2Username, h2Password, h2PoolSize, h2ConnectionTimeoutMs, h2BatchSize));
+        if (h2.count() == 0 && Files.exists(catalogFile.path())) {
+            h2.insertAll(catalogFile.read());
+        }
+        return h2;
+    }
+
+    /**
+     * Ejecuta una mutación con los bloqueos de los IDs indicados. En el modo
+     * archivo todo el catálogo es un único archivo, así que las mutaciones se
+     * serializan con un solo bloqueo; las lecturas no lo necesitan porque el
+     * archivo se reemplaza de forma atómica. En el modo H2 las filas son
+     * independientes y se usan los mismos bloqueos por ID que en memoria.
+     */
+
+    /**
+     * Foto del catálogo que guarda la persistencia. Cada mutación se registra
+     * en la persistencia antes de aplicarse al almacén, con el bloqueo del
+     * producto tomado; tomar todos los bloqueos garantiza que la foto incluya
+     * cada mutación ya registrada.
+     */
+    private List<Product> persistedSnapshot() {
+        int[] stripes = locks.allStripes();
+        locks.lock(stripes);
+        try {
+            return store.getAll();
+        } finally {
+            locks.unlock(stripes);
+        }
+    }
+
+    private <T> T withLocks(long[] productIds, Supplier<T> mutation) {
+        requireWritable();
+        if (mode == RepositoryMode.FILE) {
+            fileLock.lock();
+            try {
+                return mutation.get();
+            } finally {
+                fileLock.unlock();
+            }
+        }
+        int[] stripes = locks.stripesFor(productIds);
+        locks.lock(stripes);
+        try {
+            return mutation.get();
+        } finally {
+            locks.unlock(stripes);
+        }
+    }
+
+    private void withAllLocks(Runnable mutation) {
+        requireWritable();
+        int[] stripes = locks.allStripes();
+        fileLock.lock();
+        locks.lock(stripes);
+        try {
+            mutation.run();
+        } finally {
+            locks.unlock(stripes);
+            fileLock.unlock();
+        }
+    }
+
+    private void requireWritable() {
+        if (isReplica()) {
+            throw new ReadOnlyReplicaException("La réplica es de solo lectura; las escrituras se hacen en la instancia principal");
+        }
+    }
+
+    private void requireReplica() {
+        if (!isReplica()) {
+            throw new IllegalStateException("Solo una réplica aplica cambios de otra instancia");
+        }
+    }
+
+    private void notifyChanged(Product previous, Product current) {
+        for (ProductChangeListener listener : listeners) {
+            listener.changed(previous, current);
+        }
+        bumpCatalogVersion();
+    }
+
+    private void bumpCatalogVersion() {
+        lastModified = System.currentTimeMillis();
+        catalogVersion.incrementAndGet();
+    }
+
+    private static void checkVersion(Product current, Long expectedVersion) {
+        long currentVersion = current.getVersion() != null ? current.getVersion() : 0;
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new VersionConflictException(String.format(
+                    "El producto ID %d cambió: versión actual %d, esperada %d", current.getId(), currentVersion, expectedVersion));
+        }
+    }
+
+    private static long nextVersion(Product current) {
+        return (current.getVersion() != null ? current.getVersion() : 0) + 1;
+    }
+
+    private static NoSuchResourceFoundException notFound(long productId) {
+        return new NoSuchResourceFoundException(String.format("Producto con ID %d no encontrado", productId));
+    }
+}
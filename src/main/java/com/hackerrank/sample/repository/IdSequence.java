@@ -0,0 +1,125 @@
+package com.hackerrank.sample.repository;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Secuencia persistente de identificadores de producto.
+ *
+ * Los IDs se entregan con un {@link AtomicLong}, por lo que creaciones
+ * concurrentes nunca reciben el mismo valor. En disco solo se guarda el límite
+ * del bloque reservado: se escribe una vez cada {@code blockSize} IDs y, tras un
+ * reinicio, la secuencia continúa después de ese límite, sin reutilizar IDs.
+ */
+class IdSequence {
+
+    private final Path file;
+    private final int blockSize;
+    private final BlockingIo io;
+    private final AtomicLong current = new AtomicLong();
+    private final ReentrantLock reserveLock = new ReentrantLock();
+    private volatile long reservedUpTo;
+
+    IdSequence(Path file, int blockSize, BlockingIo io) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor a cero");
+        }
+        this.file = file;
+        this.blockSize = blockSize;
+        this.io = io;
+        long persisted = read();
+        this.current.set(persisted);
+        this.reservedUpTo = persisted;
+    }
+
+    /**
+     * Entrega el siguiente ID, reservando un bloque nuevo en disco cuando el
+     * actual se agota.
+     */
+
+    long next() {
+        long id = current.incrementAndGet();
+        if (id > reservedUpTo) {
+            reserve(id);
+        }
+        return id;
+    }
+
+    /**
+     * Entrega {@code count} IDs consecutivos de una sola vez, con a lo sumo una
+     * escritura en disco para todo el bloque.
+     *
+     * @return El primero de los IDs reservados.
+     */
+
+    long nextBlock(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("La cantidad de IDs debe ser mayor a cero");
+        }
+        long last = current.addAndGet(count);
+        if (last > reservedUpTo) {
+            reserve(last);
+        }
+        return last - count + 1;
+    }
+
+    /**
+     * Garantiza que la secuencia no entregue IDs menores o iguales al indicado,
+     * por ejemplo los que ya existen en el catálogo cargado.
+     */
+
+    void observe(long id) {
+        current.accumulateAndGet(id, Math::max);
+        if (id > reservedUpTo) {
+            reserve(id);
+        }
+    }
+
+    private void reserve(long id) {
+        reserveLock.lock();
+        try {
+            if (id <= reservedUpTo) {
+                return;
+            }
+            long limit = id + blockSize - 1;
+            write(limit);
+            reservedUpTo = limit;
+        } finally {
+            reserveLock.unlock();
+        }
+    }
+
+    private long read() {
+        try {
+            if (!Files.exists(file)) {
+                return 0;
+            }
+            String content = Files.readString(file, StandardCharsets.UTF_8).trim();
+            return content.isEmpty() ? 0 : Long.parseLong(content);
+        } catch (IOException | NumberFormatException e) {
+            throw new RuntimeException("Error al leer la secuencia de IDs", e);
+        }
+    }
+
+    private void write(long limit) {
+        try {
+            Path target = file.toAbsolutePath();
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            io.run(() -> {
+                try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                    out.write(Long.toString(limit).getBytes(StandardCharsets.UTF_8));
+                    out.getFD().sync();
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar la secuencia de IDs", e);
+        }
+    }
+}
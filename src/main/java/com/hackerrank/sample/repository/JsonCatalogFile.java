@@ -0,0 +1,150 @@
+package com.hackerrank.sample.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lectura y escritura del catálogo en formato JSON ({@code products.json}).
+ *
+ * Cada lectura y escritura completa registra en {@link ProductMetrics} los
+ * bytes transferidos y el tiempo de disco separado del de parseo o
+ * serialización.
+ */
+class JsonCatalogFile implements CatalogFile {
+
+    private static final TypeReference<List<Product>> PRODUCT_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper mapper;
+    private final Path path;
+    private final BlockingIo io;
+    private final ProductMetrics metrics;
+
+    JsonCatalogFile(ObjectMapper mapper, Path path, BlockingIo io, ProductMetrics metrics) {
+        this.mapper = mapper;
+        this.path = path;
+        this.io = io;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public List<Product> read() {
+        try {
+            return io.call(() -> {
+                File file = path.toFile();
+                if (!file.exists()) {
+                    file.createNewFile();
+                    mapper.writeValue(file, new ArrayList<>());
+                }
+                long start = System.nanoTime();
+                try (TimedInputStream in = new TimedInputStream(new FileInputStream(file))) {
+                    List<Product> products = mapper.readValue(in, PRODUCT_LIST);
+                    metrics.fileRead(in.bytes(), in.nanos(), System.nanoTime() - start - in.nanos());
+                    return products != null ? products : new ArrayList<Product>();
+                }
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error al leer el archivo", e);
+        }
+    }
+
+    /**
+     * Recorre el archivo con el parser de streaming de Jackson y entrega los
+     * productos de a uno, sin cargar el catálogo completo en memoria.
+     */
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        File file = path.toFile();
+        if (!file.exists()) {
+            return;
+        }
+        try (JsonParser parser = mapper.getFactory().createParser(file)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new RuntimeException("El archivo no contiene un arreglo de productos");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                action.accept(mapper.readValue(parser, Product.class));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el archivo", e);
+        }
+    }
+
+    /**
+     * Escribe el catálogo en un archivo temporal y lo reemplaza de forma
+     * atómica, así que una lectura concurrente ve el catálogo anterior o el
+     * nuevo, nunca uno a medio escribir.
+     */
+
+    @Override
+    public void write(List<Product> products) {
+        try {
+            io.run(() -> replace(products, false));
+        } catch (Exception e) {
+            throw new RuntimeException("Error al guardar el archivo");
+        }
+    }
+
+    /**
+     * Escribe el catálogo en un archivo temporal, lo sincroniza con disco y lo
+     * reemplaza de forma atómica para no dejar el archivo a medio escribir.
+     */
+
+    @Override
+    public void writeDurably(List<Product> products) {
+        try {
+            io.run(() -> replace(products, true));
+        } catch (Exception e) {
+            throw new RuntimeException("Error al guardar el archivo", e);
+        }
+    }
+
+    private void replace(List<Product> products, boolean durable) throws IOException {
+        Path target = path.toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long start = System.nanoTime();
+        long serialized;
+        long bytes;
+        long diskNanos;
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             TimedOutputStream out = new TimedOutputStream(file)) {
+            mapper.writerWithDefaultPrettyPrinter()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValue(out, products);
+            serialized = System.nanoTime();
+            if (durable) {
+                file.getFD().sync();
+            }
+            bytes = out.bytes();
+            diskNanos = out.nanos();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long serializeNanos = serialized - start - diskNanos;
+        metrics.fileWritten(bytes, serializeNanos, System.nanoTime() - start - serializeNanos);
+    }
+}
@@ -0,0 +1,326 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.util.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Almacén en memoria de productos indexado por ID.
+ *
+ * El índice primario es un {@link LongObjectHashMap}, por lo que buscar,
+ * insertar y eliminar cuestan O(1) sin importar el tamaño del catálogo.
+ * Aparte se guarda la lista ordenada de IDs para que las lecturas completas
+ * conserven el orden del archivo; como los IDs nuevos siempre son mayores,
+ * insertar es agregar al final y eliminar solo deja el ID como hueco hasta la
+ * siguiente compactación.
+ */
+class ObjectProductStore implements ProductStore {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongObjectHashMap<Product> byId = new LongObjectHashMap<>();
+    private long[] order = new long[16];
+    private int orderSize;
+
+    @Override
+    public void load(List<Product> initial) {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            orderSize = 0;
+            initial.stream()
+                    .sorted(Comparator.comparingLong(Product::getId))
+                    .forEach(this::putLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> getAll() {
+        lock.readLock().lock();
+        try {
+            List<Product> result = new ArrayList<>(byId.size());
+            for (int i = 0; i < orderSize; i++) {
+                Product product = byId.get(order[i]);
+                if (product != null) {
+                    result.add(product);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Productos en orden de ID a partir del cursor, sin copiar el catálogo.
+     *
+     * @param afterId    ID del último producto entregado, o {@code null} para empezar por el extremo.
+     * @param descending Si se recorre de mayor a menor ID.
+     * @param limit      Cantidad máxima de productos.
+     */
+
+    @Override
+    public List<Product> page(Long afterId, boolean descending, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Product> result = new ArrayList<>(Math.min(limit, byId.size()));
+            if (descending) {
+                int start = orderSize - 1;
+                if (afterId != null) {
+                    int position = Arrays.binarySearch(order, 0, orderSize, afterId);
+                    start = position >= 0 ? position - 1 : -position - 2;
+                }
+                for (int i = start; i >= 0 && result.size() < limit; i--) {
+                    Product product = byId.get(order[i]);
+                    if (product != null) {
+                        result.add(product);
+                    }
+                }
+            } else {
+                int start = 0;
+                if (afterId != null) {
+                    int position = Arrays.binarySearch(order, 0, orderSize, afterId);
+                    start = position >= 0 ? position + 1 : -position - 1;
+                }
+                for (int i = start; i < orderSize && result.size() < limit; i++) {
+                    Product product = byId.get(order[i]);
+                    if (product != null) {
+                        result.add(product);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Product get(long productId) {
+        lock.readLock().lock();
+        try {
+            return byId.get(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserta o reemplaza el producto.
+     *
+     * @return El producto anterior con el mismo ID o {@code null}.
+     */
+
+    @Override
+    public Product put(Product product) {
+        lock.writeLock().lock();
+        try {
+            return putLocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserta o reemplaza varios productos tomando el bloqueo una sola vez.
+     */
+
+    @Override
+    public void putAll(List<Product> products) {
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                putLocked(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza el producto solo si ya existe.
+     *
+     * @return El producto anterior o {@code null} si no existía.
+     */
+
+    @Override
+    public Product replace(Product product) {
+        lock.writeLock().lock();
+        try {
+            if (!byId.containsKey(product.getId())) {
+                return null;
+            }
+            return byId.put(product.getId(), product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza los productos que ya existen tomando el bloqueo una sola vez.
+     *
+     * @return Los productos reemplazados, en el orden recibido; los inexistentes se omiten.
+     */
+
+    @Override
+    public List<Product> replaceExisting(List<Product> products) {
+        lock.writeLock().lock();
+        try {
+            List<Product> replaced = new ArrayList<>(products.size());
+            for (Product product : products) {
+                if (byId.containsKey(product.getId())) {
+                    byId.put(product.getId(), product);
+                    replaced.add(product);
+                }
+            }
+            return replaced;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina varios productos tomando el bloqueo una sola vez.
+     *
+     * @return Los productos eliminados; los inexistentes se omiten.
+     */
+
+    @Override
+    public List<Product> removeAll(long[] productIds) {
+        lock.writeLock().lock();
+        try {
+            List<Product> removed = new ArrayList<>(productIds.length);
+            for (long productId : productIds) {
+                Product product = byId.remove(productId);
+                if (product != null) {
+                    removed.add(product);
+                }
+            }
+            if (!removed.isEmpty() && orderSize > 64 && byId.size() < orderSize / 2) {
+                compactOrder();
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void replaceAll(List<Product> all) {
+        load(all);
+    }
+
+    @Override
+    public Long versionOf(long productId) {
+        Product product = get(productId);
+        if (product == null) {
+            return null;
+        }
+        return product.getVersion() != null ? product.getVersion() : 0;
+    }
+
+    @Override
+    public List<Product> filter(Predicate<? super Product> predicate, int limit, ParallelScan scan) {
+        lock.readLock().lock();
+        try {
+            return scan.filter(orderSize, () -> (from, to, out, max) -> {
+                for (int i = from; i < to && out.size() < max; i++) {
+                    Product product = byId.get(order[i]);
+                    if (product != null && predicate.test(product)) {
+                        out.add(product);
+                    }
+                }
+            }, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void scan(Consumer<? super Product> action) {
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < orderSize; i++) {
+                Product product = byId.get(order[i]);
+                if (product != null) {
+                    action.accept(product);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long maxId() {
+        lock.readLock().lock();
+        try {
+            for (int i = orderSize - 1; i >= 0; i--) {
+                if (byId.containsKey(order[i])) {
+                    return order[i];
+                }
+            }
+            return 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Product putLocked(Product product) {
+        long productId = product.getId();
+        Product previous = byId.put(productId, product);
+        if (previous == null) {
+            addToOrder(productId);
+        }
+        return previous;
+    }
+
+    private void addToOrder(long productId) {
+        if (orderSize > 0 && order[orderSize - 1] >= productId) {
+            int position = Arrays.binarySearch(order, 0, orderSize, productId);
+            if (position >= 0) {
+                return;
+            }
+            insertAt(-position - 1, productId);
+            return;
+        }
+        insertAt(orderSize, productId);
+    }
+
+    private void insertAt(int position, long productId) {
+        if (orderSize == order.length) {
+            order = Arrays.copyOf(order, orderSize << 1);
+        }
+        System.arraycopy(order, position, order, position + 1, orderSize - position);
+        order[position] = productId;
+        orderSize++;
+    }
+
+    private void compactOrder() {
+        int live = 0;
+        for (int i = 0; i < orderSize; i++) {
+            if (byId.containsKey(order[i])) {
+                order[live++] = order[i];
+            }
+        }
+        orderSize = live;
+    }
+}
@@ -0,0 +1,208 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Recorrido de los filtros sin índice de los almacenes en memoria.
+ *
+ * Con menos filas que el umbral, el recorrido es secuencial en el hilo que
+ * llama. Desde el umbral, las filas se reparten en tramos consecutivos que se
+ * evalúan en un {@link ForkJoinPool} propio, separado del pool común para que
+ * un filtro grande no compita con {@code parallelStream} ni con otras tareas
+ * de la aplicación. Cada tramo junta sus productos en orden y al final se
+ * concatenan en el orden de los tramos, así que el resultado queda en el
+ * mismo orden que el recorrido secuencial.
+ *
+ * Con límite, un tramo deja de evaluar filas al reunir {@code limit}
+ * productos, y los tramos que todavía no empezaron se omiten en cuanto los
+ * tramos anteriores ya terminados reúnen el límite entre todos.
+ *
+ * Quien llama mantiene tomado el bloqueo de lectura del almacén durante todo
+ * el recorrido; los hilos del pool solo leen.
+ */
+final class ParallelScan implements AutoCloseable {
+
+    static final ParallelScan SERIAL = new ParallelScan(null, Integer.MAX_VALUE);
+
+    private static final int MIN_CHUNK = 1024;
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    private ParallelScan(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param parallelism Hilos del pool; con uno o menos el recorrido es siempre secuencial.
+     * @param threshold   Filas desde las cuales el recorrido es paralelo.
+     */
+    static ParallelScan of(int parallelism, int threshold) {
+        if (parallelism <= 1) {
+            return SERIAL;
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("El umbral del recorrido paralelo debe ser mayor a cero");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(parallelism, factory -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(factory);
+            thread.setName("product-scan-" + counter.incrementAndGet());
+            return thread;
+        }, null, false);
+        return new ParallelScan(pool, threshold);
+    }
+
+    boolean isParallel(int rows) {
+        return pool != null && rows >= threshold;
+    }
+
+    /**
+     * Evalúa las filas {@code [0, rows)} y devuelve los primeros {@code limit}
+     * productos que cumplen, en orden de fila.
+     *
+     * @param rows     Filas del almacén.
+     * @param scanners Crea el evaluador de cada tramo; cada uno puede usar su propia vista.
+     * @param limit    Cantidad máxima de productos, o {@link Integer#MAX_VALUE} para todos.
+     */
+    List<Product> filter(int rows, Supplier<RangeScanner> scanners, int limit) {
+        if (!isParallel(rows)) {
+            List<Product> result = new ArrayList<>();
+            scanners.get().scan(0, rows, result, limit);
+            return result;
+        }
+        int chunkSize = Math.max(MIN_CHUNK, rows / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+        int chunks = (rows + chunkSize - 1) / chunkSize;
+        Progress progress = new Progress(chunks, limit);
+        List<List<Product>> parts = new ArrayList<>(Collections.nCopies(chunks, List.of()));
+        pool.invoke(new ChunkTask(0, chunks, rows, chunkSize, scanners, limit, progress, parts));
+
+        int total = 0;
+        for (List<Product> part : parts) {
+            total += part.size();
+        }
+        List<Product> result = new ArrayList<>(Math.min(total, limit));
+        for (List<Product> part : parts) {
+            for (int i = 0; i < part.size() && result.size() < limit; i++) {
+                result.add(part.get(i));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Evalúa un tramo de filas.
+     */
+    @FunctionalInterface
+    interface RangeScanner {
+
+        /**
+         * Agrega a {@code out}, en orden, los productos de las filas
+         * {@code [from, to)} que cumplen el filtro, hasta que {@code out}
+         * tenga {@code limit} elementos.
+         */
+        void scan(int from, int to, List<Product> out, int limit);
+    }
+
+    /**
+     * Divide los tramos {@code [first, last)} en mitades hasta llegar a uno.
+     * La mitad izquierda se evalúa en el hilo actual, así que los primeros
+     * tramos, que son los que se conservan con límite, terminan antes.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+
+        private final int first;
+        private final int last;
+        private final int rows;
+        private final int chunkSize;
+        private final Supplier<RangeScanner> scanners;
+        private final int limit;
+        private final Progress progress;
+        private final List<List<Product>> parts;
+
+        ChunkTask(int first, int last, int rows, int chunkSize, Supplier<RangeScanner> scanners,
+                  int limit, Progress progress, List<List<Product>> parts) {
+            this.first = first;
+            this.last = last;
+            this.rows = rows;
+            this.chunkSize = chunkSize;
+            this.scanners = scanners;
+            this.limit = limit;
+            this.progress = progress;
+            this.parts = parts;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first > 1) {
+                int middle = (first + last) >>> 1;
+                invokeAll(new ChunkTask(first, middle, rows, chunkSize, scanners, limit, progress, parts),
+                        new ChunkTask(middle, last, rows, chunkSize, scanners, limit, progress, parts));
+                return;
+            }
+            if (progress.canSkip(first)) {
+                return;
+            }
+            List<Product> part = new ArrayList<>();
+            int from = first * chunkSize;
+            scanners.get().scan(from, Math.min(rows, from + chunkSize), part, limit);
+            parts.set(first, part);
+            progress.done(first, part.size());
+        }
+    }
+
+    /**
+     * Productos reunidos por los tramos terminados. Lleva la cuenta del
+     * prefijo de tramos consecutivos ya terminados desde el primero: cuando
+     * ese prefijo reúne el límite, ningún tramo posterior aporta a la
+     * respuesta.
+     */
+    private static final class Progress {
+
+        private final int[] found;
+        private final int limit;
+        private int prefix;
+        private long prefixFound;
+        private volatile int skipFrom = Integer.MAX_VALUE;
+
+        Progress(int chunks, int limit) {
+            this.found = new int[chunks];
+            this.limit = limit;
+            Arrays.fill(found, -1);
+        }
+
+        boolean canSkip(int chunk) {
+            return chunk >= skipFrom;
+        }
+
+        synchronized void done(int chunk, int count) {
+            found[chunk] = count;
+            while (prefix < found.length && found[prefix] >= 0) {
+                prefixFound += found[prefix];
+                prefix++;
+            }
+            if (prefixFound >= limit && skipFrom == Integer.MAX_VALUE) {
+                skipFrom = prefix;
+            }
+        }
+    }
+}
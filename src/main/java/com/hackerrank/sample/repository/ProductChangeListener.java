@@ -0,0 +1,26 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.model.Product;
+
+/**
+ * Recibe cada cambio aplicado por {@link IProductRepository}.
+ *
+ * Se invoca mientras el repositorio aún retiene el bloqueo del producto, así
+ * que los cambios de un mismo producto llegan en el orden en que se
+ * aplicaron. La implementación debe ser rápida y no volver a mutar el
+ * repositorio.
+ */
+public interface ProductChangeListener {
+
+    /**
+     * @param previous Versión anterior, o {@code null} si el producto es nuevo.
+     * @param current  Versión nueva, o {@code null} si el producto se eliminó.
+     */
+    void changed(Product previous, Product current);
+
+    /**
+     * El catálogo se reemplazó por completo; lo derivado de él debe recalcularse.
+     */
+    default void reloaded() {
+    }
+}
@@ -0,0 +1,50 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.model.Product;
+
+import java.util.List;
+
+/**
+ * Persistencia del catálogo que respalda al almacén en memoria.
+ *
+ * {@link IProductRepository} notifica aquí cada mutación antes de aplicarla
+ * sobre {@link ProductStore}; si la notificación falla, la mutación no se
+ * aplica. Cada implementación decide cómo y cuándo llevarla a disco.
+ */
+interface ProductPersistence extends AutoCloseable {
+
+    /**
+     * Lee el catálogo persistido al iniciar la aplicación.
+     */
+    List<Product> load();
+
+    void upserted(Product product);
+
+    void deleted(long productId);
+
+    void replacedAll(List<Product> products);
+
+    /**
+     * Notifica un lote de altas o modificaciones como una sola escritura.
+     */
+    default void upsertedAll(List<Product> products) {
+        products.forEach(this::upserted);
+    }
+
+    /**
+     * Notifica un lote de bajas como una sola escritura.
+     */
+    default void deletedAll(long[] productIds) {
+        for (long productId : productIds) {
+            deleted(productId);
+        }
+    }
+
+    /**
+     * Lleva a disco todos los cambios notificados hasta el momento.
+     */
+    void flush();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,107 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.model.Product;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Almacén en memoria del catálogo usado por los modos en memoria de
+ * {@link IProductRepository}. Las lecturas completas y las páginas devuelven
+ * los productos en orden de ID.
+ *
+ * {@link ObjectProductStore} guarda cada {@link Product} tal como se recibe;
+ * {@link ColumnarProductStore} guarda sus campos en columnas primitivas y
+ * arma los productos recién al leerlos.
+ */
+interface ProductStore {
+
+    void load(List<Product> initial);
+
+    List<Product> getAll();
+
+    /**
+     * Productos en orden de ID a partir del cursor, sin copiar el catálogo.
+     *
+     * @param afterId    ID del último producto entregado, o {@code null} para empezar por el extremo.
+     * @param descending Si se recorre de mayor a menor ID.
+     * @param limit      Cantidad máxima de productos.
+     */
+    List<Product> page(Long afterId, boolean descending, int limit);
+
+    Product get(long productId);
+
+    /**
+     * @return La versión del producto, o {@code null} si no existe.
+     */
+    Long versionOf(long productId);
+
+    /**
+     * Productos que cumplen el predicado, en orden de ID. El predicado puede
+     * recibir una vista que se reutiliza entre productos, así que no debe
+     * retener el producto recibido.
+     */
+    default List<Product> filter(Predicate<? super Product> predicate) {
+        return filter(predicate, Integer.MAX_VALUE, ParallelScan.SERIAL);
+    }
+
+    /**
+     * Los primeros {@code limit} productos que cumplen el predicado, en orden
+     * de ID. Si el almacén alcanza el umbral de {@code scan}, las filas se
+     * evalúan por tramos en varios hilos a la vez, así que el predicado debe
+     * admitir llamadas concurrentes; cada tramo recibe su propia vista.
+     *
+     * @param predicate Condición a evaluar sobre cada producto.
+     * @param limit     Cantidad máxima de productos, o {@link Integer#MAX_VALUE} para todos.
+     * @param scan      Recorrido secuencial o paralelo según la cantidad de filas.
+     */
+    List<Product> filter(Predicate<? super Product> predicate, int limit, ParallelScan scan);
+
+    /**
+     * Entrega cada producto en orden de ID con el bloqueo de lectura tomado,
+     * sin copiar el catálogo. La acción puede recibir una vista que se
+     * reutiliza entre productos, así que no debe retenerlo ni modificar el
+     * almacén.
+     */
+    void scan(Consumer<? super Product> action);
+
+    /**
+     * Inserta o reemplaza el producto.
+     *
+     * @return El producto anterior con el mismo ID o {@code null}.
+     */
+    Product put(Product product);
+
+    /**
+     * Inserta o reemplaza varios productos tomando el bloqueo una sola vez.
+     */
+    void putAll(List<Product> products);
+
+    /**
+     * Reemplaza el producto solo si ya existe.
+     *
+     * @return El producto anterior o {@code null} si no existía.
+     */
+    Product replace(Product product);
+
+    /**
+     * Reemplaza los productos que ya existen tomando el bloqueo una sola vez.
+     *
+     * @return Los productos reemplazados, en el orden recibido; los inexistentes se omiten.
+     */
+    List<Product> replaceExisting(List<Product> products);
+
+    /**
+     * Elimina varios productos tomando el bloqueo una sola vez.
+     *
+     * @return Los productos eliminados; los inexistentes se omiten.
+     */
+    List<Product> removeAll(long[] productIds);
+
+    void replaceAll(List<Product> all);
+
+    int size();
+
+    long maxId();
+}
@@ -0,0 +1,50 @@
+package com.hackerrank.sample.repository;
+
+/**
+ * Modos de funcionamiento de {@link IProductRepository}.
+ */
+public enum RepositoryMode {
+
+    /**
+     * Lee y reescribe el archivo JSON en cada operación.
+     */
+    FILE,
+
+    /**
+     * Mantiene el catálogo en memoria y persiste los cambios en segundo plano.
+     */
+    MEMORY,
+
+    /**
+     * Como {@link #MEMORY}, pero guarda el catálogo por columnas primitivas en
+     * {@link ColumnarProductStore} en lugar de como objetos {@code Product}.
+     */
+    COLUMNAR,
+
+    /**
+     * Mantiene el catálogo en memoria y registra cada cambio en un log que solo
+     * agrega registros, compactado periódicamente en una foto.
+     */
+    WAL,
+
+    /**
+     * Guarda el catálogo en una tabla de una base H2 embebida, con escrituras
+     * por lotes y filtros resueltos con consultas indexadas.
+     */
+    H2,
+
+    /**
+     * Réplica de solo lectura: mantiene el catálogo en memoria, lo carga de la
+     * foto de otra instancia y aplica los cambios de su feed; rechaza las
+     * escrituras.
+     */
+    REPLICA;
+
+    public static RepositoryMode from(String value) {
+        try {
+            return RepositoryMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modo de repositorio inválido: " + value);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.metrics.ProductMetrics;
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tarea de persistencia en segundo plano que, si falla, se reintenta en el
+ * siguiente ciclo.
+ *
+ * Cada falla se cuenta en {@code product.repository.persistence.failures}; en
+ * el log quedan la primera falla de una racha, con su excepción, y la
+ * recuperación, sin repetir el mismo error en cada ciclo.
+ */
+final class RetriedTask implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(RetriedTask.class);
+
+    private final String name;
+    private final Runnable task;
+    private final Counter failures;
+    private volatile boolean failing;
+
+    RetriedTask(String name, Runnable task, ProductMetrics metrics) {
+        this.name = name;
+        this.task = task;
+        this.failures = metrics.persistenceFailures(name);
+    }
+
+    @Override
+    public void run() {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            failures.increment();
+            if (!failing) {
+                failing = true;
+                log.error("Falló la tarea de persistencia {}; los cambios no llegan a disco hasta que se recupere", name, e);
+            }
+            return;
+        }
+        if (failing) {
+            failing = false;
+            log.info("Se recuperó la tarea de persistencia {}", name);
+        }
+    }
+}
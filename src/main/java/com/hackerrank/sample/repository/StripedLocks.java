@@ -0,0 +1,70 @@
+package com.hackerrank.sample.repository;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloqueos repartidos por ID de producto.
+ *
+ * Cada ID cae siempre en la misma franja, así que las mutaciones de un mismo
+ * producto se serializan mientras que las de productos distintos avanzan en
+ * paralelo. Las operaciones sobre varios IDs toman sus franjas en orden
+ * ascendente, lo que evita interbloqueos entre lotes.
+ */
+class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    StripedLocks(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("La cantidad de franjas debe ser mayor a cero");
+        }
+        int size = Integer.highestOneBit(count);
+        if (size < count) {
+            size <<= 1;
+        }
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Franjas de los IDs, sin repetir y en el orden en que deben tomarse.
+     */
+
+    int[] stripesFor(long[] productIds) {
+        int[] result = new int[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            result[i] = stripe(productIds[i]);
+        }
+        return Arrays.stream(result).distinct().sorted().toArray();
+    }
+
+    int[] allStripes() {
+        int[] result = new int[stripes.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    void lock(int[] stripeIndexes) {
+        for (int stripe : stripeIndexes) {
+            stripes[stripe].lock();
+        }
+    }
+
+    void unlock(int[] stripeIndexes) {
+        for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+            stripes[stripeIndexes[i]].unlock();
+        }
+    }
+
+    private int stripe(long productId) {
+        long hash = productId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,87 @@
+package com.hackerrank.sample.repository;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Textos del almacén por columnas: cada valor distinto se guarda una sola vez
+ * y las columnas guardan su código. Cada código cuenta cuántas filas lo usan;
+ * cuando ninguna lo usa se libera y se reutiliza.
+ *
+ * No es seguro para hilos; la sincronización corresponde a quien lo usa.
+ */
+class TextDictionary {
+
+    static final int NULL = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[16];
+    private int[] references = new int[16];
+    private int[] free = new int[16];
+    private int freeSize;
+    private int size;
+
+    /**
+     * Suma una referencia al texto, agregándolo si no existía.
+     *
+     * @return Su código, o {@value #NULL} si el texto es {@code null}.
+     */
+    int acquire(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            references[existing]++;
+            return existing;
+        }
+        int code;
+        if (freeSize > 0) {
+            code = free[--freeSize];
+        } else {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+                references = Arrays.copyOf(references, size << 1);
+            }
+            code = size++;
+        }
+        values[code] = value;
+        references[code] = 1;
+        codes.put(value, code);
+        return code;
+    }
+
+    /**
+     * Quita una referencia al texto y lo libera si ya nadie lo usa.
+     */
+    void release(int code) {
+        if (code == NULL || --references[code] > 0) {
+            return;
+        }
+        codes.remove(values[code]);
+        values[code] = null;
+        if (freeSize == free.length) {
+            free = Arrays.copyOf(free, freeSize << 1);
+        }
+        free[freeSize++] = code;
+    }
+
+    String get(int code) {
+        return code == NULL ? null : values[code];
+    }
+
+    /**
+     * Cantidad de textos distintos en uso.
+     */
+    int size() {
+        return codes.size();
+    }
+
+    void clear() {
+        codes.clear();
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        freeSize = 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.hackerrank.sample.repository;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Flujo de entrada que cuenta los bytes leídos y el tiempo pasado dentro del
+ * flujo subyacente, para separar la espera del disco del tiempo de parseo.
+ *
+ * Jackson lee en bloques, así que la medición agrega una llamada a
+ * {@link System#nanoTime()} por bloque y no por byte.
+ */
+class TimedInputStream extends FilterInputStream {
+
+    private long bytes;
+    private long nanos;
+
+    TimedInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        long start = System.nanoTime();
+        int value = super.read();
+        nanos += System.nanoTime() - start;
+        if (value >= 0) {
+            bytes++;
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        long start = System.nanoTime();
+        int read = in.read(buffer, offset, length);
+        nanos += System.nanoTime() - start;
+        if (read > 0) {
+            bytes += read;
+        }
+        return read;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    long nanos() {
+        return nanos;
+    }
+}
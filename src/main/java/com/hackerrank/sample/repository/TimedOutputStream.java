@@ -0,0 +1,51 @@
+package com.hackerrank.sample.repository;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Flujo de salida que cuenta los bytes escritos y el tiempo pasado dentro del
+ * flujo subyacente, para separar la escritura en disco del tiempo de
+ * serialización.
+ */
+class TimedOutputStream extends FilterOutputStream {
+
+    private long bytes;
+    private long nanos;
+
+    TimedOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        long start = System.nanoTime();
+        out.write(value);
+        nanos += System.nanoTime() - start;
+        bytes++;
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        long start = System.nanoTime();
+        out.write(buffer, offset, length);
+        nanos += System.nanoTime() - start;
+        bytes += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        long start = System.nanoTime();
+        out.flush();
+        nanos += System.nanoTime() - start;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    long nanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,564 @@
+package com.hackerrank.sample.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.util.LongObjectHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Persistencia del modo {@link RepositoryMode#WAL}: un log de escritura
+ * anticipada que solo agrega registros.
+ *
+ * Cada mutación se escribe como un registro compacto al final del segmento
+ * actual ({@code products.wal.N}) con un {@link FileChannel}, de modo que una
+ * escritura cuesta O(tamaño del producto) y no O(tamaño del catálogo). La
+ * sincronización con disco se agrupa según {@link WalSettings#fsyncIntervalMs()}
+ * y {@link WalSettings#fsyncBatchSize()}.
+ *
+ * Periódicamente el log se compacta: se cierra el segmento actual, se abre uno
+ * nuevo y se escribe una foto del catálogo ({@code products.snapshot}) que cubre
+ * los segmentos cerrados, que luego se borran. Al iniciar se lee la foto y se
+ * reaplican los segmentos posteriores. Aplicar un registro dos veces deja el
+ * mismo resultado, así que no importa si la foto ya incluía alguno.
+ *
+ * Formato de un registro: {@code [int largo][int crc32][byte tipo][long id][json]},
+ * donde el CRC y el largo cubren tipo, id y JSON. Un reemplazo del catálogo se
+ * escribe como un {@code CLEAR}, cuyo id es la cantidad de altas siguientes,
+ * y esas altas, en una sola escritura. Un registro incompleto al
+ * final de un segmento (por una caída a mitad de escritura) se descarta. Si una
+ * escritura o sincronización falla, el segmento se abandona y la siguiente
+ * escritura abre uno nuevo, así que un registro confirmado nunca queda detrás
+ * de uno incompleto; un registro inválido en medio de un segmento se informa
+ * como error al iniciar.
+ *
+ * Las escrituras y sincronizaciones del segmento pasan por {@link BlockingIo} y
+ * se protegen con {@link ReentrantLock} en lugar de monitores, para que un hilo
+ * virtual que espera el disco no retenga a su hilo portador. La sincronización
+ * y la compactación periódicas corren como {@link RetriedTask}: sus fallas se
+ * cuentan y quedan en el log.
+ */
+class WalPersistence implements ProductPersistence {
+
+    static final String SNAPSHOT_FILE = "products.snapshot";
+    static final String SEGMENT_PREFIX = "products.wal.";
+
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    private static final byte CLEAR = 3;
+    private static final int HEADER_BYTES = 8;
+    private static final int BODY_HEADER_BYTES = 9;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private static final Logger log = LoggerFactory.getLogger(WalPersistence.class);
+
+    private final ObjectMapper mapper;
+    private final CatalogFile catalogFile;
+    private final WalSettings settings;
+    private final Supplier<List<Product>> snapshot;
+    private final BlockingIo io;
+    private final ProductMetrics metrics;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private ScheduledExecutorService scheduler;
+
+    // Segmento abierto para escribir; null después de una falla hasta la próxima escritura.
+    private FileChannel channel;
+    private long generation;
+    private long bytesSinceCompaction;
+    private int pendingSync;
+
+    WalPersistence(ObjectMapper mapper, CatalogFile catalogFile, WalSettings settings, Supplier<List<Product>> snapshot,
+                   BlockingIo io, ProductMetrics metrics) {
+        this.mapper = mapper;
+        this.catalogFile = catalogFile;
+        this.settings = settings;
+        this.snapshot = snapshot;
+        this.io = io;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Carga la foto y reaplica el log. Si todavía no existe una foto, importa
+     * el catálogo desde el archivo del catálogo.
+     */
+
+    @Override
+    public List<Product> load() {
+        try {
+            Files.createDirectories(settings.directory());
+            Path snapshotPath = settings.directory().resolve(SNAPSHOT_FILE);
+            LongObjectHashMap<Product> products = new LongObjectHashMap<>();
+            long snapshotGeneration;
+            if (Files.exists(snapshotPath)) {
+                SnapshotFile file = mapper.readValue(snapshotPath.toFile(), SnapshotFile.class);
+                file.products().forEach(product -> products.put(product.getId(), product));
+                snapshotGeneration = file.generation();
+            } else {
+                List<Product> imported = catalogFile.read();
+                imported.forEach(product -> products.put(product.getId(), product));
+                snapshotGeneration = 0;
+                writeSnapshot(new SnapshotFile(snapshotGeneration, imported));
+            }
+
+            long lastGeneration = snapshotGeneration;
+            for (long segment : segments()) {
+                if (segment > snapshotGeneration) {
+                    replay(segmentPath(segment), products);
+                }
+                lastGeneration = Math.max(lastGeneration, segment);
+            }
+
+            generation = lastGeneration + 1;
+            channel = openSegment(generation);
+            startBackgroundTasks();
+            return products.values();
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el log de productos", e);
+        }
+    }
+
+    @Override
+    public void upserted(Product product) {
+        try {
+            append(UPSERT, product.getId(), mapper.writeValueAsBytes(product));
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar el producto en el log", e);
+        }
+    }
+
+    @Override
+    public void deleted(long productId) {
+        append(DELETE, productId, new byte[0]);
+    }
+
+    /**
+     * Escribe todos los registros del lote con una sola escritura agrupada y a
+     * lo sumo una sincronización con disco.
+     */
+
+    @Override
+    public void upsertedAll(List<Product> products) {
+        try {
+            ByteBuffer[] records = new ByteBuffer[products.size()];
+            for (int i = 0; i < records.length; i++) {
+                Product product = products.get(i);
+                records[i] = encode(UPSERT, product.getId(), mapper.writeValueAsBytes(product));
+            }
+            appendAll(records);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar los productos en el log", e);
+        }
+    }
+
+    @Override
+    public void deletedAll(long[] productIds) {
+        ByteBuffer[] records = new ByteBuffer[productIds.length];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = encode(DELETE, productIds[i], new byte[0]);
+        }
+        appendAll(records);
+    }
+
+    /**
+     * Escribe el borrado y todas las altas con una sola escritura agrupada. Al
+     * reaplicar el log, el reemplazo se descarta completo si falta alguna alta,
+     * así que una caída no deja el catálogo vacío o a medio cargar.
+     */
+
+    @Override
+    public void replacedAll(List<Product> products) {
+        try {
+            ByteBuffer[] records = new ByteBuffer[products.size() + 1];
+            records[0] = encode(CLEAR, products.size(), new byte[0]);
+            for (int i = 0; i < products.size(); i++) {
+                Product product = products.get(i);
+                records[i + 1] = encode(UPSERT, product.getId(), mapper.writeValueAsBytes(product));
+            }
+            appendAll(records);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al reemplazar el catálogo en el log", e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        appendLock.lock();
+        try {
+            forceLocked();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Exporta el catálogo actual al archivo del catálogo.
+     */
+
+    void exportCatalog() {
+        catalogFile.writeDurably(snapshot.get());
+    }
+
+    /**
+     * Cierra el segmento actual, escribe una foto del catálogo y elimina los
+     * segmentos que quedaron cubiertos por ella.
+     */
+
+    void compact() {
+        compactionLock.lock();
+        try {
+            long sealed;
+            appendLock.lock();
+            try {
+                sealed = generation;
+                forceLocked();
+                if (channel != null) {
+                    channel.close();
+                    channel = null;
+                }
+                channelLocked();
+                bytesSinceCompaction = 0;
+            } catch (IOException e) {
+                throw new RuntimeException("Error al rotar el log de productos", e);
+            } finally {
+                appendLock.unlock();
+            }
+            writeSnapshot(new SnapshotFile(sealed, snapshot.get()));
+            try {
+                for (long segment : segments()) {
+                    if (segment <= sealed) {
+                        Files.deleteIfExists(segmentPath(segment));
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error al limpiar el log de productos", e);
+            }
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (generation == 0) {
+            return;
+        }
+        compact();
+        if (settings.exportOnClose()) {
+            exportCatalog();
+        }
+        appendLock.lock();
+        try {
+            forceLocked();
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al cerrar el log de productos", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void append(byte type, long productId, byte[] payload) {
+        appendAll(new ByteBuffer[]{encode(type, productId, payload)});
+    }
+
+    private void appendAll(ByteBuffer[] records) {
+        if (records.length == 0) {
+            return;
+        }
+        long total = 0;
+        for (ByteBuffer record : records) {
+            total += record.limit();
+        }
+        long bytes = total;
+        appendLock.lock();
+        try {
+            FileChannel target = channelLocked();
+            io.run(() -> {
+                long written = 0;
+                while (written < bytes) {
+                    written += target.write(records);
+                }
+            });
+            bytesSinceCompaction += bytes;
+            pendingSync += records.length;
+            if (settings.fsyncIntervalMs() <= 0 || pendingSync >= settings.fsyncBatchSize()) {
+                forceLocked();
+            }
+        } catch (IOException e) {
+            abandonSegmentLocked();
+            throw new RuntimeException("Error al escribir el log de productos", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private static ByteBuffer encode(byte type, long productId, byte[] payload) {
+        ByteBuffer body = ByteBuffer.allocate(BODY_HEADER_BYTES + payload.length);
+        body.put(type).putLong(productId).put(payload).flip();
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + body.remaining());
+        record.putInt(body.remaining()).putInt((int) crc.getValue()).put(body).flip();
+        return record;
+    }
+
+    private void forceLocked() {
+        if (pendingSync == 0) {
+            return;
+        }
+        try {
+            FileChannel target = channel;
+            io.run(() -> target.force(false));
+            pendingSync = 0;
+        } catch (IOException e) {
+            abandonSegmentLocked();
+            throw new RuntimeException("Error al sincronizar el log de productos", e);
+        }
+    }
+
+    /**
+     * Segmento donde escribir; si el anterior se abandonó, abre el siguiente.
+     */
+    private FileChannel channelLocked() throws IOException {
+        if (channel == null) {
+            long next = generation + 1;
+            channel = openSegment(next);
+            generation = next;
+        }
+        return channel;
+    }
+
+    /**
+     * Cierra el segmento actual después de una escritura o sincronización
+     * fallida. Su final puede tener un registro incompleto, y tras un
+     * {@code fsync} fallido no se sabe qué llegó al disco, así que no se
+     * vuelve a escribir en él.
+     */
+    private void abandonSegmentLocked() {
+        if (channel == null) {
+            return;
+        }
+        log.error("Se abandona el segmento {} del log de productos tras una falla de E/S", segmentPath(generation));
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // El segmento ya no se usa.
+        }
+        channel = null;
+        pendingSync = 0;
+    }
+
+    /**
+     * Reaplica los registros de un segmento hasta el final o hasta el primer
+     * registro inválido. Un reemplazo del catálogo ({@code CLEAR} seguido de
+     * sus altas) se aplica solo si están todos sus registros.
+     */
+    private void replay(Path segment, LongObjectHashMap<Product> products) throws IOException {
+        try (SegmentReader reader = new SegmentReader(segment)) {
+            for (Record record = reader.next(); record != null; record = reader.next()) {
+                if (record.type() != CLEAR) {
+                    apply(record, products);
+                    continue;
+                }
+                LongObjectHashMap<Product> replacement = new LongObjectHashMap<>();
+                for (long i = 0; i < record.productId(); i++) {
+                    Record upsert = reader.next();
+                    if (upsert == null || upsert.type() != UPSERT) {
+                        return;
+                    }
+                    apply(upsert, replacement);
+                }
+                products.clear();
+                replacement.forEachValue(product -> products.put(product.getId(), product));
+            }
+        }
+    }
+
+    private void apply(Record record, LongObjectHashMap<Product> products) throws IOException {
+        if (record.type() == UPSERT) {
+            products.put(record.productId(), mapper.readValue(record.body(), BODY_HEADER_BYTES,
+                    record.body().length - BODY_HEADER_BYTES, Product.class));
+        } else {
+            products.remove(record.productId());
+        }
+    }
+
+    private void writeSnapshot(SnapshotFile file) {
+        try {
+            Path target = settings.directory().resolve(SNAPSHOT_FILE).toAbsolutePath();
+            Path temp = target.resolveSibling(SNAPSHOT_FILE + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                out.write(mapper.writeValueAsBytes(file));
+                out.getFD().sync();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al guardar la foto del catálogo", e);
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> result = new ArrayList<>();
+        try (Stream<Path> files = Files.list(settings.directory())) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX))
+                    .forEach(name -> {
+                        try {
+                            result.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length())));
+                        } catch (NumberFormatException ignored) {
+                            // Archivo ajeno al log.
+                        }
+                    });
+        }
+        result.sort(Long::compare);
+        return result;
+    }
+
+    private Path segmentPath(long segment) {
+        return settings.directory().resolve(SEGMENT_PREFIX + segment);
+    }
+
+    private FileChannel openSegment(long segment) throws IOException {
+        return FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void startBackgroundTasks() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-wal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (settings.fsyncIntervalMs() > 0) {
+            scheduler.scheduleWithFixedDelay(new RetriedTask("fsync", this::flush, metrics),
+                    settings.fsyncIntervalMs(), settings.fsyncIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+        if (settings.compactionIntervalMs() > 0) {
+            scheduler.scheduleWithFixedDelay(new RetriedTask("compaction", this::compactIfWorthIt, metrics),
+                    settings.compactionIntervalMs(), settings.compactionIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void compactIfWorthIt() {
+        boolean worthIt;
+        appendLock.lock();
+        try {
+            worthIt = bytesSinceCompaction >= settings.compactionMinBytes();
+        } finally {
+            appendLock.unlock();
+        }
+        if (worthIt) {
+            compact();
+        }
+    }
+
+    /**
+     * Registro leído de un segmento. En un {@code CLEAR}, {@code productId}
+     * es la cantidad de altas que lo siguen.
+     */
+    private record Record(byte type, long productId, byte[] body) {
+    }
+
+    /**
+     * Lee los registros válidos de un segmento. Un registro incompleto o
+     * inválido al final es el rastro de una escritura interrumpida y se
+     * descarta; si le siguen más bytes, se informa como error porque esos
+     * registros no se aplican.
+     */
+    private static final class SegmentReader implements AutoCloseable {
+
+        private final Path segment;
+        private final long size;
+        private final DataInputStream in;
+        private long offset;
+
+        SegmentReader(Path segment) throws IOException {
+            this.segment = segment;
+            this.size = Files.size(segment);
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)));
+        }
+
+        /**
+         * @return El siguiente registro, o {@code null} al llegar al final o a un registro inválido.
+         */
+        Record next() throws IOException {
+            int length;
+            int checksum;
+            byte[] body;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length < BODY_HEADER_BYTES || length > MAX_RECORD_BYTES) {
+                    return corrupted(offset + HEADER_BYTES);
+                }
+                body = new byte[length];
+                in.readFully(body);
+            } catch (EOFException e) {
+                return null;
+            }
+            long end = offset + HEADER_BYTES + length;
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            byte type = body[0];
+            if ((int) crc.getValue() != checksum || type < UPSERT || type > CLEAR) {
+                return corrupted(end);
+            }
+            offset = end;
+            return new Record(type, ByteBuffer.wrap(body, 1, Long.BYTES).getLong(), body);
+        }
+
+        private Record corrupted(long end) {
+            if (end < size) {
+                log.error("Registro inválido en {} en la posición {}; se descartan los {} bytes siguientes del segmento",
+                        segment, offset, size - offset);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Foto del catálogo junto con el último segmento del log que incluye.
+     */
+    record SnapshotFile(long generation, List<Product> products) {
+    }
+}
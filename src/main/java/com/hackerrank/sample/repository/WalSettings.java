@@ -0,0 +1,21 @@
+package com.hackerrank.sample.repository;
+
+import java.nio.file.Path;
+
+/**
+ * Configuración del modo {@link RepositoryMode#WAL}.
+ *
+ * @param directory          Carpeta donde se guardan la foto y los segmentos del log.
+ * @param fsyncIntervalMs    Cada cuánto se sincroniza el log con disco; {@code 0} sincroniza en cada escritura.
+ * @param fsyncBatchSize     Cantidad de registros pendientes que fuerza una sincronización inmediata.
+ * @param compactionIntervalMs Cada cuánto se evalúa compactar el log en una foto.
+ * @param compactionMinBytes Tamaño mínimo del log para que valga la pena compactarlo.
+ * @param exportOnClose      Si al detener la aplicación se exporta el catálogo a su archivo.
+ */
+record WalSettings(Path directory,
+                   long fsyncIntervalMs,
+                   int fsyncBatchSize,
+                   long compactionIntervalMs,
+                   long compactionMinBytes,
+                   boolean exportOnClose) {
+}
@@ -0,0 +1,64 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Persistencia del modo {@link RepositoryMode#MEMORY}: cada mutación marca el
+ * catálogo como modificado y {@link WriteBehindWriter} reescribe el archivo
+ * completo en segundo plano, en JSON o en binario según {@link CatalogFile}.
+ */
+class WriteBehindPersistence implements ProductPersistence {
+
+    private final CatalogFile file;
+    private final WriteBehindWriter writer;
+
+    WriteBehindPersistence(CatalogFile file, long flushIntervalMs, Supplier<List<Product>> snapshot,
+                               ProductMetrics metrics) {
+        this.file = file;
+        this.writer = new WriteBehindWriter(flushIntervalMs, snapshot, file::writeDurably, metrics);
+    }
+
+    @Override
+    public List<Product> load() {
+        return file.read();
+    }
+
+    @Override
+    public void upserted(Product product) {
+        writer.markDirty();
+    }
+
+    @Override
+    public void deleted(long productId) {
+        writer.markDirty();
+    }
+
+    @Override
+    public void upsertedAll(List<Product> products) {
+        writer.markDirty();
+    }
+
+    @Override
+    public void deletedAll(long[] productIds) {
+        writer.markDirty();
+    }
+
+    @Override
+    public void replacedAll(List<Product> products) {
+        writer.markDirty();
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+}
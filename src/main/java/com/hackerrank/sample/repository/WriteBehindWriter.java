@@ -0,0 +1,88 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Escritor en segundo plano del catálogo.
+ *
+ * Las mutaciones solo marcan el catálogo como modificado; un hilo dedicado
+ * escribe la última foto del catálogo cada {@code flushIntervalMs}, de modo que
+ * varias mutaciones seguidas se agrupan en una sola escritura. Las fallas se
+ * registran con {@link RetriedTask} y se reintentan en el siguiente ciclo.
+ */
+class WriteBehindWriter implements AutoCloseable {
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final Supplier<List<Product>> snapshot;
+    private final Consumer<List<Product>> sink;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    WriteBehindWriter(long flushIntervalMs, Supplier<List<Product>> snapshot, Consumer<List<Product>> sink,
+                      ProductMetrics metrics) {
+        this.snapshot = snapshot;
+        this.sink = sink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(new RetriedTask("write-behind", this::flush, metrics),
+                flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Indica que el catálogo cambió y debe persistirse en la siguiente escritura.
+     */
+
+    void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * Escribe el catálogo si hubo cambios desde la última escritura.
+     *
+     * Si la escritura falla, el catálogo se vuelve a marcar como modificado para
+     * reintentarlo en el siguiente ciclo.
+     */
+
+    void flush() {
+        flushLock.lock();
+        try {
+            if (!dirty.getAndSet(false)) {
+                return;
+            }
+            sink.accept(snapshot.get());
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            throw e;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Detiene el hilo de escritura y persiste los cambios pendientes.
+     */
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,140 @@
+package com.hackerrank.sample.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.dto.ImportErrorDto;
+import com.hackerrank.sample.dto.ImportResultDto;
+import com.hackerrank.sample.dto.ProductDto;
+import com.hackerrank.sample.exception.ReadOnlyReplicaException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ProductImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @Autowired
+    public ProductImportService(ProductService productService,
+                                ObjectMapper objectMapper,
+                                @Value("${product.bulk.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor a cero");
+        }
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Importa productos leyendo la entrada de forma incremental.
+     *
+     * La entrada puede ser un arreglo JSON o NDJSON (un objeto por línea); en ambos
+     * casos se lee registro a registro con el parser de streaming de Jackson, así que
+     * en memoria solo vive el lote en curso. Cada registro se valida por separado y
+     * los válidos se crean en lotes de {@code product.bulk.batch-size} con
+     * {@link ProductService#createAll(List)}. Un registro inválido se informa y se
+     * salta sin abortar la carga; solo un error de sintaxis, que impide saber dónde
+     * empieza el siguiente registro, detiene la lectura. Los lotes ya creados se conservan.
+     *
+     * @param input Cuerpo de la petición.
+     * @return Resumen de la carga con los errores por registro.
+     */
+
+    @Timed(value = ProductService.TIMER, extraTags = {"operation", "import"})
+    public ImportResultDto importProducts(InputStream input) {
+        ImportResultDto result = new ImportResultDto();
+        List<ProductDto> batch = new ArrayList<>(batchSize);
+        List<Long> batchRecords = new ArrayList<>(batchSize);
+        long record = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                result.setReceived(result.getReceived() + 1);
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    fail(result, record, "Se esperaba un objeto de producto");
+                } else {
+                    JsonNode node = parser.readValueAsTree();
+                    String problem = null;
+                    try {
+                        ProductDto dto = objectMapper.treeToValue(node, ProductDto.class);
+                        problem = validate(dto);
+                        if (problem == null) {
+                            batch.add(dto);
+                            batchRecords.add(record);
+                        }
+                    } catch (JsonProcessingException e) {
+                        problem = e.getOriginalMessage();
+                    }
+                    if (problem != null) {
+                        fail(result, record, problem);
+                    }
+                    if (batch.size() >= batchSize) {
+                        commit(batch, batchRecords, result);
+                    }
+                }
+                record++;
+                token = parser.nextToken();
+            }
+        } catch (IOException e) {
+            result.setAborted("Entrada inválida a partir del registro " + record + ": " + e.getMessage());
+        }
+        commit(batch, batchRecords, result);
+        return result;
+    }
+
+    private void commit(List<ProductDto> batch, List<Long> batchRecords, ImportResultDto result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            result.setImported(result.getImported() + productService.createAll(batch).size());
+        } catch (ReadOnlyReplicaException e) {
+            throw e;
+        } catch (Exception e) {
+            for (Long record : batchRecords) {
+                fail(result, record, "Error al guardar el lote: " + e.getMessage());
+            }
+        }
+        batch.clear();
+        batchRecords.clear();
+    }
+
+    private static String validate(ProductDto dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return "El nombre es obligatorio";
+        }
+        if (dto.getPrice() != null && (dto.getPrice().isNaN() || dto.getPrice() < 0)) {
+            return "El precio no puede ser negativo";
+        }
+        if (dto.getRating() != null && (dto.getRating().isNaN() || dto.getRating() < 0)) {
+            return "La calificación no puede ser negativa";
+        }
+        return null;
+    }
+
+    private static void fail(ImportResultDto result, long record, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportErrorDto(record, message));
+        }
+    }
+}
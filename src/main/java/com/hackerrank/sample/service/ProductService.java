@@ -1,69 +1,179 @@
 package com.hackerrank.sample.service;
 
+import com.hackerrank.sample.cache.FilterResultCache;
+import com.hackerrank.sample.dto.BatchResultDto;
+import com.hackerrank.sample.dto.ComparisonDto;
+import com.hackerrank.sample.dto.FacetRequestDto;
+import com.hackerrank.sample.dto.FacetsDto;
 import com.hackerrank.sample.dto.FilterDto;
+import com.hackerrank.sample.dto.PageDto;
 import com.hackerrank.sample.dto.ProductDto;
+import com.hackerrank.sample.dto.ProductPatchDto;
 import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.exception.ReadOnlyReplicaException;
+import com.hackerrank.sample.exception.VersionConflictException;
+import com.hackerrank.sample.facet.FacetCollector;
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.index.ProductIndexes;
 import com.hackerrank.sample.mapper.ProductMapper;
+import com.hackerrank.sample.metrics.ProductMetrics;
 import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.page.KeysetCursor;
+import com.hackerrank.sample.page.PageRequest;
+import com.hackerrank.sample.page.PageSelector;
+import com.hackerrank.sample.page.ProductSlice;
+import com.hackerrank.sample.page.SortOrder;
 import com.hackerrank.sample.repository.IProductRepository;
+import com.hackerrank.sample.spec.AttributeMatrix;
+import com.hackerrank.sample.util.LongObjectHashMap;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 @Service
 public class ProductService {
 
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_COMPARE_SIZE = 50;
+    static final int FACET_CHUNK_SIZE = 512;
+    static final String TIMER = "product.service";
+
+    private static final Logger log = LoggerFactory.getLogger(ProductService.class);
+
     private final IProductRepository iProductRepository;
     private final ProductMapper productMapper;
+    private final ProductMetrics productMetrics;
+    private final FilterResultCache filterResultCache;
+    private final ProductIndexes productIndexes = new ProductIndexes();
 
     @Autowired
-    public ProductService(IProductRepository iProductRepository, ProductMapper productMapper) {
+    public ProductService(IProductRepository iProductRepository, ProductMapper productMapper,
+                          ProductMetrics productMetrics, FilterResultCache filterResultCache) {
         this.iProductRepository = iProductRepository;
         this.productMapper = productMapper;
+        this.productMetrics = productMetrics;
+        this.filterResultCache = filterResultCache;
+        iProductRepository.addChangeListener(productIndexes);
+        iProductRepository.addChangeListener(filterResultCache);
     }
 
     /**
      * Filtra los productos según una lista de filtros dinámicos.
      *
      * Cada filtro especifica un campo del modelo {@link Product} y un valor que se debe comparar.
-     * Los filtros se aplican de forma acumulativa (AND lógico).
+     * Los filtros se aplican de forma acumulativa (AND lógico). La lista se compila una sola vez
+     * en un {@link FilterPlan}, por lo que los filtros inválidos se rechazan antes de recorrer el catálogo.
+     *
+     * Si el catálogo está en memoria, los candidatos se obtienen de los índices: el índice ordenado
+     * de {@code price} o {@code rating} para los filtros numéricos y el índice de trigramas de
+     * {@code name}, {@code description} y {@code specifications} para las búsquedas de texto. Solo
+     * esos candidatos se evalúan contra el plan completo; si ningún filtro tiene índice se recorre
+     * el catálogo. Los IDs del resultado se guardan en {@link FilterResultCache}, así que repetir
+     * el mismo filtro no vuelve a evaluarlo mientras ningún cambio altere qué productos lo cumplen.
+     * Las claves {@code spec.<nombre>} filtran por un atributo de las especificaciones y se
+     * resuelven con el índice de atributos.
      *
      * @param filters Lista de filtros a aplicar (clave y valor).
      * @return Lista de productos que cumplen con todos los filtros.
      * @throws BadResourceRequestException Si algún filtro tiene campos inválidos o vacíos.
      */
 
+    @Timed(value = TIMER, extraTags = {"operation", "filter"})
     public List<Product> filterProducts(List<FilterDto> filters) {
-        List<Product> allProducts = iProductRepository.getAll();
+        return filterProducts(filters, false);
+    }
 
-        return allProducts.stream()
-                .filter(product -> filters.stream().allMatch(filter -> {
-                    String key = filter.getKey();
-                    String value = filter.getValue();
+    /**
+     * Filtra los productos y, si se pide, los ordena por relevancia.
+     *
+     * La relevancia suma las apariciones de cada texto buscado, pesadas por el campo
+     * donde aparecen; los empates conservan el orden por ID.
+     *
+     * @param filters Lista de filtros a aplicar (clave y valor).
+     * @param rankByRelevance Si se deben ordenar los resultados por relevancia.
+     * @return Lista de productos que cumplen con todos los filtros.
+     * @throws BadResourceRequestException Si algún filtro tiene campos inválidos o vacíos.
+     */
 
-                    if (key.isEmpty() || value.isEmpty()) {
-                        throw new BadResourceRequestException("Debe enviar al menos un filtro válido");
-                    }
+    @Timed(value = TIMER, extraTags = {"operation", "filter"})
+    public List<Product> filterProducts(List<FilterDto> filters, boolean rankByRelevance) {
+        FilterPlan plan = FilterPlan.compile(filters);
+        List<Product> matches = iProductRepository.isInMemory() && filterResultCache.isEnabled()
+                ? cachedMatches(plan)
+                : matches(plan);
+        if (!rankByRelevance) {
+            return matches;
+        }
+        record Scored(Product product, double score) {}
+        return matches.stream()
+                .map(product -> new Scored(product, plan.relevance(product)))
+                .sorted(Comparator.comparingDouble(Scored::score).reversed())
+                .map(Scored::product)
+                .toList();
+    }
 
-                    try {
-                        Field field = Product.class.getDeclaredField(key);
-                        field.setAccessible(true);
-                        Object fieldValue = field.get(product);
+    /**
+     * Cuenta los productos que cumplen los filtros por intervalos de precio y
+     * rating y por los valores más frecuentes de los campos pedidos.
+     *
+     * Los filtros se evalúan igual que en {@link #filterProducts(List)} y cada
+     * producto que los cumple se agrega a los contadores de un
+     * {@link FacetCollector} en la misma pasada, sin armar la lista del
+     * resultado: con candidatos de los índices se leen de a tramos de
+     * {@value #FACET_CHUNK_SIZE}, sin índice se recorre el almacén (en el modo
+     * columnar con una vista reutilizada) y en el modo H2 se leen las filas de
+     * la consulta a medida que llegan.
+     *
+     * @param request Filtros, límites de los histogramas y campos a contar.
+     * @return El total de coincidencias y las facetas pedidas.
+     * @throws BadResourceRequestException Si algún filtro o faceta es inválido.
+     */
 
-                        if (fieldValue instanceof Number) {
-                            double filterValue = Double.parseDouble(value);
-                            return Double.compare(((Number) fieldValue).doubleValue(), filterValue) == 0;
-                        } else {
-                            return fieldValue.toString().toLowerCase().contains(value.toLowerCase());
+    @Timed(value = TIMER, extraTags = {"operation", "facets"})
+    public FacetsDto facets(FacetRequestDto request) {
+        FilterPlan plan = FilterPlan.compile(request.getFilters() != null ? request.getFilters() : List.of());
+        FacetCollector collector = FacetCollector.of(request);
+        if (iProductRepository.isInMemory()) {
+            productIndexes.ensureBuilt(iProductRepository::getAll);
+            long[] candidates = productIndexes.candidates(plan);
+            if (candidates != null) {
+                for (int from = 0; from < candidates.length; from += FACET_CHUNK_SIZE) {
+                    long[] chunk = Arrays.copyOfRange(candidates, from, Math.min(candidates.length, from + FACET_CHUNK_SIZE));
+                    for (Product product : iProductRepository.findAllById(chunk)) {
+                        if (plan.matches(product)) {
+                            collector.accept(product);
                         }
-
-                    } catch (NoSuchFieldException | IllegalAccessException e) {
-                        throw new BadResourceRequestException("Columna inválida: " + key);
                     }
-                }))
-                .toList();
+                }
+                productMetrics.filtered(true, candidates.length, (int) collector.total());
+                return collector.result();
+            }
+            int scanned = iProductRepository.count();
+            iProductRepository.forEachMatching(plan, collector);
+            productMetrics.filtered(false, scanned, (int) collector.total());
+        } else if (iProductRepository.filtersInStorage()) {
+            iProductRepository.forEachMatching(plan, collector);
+            productMetrics.filteredInStorage((int) collector.total());
+        } else {
+            int[] scanned = {0};
+            iProductRepository.forEach(product -> {
+                scanned[0]++;
+                if (plan.matches(product)) {
+                    collector.accept(product);
+                }
+            });
+            productMetrics.filtered(false, scanned[0], (int) collector.total());
+        }
+        return collector.result();
     }
 
     /**
@@ -73,6 +183,7 @@ public class ProductService {
      * @throws RuntimeException Si ocurre un error en la obtención de datos.
      */
 
+    @Timed(value = TIMER, extraTags = {"operation", "getAll"})
     public List<Product> getAll(){
         try{
             return iProductRepository.getAll();
@@ -81,6 +192,132 @@ public class ProductService {
         }
     }
 
+    /**
+     * Obtiene el catálogo completo ordenado y con los campos pedidos.
+     *
+     * @param request Orden y proyección; se ignora el límite.
+     * @return Productos completos, o vistas parciales si se pidieron campos.
+     */
+
+    @Timed(value = TIMER, extraTags = {"operation", "getAll"})
+    public List<?> getAll(PageRequest request) {
+        return view(PageSelector.sortAll(getAll(), request.sort()), request);
+    }
+
+    /**
+     * Recorre el catálogo completo en orden de ID sin materializarlo en una lista.
+     *
+     * @param request Proyección a aplicar; se ignoran el límite y el orden.
+     * @param action  Acción a ejecutar por cada producto, o por su vista parcial si se pidieron campos.
+     */
+
+    @Timed(value = TIMER, extraTags = {"operation", "stream"})
+    public void forEachProduct(PageRequest request, Consumer<Object> action) {
+        if (!request.isProjected()) {
+            iProductRepository.forEach(action);
+            return;
+        }
+        iProductRepository.forEach(product -> action.accept(productMapper.project(product, request.fields())));
+    }
+
+    /**
+     * Obtiene una página del catálogo con paginación por cursor.
+     *
+     * El orden por ID recorre el índice primario del almacén a partir del cursor y el
+     * orden por {@code price} o {@code rating} recorre su índice ordenado, así que
+     * ninguno ordena el catálogo. Los demás campos, o los índices incompletos por
+     * productos sin valor, seleccionan la página con un montículo acotado.
+     *
+     * @param request Límite, cursor, orden y proyección.
+     * @return Los productos de la página y el cursor de la siguiente.
+     */
+
+    @Timed(value = TIMER, extraTags = {"operation", "getPage"})
+    public PageDto getPage(PageRequest request) {
+        SortOrder sort = request.sort();
+        KeysetCursor after = request.after();
+        int limit = request.limit();
+        if (sort.isById()) {
+            List<Product> items = iProductRepository.findPage(after != null ? after.id() : null, sort.descending(), limit + 1);
+            return toPage(ProductSlice.of(items, limit), request);
+        }
+        if (canWalkIndex(sort, after)) {
+            long[] ids = productIndexes.page(sort.field(), sort.descending(),
+                    after != null ? (Double) after.value() : null, after != null ? after.id() : null, limit + 1);
+            return toPage(ProductSlice.of(iProductRepository.findAllById(ids), limit), request);
+        }
+        return toPage(PageSelector.select(iProductRepository.getAll(), sort, after, limit), request);
+    }
+
+    /**
+     * Filtra los productos y devuelve los resultados ordenados y con los campos pedidos.
+     *
+     * @param filters Lista de filtros a aplicar (clave y valor).
+     * @param rankByRelevance Si se ordena por relevancia en lugar de por el orden pedido.
+     * @param request Orden y proyección; se ignora el límite.
+     * @return Productos completos, o vistas parciales si se pidieron campos.
+     * @throws BadResourceRequestException Si algún filtro tiene campos inválidos o vacíos.
+     */
+
+    @Timed(value = TIMER, extraTags = {"operation", "filter"})
+    public List<?> filterProducts(List<FilterDto> filters, boolean rankByRelevance, PageRequest request) {
+        List<Product> matches = filterProducts(filters, rankByRelevance);
+        return view(rankByRelevance ? matches : PageSelector.sortAll(matches, request.sort()), request);
+    }
+
+    /**
+     * Filtra los productos y devuelve una página de los resultados.
+     *
+     * En los modos en memoria, las páginas en orden de ID ascendente no
+     * calculan el resultado completo: se detienen al reunir los productos de
+     * la página (ver {@link #firstMatches}).
+     *
+     * @param filters Lista de filtros a aplicar (clave y valor).
+     * @param request Límite, cursor, orden y proyección.
+     * @return Los productos de la página y el cursor de la siguiente.
+     * @throws BadResourceRequestException Si algún filtro tiene campos inválidos o vacíos.
+     */
+
+    @Timed(value = TIMER, extraTags = {"operation", "filterPage"})
+    public PageDto filterPage(List<FilterDto> filters, PageRequest request) {
+        SortOrder sort = request.sort();
+        if (sort.isById() && !sort.descending() && iProductRepository.isInMemory()) {
+            KeysetCursor after = request.after();
+            List<Product> items = firstMatches(FilterPlan.compile(filters),
+                    after != null ? after.id() : Long.MIN_VALUE, request.limit() + 1);
+            return toPage(ProductSlice.of(items, request.limit()), request);
+        }
+        List<Product> matches = filterProducts(filters, false);
+        return toPage(PageSelector.select(matches, request.sort(), request.after(), request.limit()), request);
+    }
+
+    /**
+     * Versión actual del catálogo para las peticiones condicionales.
+     *
+     * Se lee antes que los datos: primero el momento del último cambio y luego
+     * el contador, así que ni el ETag ni la fecha pueden anunciar un catálogo
+     * más nuevo que el que se responde.
+     *
+     * @return ETag y fecha de modificación del catálogo completo.
+     */
+
+    public CatalogVersion catalogVersion() {
+        long lastModified = iProductRepository.lastModified();
+        String eTag = "\"" + Long.toString(iProductRepository.startedAt(), 36) + "-" + iProductRepository.catalogVersion() + "\"";
+        return new CatalogVersion(eTag, lastModified);
+    }
+
+    /**
+     * Versión actual de un producto sin leerlo completo.
+     *
+     * @param productId Identificador del producto.
+     * @return La versión, o {@code null} si no existe o no se puede obtener sin leer el archivo.
+     */
+
+    public Long versionOf(Long productId) {
+        return iProductRepository.versionOf(productId);
+    }
+
     /**
      * Obtiene un producto específico por su identificador.
      *
@@ -89,6 +326,7 @@ public class ProductService {
      * @throws RuntimeException Si el producto no existe o hay un error en el repositorio.
      */
 
+    @Timed(value = TIMER, extraTags = {"operation", "getById"})
     public Product getById(Long productId){
         try {
             return iProductRepository.findById(productId);
@@ -98,16 +336,59 @@ public class ProductService {
 
     }
 
+    /**
+     * Obtiene varios productos por ID con una sola lectura del repositorio.
+     *
+     * @param productIds IDs a buscar; los repetidos se consideran una vez.
+     * @return Los productos encontrados en el orden pedido y los IDs inexistentes.
+     * @throws BadResourceRequestException Si no se envían IDs o se supera el máximo por lote.
+     */
+
+    @Timed(value = TIMER, extraTags = {"operation", "getByIds"})
+    public BatchResultDto getByIds(List<Long> productIds) {
+        long[] ids = distinctIds(productIds);
+        List<Product> found = iProductRepository.findAllById(ids);
+        return new BatchResultDto(found, missing(ids, found));
+    }
+
+    /**
+     * Compara varios productos lado a lado.
+     *
+     * Los productos se leen con una sola búsqueda por ID y sus especificaciones
+     * se interpretan una vez para armar en el servidor una fila por atributo
+     * con un valor por producto (ver {@link AttributeMatrix}).
+     *
+     * @param productIds IDs a comparar; los repetidos se consideran una vez.
+     * @return La matriz de atributos y los IDs inexistentes.
+     * @throws BadResourceRequestException Si no se envían entre 2 y {@value #MAX_COMPARE_SIZE} IDs distintos.
+     */
+
+    @Timed(value = TIMER, extraTags = {"operation", "compare"})
+    public ComparisonDto compare(List<Long> productIds) {
+        long[] ids = distinctIds(productIds);
+        if (ids.length < 2 || ids.length > MAX_COMPARE_SIZE) {
+            throw new BadResourceRequestException("Debe enviar entre 2 y " + MAX_COMPARE_SIZE + " IDs distintos para comparar");
+        }
+        List<Product> found = iProductRepository.findAllById(ids);
+        return new ComparisonDto(
+                found.stream().map(Product::getId).toList(),
+                found.stream().map(Product::getName).toList(),
+                AttributeMatrix.of(found),
+                missing(ids, found));
+    }
+
     /**
      * Crea un nuevo producto y lo guarda en el repositorio.
      *
-     * El ID se genera automáticamente con base en el valor máximo existente.
+     * El ID se toma de la secuencia persistente del repositorio, por lo que no
+     * depende del tamaño del catálogo y es seguro ante creaciones concurrentes.
      *
      * @param newProduct DTO con los datos del nuevo producto.
      * @return El producto creado, con ID asignado.
      * @throws BadResourceRequestException Si el DTO es nulo o ocurre un error durante la creación.
      */
 
+    @Timed(value = TIMER, extraTags = {"operation", "create"})
     public Product create(ProductDto newProduct) {
         try {
             if (newProduct == null) {
@@ -115,20 +396,39 @@ public class ProductService {
             }
 
             Product product = productMapper.toEntity(newProduct);
-            List<Product> products = iProductRepository.getAll();
+            product.setId(iProductRepository.nextId());
+            return iProductRepository.insert(product);
+        } catch (ReadOnlyReplicaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BadResourceRequestException(e.getMessage());
+        }
+    }
 
-            Long productId = products.stream()
-                    .mapToLong(Product::getId)
-                    .max()
-                    .orElse(0) + 1;
+    /**
+     * Crea varios productos como un solo lote.
+     *
+     * Los IDs se reservan en un bloque consecutivo y los productos se insertan en
+     * el repositorio con una única operación, por lo que el costo de persistir se
+     * paga una vez por lote y no una vez por producto.
+     *
+     * @param newProducts DTOs ya validados de los nuevos productos.
+     * @return Los productos creados, con ID asignado y en el mismo orden.
+     */
 
-            product.setId(productId);
+    @Timed(value = TIMER, extraTags = {"operation", "createAll"})
+    public List<Product> createAll(List<ProductDto> newProducts) {
+        if (newProducts.isEmpty()) {
+            return List.of();
+        }
+        long firstId = iProductRepository.nextIds(newProducts.size());
+        List<Product> products = new ArrayList<>(newProducts.size());
+        for (ProductDto newProduct : newProducts) {
+            Product product = productMapper.toEntity(newProduct);
+            product.setId(firstId + products.size());
             products.add(product);
-            iProductRepository.save(products);
-            return product;
-        } catch (Exception e) {
-            throw new BadResourceRequestException(e.getMessage());
         }
+        return iProductRepository.insertAll(products);
     }
 
     /**
@@ -136,10 +436,9 @@ public class ProductService {
      *
      * Proceso:
      * <ol>
-     *     <li>Busca el producto por ID.</li>
-     *     <li>Lo elimina temporalmente del repositorio.</li>
-     *     <li>Actualiza sus datos con los valores del DTO.</li>
-     *     <li>Lo agrega nuevamente a la lista y guarda los cambios.</li>
+     *     <li>Construye el producto con los valores del DTO y el mismo ID.</li>
+     *     <li>Lo reemplaza en el repositorio conservando su posición, comprobando
+     *     con el bloqueo del producto tomado que exista y que su versión sea la esperada.</li>
      * </ol>
      *
      * @param productId  ID del producto a actualizar.
@@ -148,28 +447,95 @@ public class ProductService {
      * @throws RuntimeException Si ocurre algún error durante el proceso.
      */
 
+    @Timed(value = TIMER, extraTags = {"operation", "update"})
     public Product update(Long productId, ProductDto productDto) {
+        return update(productId, productDto, null);
+    }
+
+    /**
+     * Actualiza un producto solo si no cambió desde la versión que leyó el cliente.
+     *
+     * @param productId       ID del producto a actualizar.
+     * @param productDto      DTO con los nuevos datos del producto.
+     * @param expectedVersion Versión esperada (la del {@code If-Match}), o {@code null} para no comprobarla.
+     * @return El producto actualizado, con su nueva versión.
+     * @throws VersionConflictException Si el producto cambió desde la versión esperada.
+     * @throws RuntimeException         Si ocurre algún otro error durante el proceso.
+     */
+
+    @Timed(value = TIMER, extraTags = {"operation", "update"})
+    public Product update(Long productId, ProductDto productDto, Long expectedVersion) {
         try {
-            Product findProduct = iProductRepository.findById(productId);
-            iProductRepository.delete(productId);
-
-            List<Product> products = iProductRepository.getAll();
-            findProduct.setId(productId);
-            findProduct.setName(productDto.getName());
-            findProduct.setDescription(productDto.getDescription());
-            findProduct.setImage(productDto.getImage());
-            findProduct.setPrice(productDto.getPrice());
-            findProduct.setRating(productDto.getRating());
-            findProduct.setSpecifications(productDto.getSpecifications());
-            products.add(findProduct);
-
-            iProductRepository.save(products);
-            return findProduct;
+            Product updated = productMapper.toEntity(productDto);
+            updated.setId(productId);
+            return iProductRepository.update(updated, expectedVersion);
+        }catch (VersionConflictException | ReadOnlyReplicaException e){
+            throw e;
         }catch (Exception e){
             throw new RuntimeException(e.getMessage());
         }
     }
 
+    /**
+     * Actualiza parcialmente varios productos con una sola pasada por el repositorio.
+     *
+     * Los campos en {@code null} de cada parche se conservan. Si un ID aparece más de
+     * una vez, sus parches se aplican en orden. Los parches se aplican sobre la versión
+     * vigente de cada producto con su bloqueo tomado, así que no pisan cambios concurrentes.
+     *
+     * @param patches Parches a aplicar, cada uno con el ID del producto.
+     * @return Los productos actualizados y los IDs inexistentes.
+     * @throws BadResourceRequestException Si algún parche no tiene ID o se supera el máximo por lote.
+     */
+
+    @Timed(value = TIMER, extraTags = {"operation", "updateAll"})
+    public BatchResultDto updateAll(List<ProductPatchDto> patches) {
+        if (patches == null || patches.isEmpty() || patches.size() > MAX_BATCH_SIZE) {
+            throw new BadResourceRequestException("Debe enviar entre 1 y " + MAX_BATCH_SIZE + " productos");
+        }
+        List<Long> requested = new ArrayList<>(patches.size());
+        for (ProductPatchDto patch : patches) {
+            if (patch.getId() == null) {
+                throw new BadResourceRequestException("Cada producto debe indicar su ID");
+            }
+            requested.add(patch.getId());
+        }
+        long[] ids = distinctIds(requested);
+
+        LongObjectHashMap<List<ProductPatchDto>> patchesById = new LongObjectHashMap<>(ids.length);
+        for (ProductPatchDto patch : patches) {
+            List<ProductPatchDto> forId = patchesById.get(patch.getId());
+            if (forId == null) {
+                forId = new ArrayList<>(1);
+                patchesById.put(patch.getId(), forId);
+            }
+            forId.add(patch);
+        }
+        List<Product> updated = iProductRepository.updateAll(ids, current -> {
+            Product patched = current;
+            for (ProductPatchDto patch : patchesById.get(current.getId())) {
+                patched = productMapper.applyPatch(patched, patch);
+            }
+            return patched;
+        });
+        return new BatchResultDto(updated, missing(ids, updated));
+    }
+
+    /**
+     * Elimina varios productos con una sola pasada por el repositorio.
+     *
+     * @param productIds IDs a eliminar.
+     * @return Los IDs eliminados y los inexistentes.
+     * @throws BadResourceRequestException Si no se envían IDs o se supera el máximo por lote.
+     */
+
+    @Timed(value = TIMER, extraTags = {"operation", "deleteAll"})
+    public BatchResultDto deleteAll(List<Long> productIds) {
+        long[] ids = distinctIds(productIds);
+        List<Product> removed = iProductRepository.deleteAll(ids);
+        return new BatchResultDto(removed.stream().map(Product::getId).toList(), missing(ids, removed));
+    }
+
     /**
      * Elimina un producto por su identificador.
      *
@@ -178,15 +544,169 @@ public class ProductService {
      * @throws RuntimeException Si el producto no existe o ocurre un error al eliminarlo.
      */
 
+    @Timed(value = TIMER, extraTags = {"operation", "delete"})
     public Long delete(Long productId){
         try{
-            System.out.println("Eliminando el producto ID " + productId);
+            log.debug("Eliminando producto id={}", productId);
             Product findProduct = getById(productId);
             iProductRepository.delete(findProduct.getId());
             return productId;
+        }catch (ReadOnlyReplicaException e){
+            throw e;
         }catch (Exception e){
             throw new RuntimeException(e.getMessage());
         }
     }
 
+    /**
+     * Productos que cumplen el plan. En los modos en memoria usa los índices
+     * para obtener los candidatos; si ningún filtro tiene índice recorre el
+     * almacén con {@link IProductRepository#findAll}, que en el modo columnar
+     * evalúa el plan sobre las columnas y solo arma los productos que lo cumplen.
+     * En el modo H2 el plan se traduce a una consulta y lo resuelve la base.
+     */
+    private List<Product> matches(FilterPlan plan) {
+        List<Product> source;
+        boolean indexed = false;
+        if (iProductRepository.isInMemory()) {
+            productIndexes.ensureBuilt(iProductRepository::getAll);
+            long[] candidates = productIndexes.candidates(plan);
+            if (candidates == null) {
+                int scanned = iProductRepository.count();
+                List<Product> matches = iProductRepository.findAll(plan::matches);
+                productMetrics.filtered(false, scanned, matches.size());
+                return matches;
+            }
+            source = iProductRepository.findAllById(candidates);
+            indexed = true;
+        } else if (iProductRepository.filtersInStorage()) {
+            List<Product> matches = iProductRepository.findMatching(plan);
+            productMetrics.filteredInStorage(matches.size());
+            return matches;
+        } else {
+            source = iProductRepository.getAll();
+        }
+        List<Product> matches = source.stream()
+                .filter(plan::matches)
+                .toList();
+        productMetrics.filtered(indexed, source.size(), matches.size());
+        return matches;
+    }
+
+    /**
+     * Primeros {@code limit} productos que cumplen el plan con ID mayor a
+     * {@code afterId}, en orden de ID, en los modos en memoria.
+     *
+     * Con el resultado en la caché solo se leen los IDs de la página; con
+     * índice se evalúan los candidatos posteriores al cursor hasta reunirla;
+     * sin índice, el recorrido del catálogo se detiene al reunirla aunque sea
+     * paralelo. Como el resultado es parcial, no se guarda en la caché.
+     */
+    private List<Product> firstMatches(FilterPlan plan, long afterId, int limit) {
+        long[] cached = filterResultCache.isEnabled() ? filterResultCache.get(plan) : null;
+        if (cached != null) {
+            return iProductRepository.findAllById(idsAfter(cached, afterId, limit));
+        }
+        productIndexes.ensureBuilt(iProductRepository::getAll);
+        long[] candidates = productIndexes.candidates(plan);
+        if (candidates == null) {
+            List<Product> matches = iProductRepository.findAll(
+                    product -> product.getId() > afterId && plan.matches(product), limit);
+            productMetrics.scanStopped(matches.size());
+            return matches;
+        }
+        long[] tail = idsAfter(candidates, afterId, Integer.MAX_VALUE);
+        List<Product> matches = iProductRepository.findAllById(tail).stream()
+                .filter(plan::matches)
+                .limit(limit)
+                .toList();
+        productMetrics.filtered(true, tail.length, matches.size());
+        return matches;
+    }
+
+    /**
+     * Hasta {@code limit} IDs de un arreglo ordenado que son mayores a {@code afterId}.
+     */
+    private static long[] idsAfter(long[] sortedIds, long afterId, int limit) {
+        int start = Arrays.binarySearch(sortedIds, afterId);
+        start = start >= 0 ? start + 1 : -start - 1;
+        int end = (int) Math.min(sortedIds.length, (long) start + limit);
+        return Arrays.copyOfRange(sortedIds, start, end);
+    }
+
+    /**
+     * Igual que {@link #matches(FilterPlan)}, pero reutiliza los IDs guardados en
+     * {@link FilterResultCache} y guarda los del resultado calculado.
+     */
+    private List<Product> cachedMatches(FilterPlan plan) {
+        long[] cached = filterResultCache.get(plan);
+        if (cached != null) {
+            return iProductRepository.findAllById(cached);
+        }
+        long generation = filterResultCache.generation();
+        List<Product> matches = matches(plan);
+        long[] ids = new long[matches.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = matches.get(i).getId();
+        }
+        filterResultCache.put(plan, ids, generation);
+        return matches;
+    }
+
+    private boolean canWalkIndex(SortOrder sort, KeysetCursor after) {
+        if (!iProductRepository.isInMemory() || (after != null && after.value() == null)) {
+            return false;
+        }
+        productIndexes.ensureBuilt(iProductRepository::getAll);
+        return productIndexes.coversSort(sort.field(), iProductRepository.count());
+    }
+
+    private PageDto toPage(ProductSlice slice, PageRequest request) {
+        List<Product> items = slice.items();
+        String nextCursor = slice.hasMore() && !items.isEmpty()
+                ? KeysetCursor.of(items.get(items.size() - 1), request.sort()).encode()
+                : null;
+        return new PageDto(view(items, request), nextCursor);
+    }
+
+    private List<?> view(List<Product> products, PageRequest request) {
+        if (!request.isProjected()) {
+            return products;
+        }
+        return products.stream()
+                .map(product -> productMapper.project(product, request.fields()))
+                .toList();
+    }
+
+    private static long[] distinctIds(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty() || productIds.size() > MAX_BATCH_SIZE) {
+            throw new BadResourceRequestException("Debe enviar entre 1 y " + MAX_BATCH_SIZE + " IDs");
+        }
+        return productIds.stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .distinct()
+                .toArray();
+    }
+
+    private static List<Long> missing(long[] requested, List<Product> found) {
+        LongObjectHashMap<Product> byId = new LongObjectHashMap<>(found.size());
+        found.forEach(product -> byId.put(product.getId(), product));
+        List<Long> missing = new ArrayList<>();
+        for (long productId : requested) {
+            if (!byId.containsKey(productId)) {
+                missing.add(productId);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Identificación de una versión del catálogo.
+     *
+     * @param eTag         Cambia con cada mutación y entre reinicios de la aplicación.
+     * @param lastModified Momento del último cambio, en milisegundos.
+     */
+    public record CatalogVersion(String eTag, long lastModified) {
+    }
 }
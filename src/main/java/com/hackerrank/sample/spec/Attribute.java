@@ -0,0 +1,49 @@
+package com.hackerrank.sample.spec;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Atributo de las especificaciones de un producto con su valor tipado.
+ *
+ * Un valor formado por un número y opcionalmente una unidad pegada o separada
+ * por espacios ({@code 1200g}, {@code 15.6 in}, {@code 100%}) es numérico; el
+ * resto es texto.
+ *
+ * @param name   Nombre en minúsculas y sin espacios en los extremos.
+ * @param value  Valor tal como se escribió, sin espacios en los extremos.
+ * @param number Valor numérico, o {@link Double#NaN} si el valor es texto.
+ * @param unit   Unidad que sigue al número, o {@code null} si no tiene o el valor es texto.
+ */
+public record Attribute(String name, String value, double number, String unit) {
+
+    private static final Pattern NUMBER = Pattern.compile("([-+]?\\d+(?:\\.\\d+)?)\\s*([^\\d\\s.+-]\\S*)?");
+
+    /**
+     * Crea el atributo deduciendo el tipo del valor.
+     */
+    public static Attribute of(String name, String value) {
+        String trimmed = value.trim();
+        Matcher matcher = NUMBER.matcher(trimmed);
+        if (matcher.matches()) {
+            return new Attribute(normalizeName(name), trimmed, Double.parseDouble(matcher.group(1)), matcher.group(2));
+        }
+        return new Attribute(normalizeName(name), trimmed, Double.NaN, null);
+    }
+
+    public static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isNumeric() {
+        return !Double.isNaN(number);
+    }
+
+    /**
+     * Valor de texto en minúsculas, como se compara e indexa.
+     */
+    public String normalizedValue() {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
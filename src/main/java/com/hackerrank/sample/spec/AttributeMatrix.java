@@ -0,0 +1,82 @@
+package com.hackerrank.sample.spec;
+
+import com.hackerrank.sample.dto.ComparisonRowDto;
+import com.hackerrank.sample.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Matriz de comparación de varios productos: una fila por atributo y una
+ * columna por producto.
+ *
+ * Las primeras filas son {@code price} y {@code rating}; les siguen los
+ * atributos de las especificaciones en el orden en que aparecen por primera
+ * vez. Las especificaciones de cada producto se interpretan una sola vez.
+ */
+public final class AttributeMatrix {
+
+    private AttributeMatrix() {
+    }
+
+    public static List<ComparisonRowDto> of(List<Product> products) {
+        int columns = products.size();
+        Map<String, Attribute[]> cells = new LinkedHashMap<>();
+        Object[] prices = new Object[columns];
+        Object[] ratings = new Object[columns];
+        for (int i = 0; i < columns; i++) {
+            Product product = products.get(i);
+            prices[i] = product.getPrice();
+            ratings[i] = product.getRating();
+            for (Attribute attribute : Specifications.parse(product.getSpecifications()).attributes()) {
+                cells.computeIfAbsent(attribute.name(), name -> new Attribute[columns])[i] = attribute;
+            }
+        }
+        List<ComparisonRowDto> rows = new ArrayList<>(cells.size() + 2);
+        rows.add(row("price", null, prices));
+        rows.add(row("rating", null, ratings));
+        cells.forEach((name, attributes) -> rows.add(row(name, attributes)));
+        return rows;
+    }
+
+    /**
+     * Fila numérica si todos los valores presentes son números con la misma
+     * unidad; si no, los valores se entregan como texto.
+     */
+    private static ComparisonRowDto row(String name, Attribute[] attributes) {
+        boolean numeric = true;
+        String unit = null;
+        boolean first = true;
+        for (Attribute attribute : attributes) {
+            if (attribute == null) {
+                continue;
+            }
+            if (!attribute.isNumeric() || (!first && !Objects.equals(unit, attribute.unit()))) {
+                numeric = false;
+                break;
+            }
+            unit = attribute.unit();
+            first = false;
+        }
+        Object[] values = new Object[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            Attribute attribute = attributes[i];
+            if (attribute != null) {
+                values[i] = numeric ? (Object) attribute.number() : attribute.value();
+            }
+        }
+        return row(name, numeric ? unit : null, values);
+    }
+
+    private static ComparisonRowDto row(String name, String unit, Object[] values) {
+        boolean differs = false;
+        for (int i = 1; i < values.length && !differs; i++) {
+            differs = !Objects.equals(values[0], values[i]);
+        }
+        return new ComparisonRowDto(name, unit, Arrays.asList(values), differs);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hackerrank.sample.spec;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Especificaciones de un producto como atributos tipados.
+ *
+ * El texto de {@code Product.specifications} se interpreta como pares
+ * {@code nombre: valor} (o {@code nombre=valor}) separados por {@code ;} o
+ * saltos de línea, por ejemplo {@code color: black; weight: 1200g}. Los
+ * fragmentos sin separador se ignoran, así que un texto libre no tiene
+ * atributos. Si un nombre se repite vale el último.
+ */
+public final class Specifications {
+
+    private static final Specifications EMPTY = new Specifications(Map.of());
+
+    private final Map<String, Attribute> attributes;
+
+    private Specifications(Map<String, Attribute> attributes) {
+        this.attributes = attributes;
+    }
+
+    public static Specifications parse(String text) {
+        if (text == null || text.isBlank()) {
+            return EMPTY;
+        }
+        Map<String, Attribute> attributes = new LinkedHashMap<>();
+        for (String entry : text.split("[;\\n]")) {
+            int separator = separator(entry);
+            if (separator <= 0) {
+                continue;
+            }
+            String name = entry.substring(0, separator);
+            String value = entry.substring(separator + 1);
+            if (name.isBlank() || value.isBlank()) {
+                continue;
+            }
+            Attribute attribute = Attribute.of(name, value);
+            attributes.remove(attribute.name());
+            attributes.put(attribute.name(), attribute);
+        }
+        return attributes.isEmpty() ? EMPTY : new Specifications(attributes);
+    }
+
+    /**
+     * @return El atributo, o {@code null} si el producto no lo tiene.
+     */
+    public Attribute get(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * Atributos en el orden en que aparecen en el texto.
+     */
+    public Collection<Attribute> attributes() {
+        return Collections.unmodifiableCollection(attributes.values());
+    }
+
+    public boolean isEmpty() {
+        return attributes.isEmpty();
+    }
+
+    private static int separator(String entry) {
+        int colon = entry.indexOf(':');
+        int equals = entry.indexOf('=');
+        if (colon < 0) {
+            return equals;
+        }
+        return equals < 0 ? colon : Math.min(colon, equals);
+    }
+}
@@ -0,0 +1,137 @@
+package com.hackerrank.sample.cache;
+
+import com.hackerrank.sample.dto.FilterDto;
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class FilterResultCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FilterResultCache cache;
+
+    /**
+     * Configuración previa a cada test:
+     * - Crea una caché de hasta dos resultados con métricas en memoria.
+     */
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new FilterResultCache(2, 1 << 20, new ProductMetrics(meterRegistry));
+    }
+
+    /**
+     * Prueba: la clave no depende del orden de los filtros ni de las mayúsculas del texto buscado.
+     *
+     * Verifica:
+     * - Que el mismo filtro escrito de otra forma encuentre el resultado guardado.
+     * - Que se cuenten un acierto y un fallo.
+     */
+
+    @Test
+    void testKeyIgnoresOrderAndCase() {
+        FilterPlan plan = FilterPlan.compile(List.of(filter("name", "Balon"), filter("price", "100")));
+        Assertions.assertNull(cache.get(plan));
+        cache.put(plan, new long[]{1, 2}, cache.generation());
+
+        FilterPlan same = FilterPlan.compile(List.of(filter("price", "100.0"), filter("name", "BALON")));
+
+        Assertions.assertArrayEquals(new long[]{1, 2}, cache.get(same));
+        Assertions.assertEquals(1.0, meterRegistry.get("product.filter.cache.requests").tag("result", "hit").counter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("product.filter.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    /**
+     * Prueba: invalidación precisa ante cambios de productos.
+     *
+     * Escenario:
+     * - Se guarda el resultado de filtrar por nombre "Balon".
+     *
+     * Verifica:
+     * - Que cambiar un campo que el filtro no usa conserve el resultado.
+     * - Que crear un producto que no cumple el filtro lo conserve.
+     * - Que un producto que deja de cumplir el filtro lo descarte.
+     */
+
+    @Test
+    void testInvalidatesOnlyAffectedResults() {
+        FilterPlan plan = FilterPlan.compile(List.of(filter("name", "Balon")));
+        cache.put(plan, new long[]{1}, cache.generation());
+        Product ball = product(1L, "Balon Blanco", 100.0);
+
+        cache.changed(ball, product(1L, "Balon Blanco", 200.0));
+        Assertions.assertNotNull(cache.get(plan));
+
+        cache.changed(null, product(2L, "Raqueta", 50.0));
+        Assertions.assertNotNull(cache.get(plan));
+
+        cache.changed(ball, product(1L, "Pelota Blanca", 100.0));
+        Assertions.assertNull(cache.get(plan));
+        Assertions.assertEquals(1.0, meterRegistry.get("product.filter.cache.invalidations").counter().count());
+    }
+
+    /**
+     * Prueba: un resultado calculado antes de un cambio no se guarda.
+     *
+     * Verifica:
+     * - Que {@code put} descarte el resultado si hubo cambios desde la marca tomada.
+     */
+
+    @Test
+    void testDiscardsStaleResult() {
+        FilterPlan plan = FilterPlan.compile(List.of(filter("name", "Balon")));
+        long generation = cache.generation();
+
+        cache.changed(null, product(3L, "Balon Rojo", 10.0));
+        cache.put(plan, new long[]{1}, generation);
+
+        Assertions.assertNull(cache.get(plan));
+    }
+
+    /**
+     * Prueba: al superar el límite se descarta el resultado usado hace más tiempo.
+     *
+     * Verifica:
+     * - Que el resultado consultado recientemente se conserve.
+     * - Que se cuente una expulsión.
+     */
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        FilterPlan first = FilterPlan.compile(List.of(filter("name", "a")));
+        FilterPlan second = FilterPlan.compile(List.of(filter("name", "b")));
+        FilterPlan third = FilterPlan.compile(List.of(filter("name", "c")));
+
+        cache.put(first, new long[]{1}, cache.generation());
+        cache.put(second, new long[]{2}, cache.generation());
+        cache.get(first);
+        cache.put(third, new long[]{3}, cache.generation());
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertNotNull(cache.get(first));
+        Assertions.assertNull(cache.get(second));
+        Assertions.assertEquals(1.0, meterRegistry.get("product.filter.cache.evictions").counter().count());
+    }
+
+    private static FilterDto filter(String key, String value) {
+        FilterDto filter = new FilterDto();
+        filter.setKey(key);
+        filter.setValue(value);
+        return filter;
+    }
+
+    private static Product product(Long id, String name, Double price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        return product;
+    }
+}
@@ -0,0 +1,138 @@
+package com.hackerrank.sample.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.IProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+public class ProductJsonCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private IProductRepository repository;
+    private ProductJsonCache cache;
+
+    /**
+     * Configuración previa a cada test:
+     * - Crea un repositorio en memoria y una caché que comprime cuerpos de cualquier tamaño.
+     */
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProductMetrics metrics = new ProductMetrics(meterRegistry);
+        repository = new IProductRepository("memory", directory.resolve("products.json").toString(), 1000, 100, 8, false, 1, metrics);
+        repository.init();
+        cache = new ProductJsonCache(repository, objectMapper, metrics, 100, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    /**
+     * Prueba: la segunda lectura usa los bytes guardados.
+     *
+     * Verifica:
+     * - Que el cuerpo sea el JSON del producto con su versión.
+     * - Que se cuenten un fallo y un acierto.
+     */
+
+    @Test
+    void testServesCachedBytes() throws IOException {
+        long id = repository.insert(product(repository.nextId(), "Balon")).getId();
+
+        ProductJsonCache.Encoded first = cache.get(id, ContentCoding.IDENTITY);
+        ProductJsonCache.Encoded second = cache.get(id, ContentCoding.IDENTITY);
+
+        Assertions.assertSame(first.body(), second.body());
+        Assertions.assertEquals("Balon", objectMapper.readValue(second.body(), Product.class).getName());
+        Assertions.assertEquals(1L, second.version());
+        Assertions.assertEquals(1.0, meterRegistry.get("product.json.cache.requests").tag("result", "miss").counter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("product.json.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    /**
+     * Prueba: actualizar o eliminar un producto descarta su JSON.
+     *
+     * Verifica:
+     * - Que después de una actualización se sirva la versión nueva.
+     * - Que después de eliminarlo no se devuelva nada.
+     */
+
+    @Test
+    void testInvalidatesOnUpdateAndDelete() throws IOException {
+        long id = repository.insert(product(repository.nextId(), "Balon")).getId();
+        cache.get(id, ContentCoding.IDENTITY);
+
+        repository.update(product(id, "Balon nuevo"));
+        Assertions.assertEquals(0, cache.size());
+
+        ProductJsonCache.Encoded updated = cache.get(id, ContentCoding.IDENTITY);
+        Assertions.assertEquals("Balon nuevo", objectMapper.readValue(updated.body(), Product.class).getName());
+        Assertions.assertEquals(2L, updated.version());
+
+        repository.delete(id);
+        Assertions.assertNull(cache.get(id, ContentCoding.IDENTITY));
+    }
+
+    /**
+     * Prueba: variantes comprimidas.
+     *
+     * Verifica:
+     * - Que gzip y deflate se descompriman al mismo JSON que la variante sin codificar.
+     */
+
+    @Test
+    void testCompressedVariantsMatchJson() throws IOException {
+        long id = repository.insert(product(repository.nextId(), "Balon")).getId();
+        byte[] json = cache.get(id, ContentCoding.IDENTITY).body();
+
+        ProductJsonCache.Encoded gzip = cache.get(id, ContentCoding.GZIP);
+        ProductJsonCache.Encoded deflate = cache.get(id, ContentCoding.DEFLATE);
+
+        Assertions.assertEquals(ContentCoding.GZIP, gzip.coding());
+        Assertions.assertArrayEquals(json, new GZIPInputStream(new ByteArrayInputStream(gzip.body())).readAllBytes());
+        Assertions.assertEquals(ContentCoding.DEFLATE, deflate.coding());
+        Assertions.assertArrayEquals(json, new InflaterInputStream(new ByteArrayInputStream(deflate.body())).readAllBytes());
+    }
+
+    /**
+     * Prueba: negociación de {@code Accept-Encoding}.
+     *
+     * Verifica:
+     * - Que se prefiera gzip, se use deflate si es la única aceptada y se respete {@code q=0}.
+     */
+
+    @Test
+    void testNegotiatesAcceptEncoding() {
+        Assertions.assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("deflate, gzip;q=0.5, br"));
+        Assertions.assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0, deflate"));
+        Assertions.assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("br"));
+        Assertions.assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate(null));
+    }
+
+    private static Product product(long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(100.0);
+        return product;
+    }
+}
@@ -0,0 +1,85 @@
+package com.hackerrank.sample.facet;
+
+import com.hackerrank.sample.dto.FacetBucketDto;
+import com.hackerrank.sample.dto.FacetRequestDto;
+import com.hackerrank.sample.dto.FacetTermDto;
+import com.hackerrank.sample.dto.FacetsDto;
+import com.hackerrank.sample.exception.BadResourceRequestException;
+import com.hackerrank.sample.model.Product;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class FacetCollectorTest {
+
+    /**
+     * Prueba: histogramas y valores más frecuentes.
+     *
+     * Escenario:
+     * - Cuatro productos, uno sin precio, con color en las especificaciones.
+     *
+     * Verifica:
+     * - Que cada precio caiga en su intervalo, con el límite inferior incluido.
+     * - Que los productos sin precio se cuenten aparte.
+     * - Que los valores se ordenen por cantidad y luego por texto, hasta el tamaño pedido.
+     */
+
+    @Test
+    void testCountsBucketsAndTopTerms() {
+        FacetRequestDto request = new FacetRequestDto();
+        request.setPriceBuckets(List.of(100.0, 500.0));
+        request.setTerms(List.of("spec.color", "name"));
+        request.setSize(2);
+        FacetCollector collector = FacetCollector.of(request);
+
+        collector.accept(product("Balon", 50.0, "color: red"));
+        collector.accept(product("Balon", 100.0, "color: blue"));
+        collector.accept(product("Raqueta", 700.0, "color: red; weight: 300g"));
+        collector.accept(product("Red", null, "color: white"));
+        FacetsDto result = collector.result();
+
+        Assertions.assertEquals(4, result.getTotal());
+        Assertions.assertEquals(List.of(
+                new FacetBucketDto(null, 100.0, 1),
+                new FacetBucketDto(100.0, 500.0, 1),
+                new FacetBucketDto(500.0, null, 1)), result.getPrice().getBuckets());
+        Assertions.assertEquals(1, result.getPrice().getMissing());
+        Assertions.assertNull(result.getRating());
+        Assertions.assertEquals(List.of(new FacetTermDto("red", 2), new FacetTermDto("blue", 1)),
+                result.getTerms().get("spec.color"));
+        Assertions.assertEquals(List.of(new FacetTermDto("Balon", 2), new FacetTermDto("Raqueta", 1)),
+                result.getTerms().get("name"));
+    }
+
+    /**
+     * Prueba: peticiones inválidas.
+     *
+     * Verifica:
+     * - Que se rechacen límites no ascendentes, campos numéricos en los valores
+     *   contados y tamaños fuera de rango.
+     */
+
+    @Test
+    void testRejectsInvalidRequests() {
+        FacetRequestDto unordered = new FacetRequestDto();
+        unordered.setRatingBuckets(Arrays.asList(3.0, 2.0));
+        FacetRequestDto numeric = new FacetRequestDto();
+        numeric.setTerms(List.of("price"));
+        FacetRequestDto large = new FacetRequestDto();
+        large.setSize(FacetCollector.MAX_SIZE + 1);
+
+        Assertions.assertThrows(BadResourceRequestException.class, () -> FacetCollector.of(unordered));
+        Assertions.assertThrows(BadResourceRequestException.class, () -> FacetCollector.of(numeric));
+        Assertions.assertThrows(BadResourceRequestException.class, () -> FacetCollector.of(large));
+    }
+
+    private static Product product(String name, Double price, String specifications) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(price);
+        product.setSpecifications(specifications);
+        return product;
+    }
+}
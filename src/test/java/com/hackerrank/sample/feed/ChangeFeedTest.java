@@ -0,0 +1,138 @@
+package com.hackerrank.sample.feed;
+
+import com.hackerrank.sample.dto.ChangeBatchDto;
+import com.hackerrank.sample.dto.ChangeEventDto;
+import com.hackerrank.sample.exception.ChangeFeedGapException;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.IProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ChangeFeedTest {
+
+    @TempDir
+    Path directory;
+
+    private IProductRepository repository;
+
+    /**
+     * Configuración previa a cada test:
+     * - Crea un repositorio en memoria sobre un archivo temporal.
+     */
+
+    @BeforeEach
+    void setUp() {
+        repository = new IProductRepository("memory", directory.resolve("products.json").toString(), 1000, 100, 8, false, 1,
+                new ProductMetrics(new SimpleMeterRegistry()));
+        repository.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    /**
+     * Prueba: eventos de un alta, una modificación y una baja.
+     *
+     * Verifica:
+     * - Que se numeren de forma consecutiva y con el tipo de cada cambio.
+     * - Que las modificaciones traigan el producto en su nueva versión y las bajas solo el ID.
+     * - Que leer desde una secuencia devuelva solo los posteriores, hasta el límite pedido.
+     */
+
+    @Test
+    void testEventsAreSequencedInOrder() throws Exception {
+        ChangeFeed feed = new ChangeFeed(repository, 100);
+        long id = repository.insert(product(repository.nextId(), "Balon")).getId();
+        repository.update(product(id, "Balon nuevo"));
+        repository.delete(id);
+
+        ChangeBatchDto all = feed.read(0, 10, 0);
+
+        Assertions.assertEquals(repository.startedAt(), all.getEpoch());
+        Assertions.assertEquals(3, all.getLatestSequence());
+        Assertions.assertEquals(List.of(1L, 2L, 3L), all.getEvents().stream().map(ChangeEventDto::getSequence).toList());
+        Assertions.assertEquals(List.of(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED),
+                all.getEvents().stream().map(ChangeEventDto::getType).toList());
+        Assertions.assertEquals(2L, all.getEvents().get(1).getProduct().getVersion());
+        Assertions.assertEquals(id, all.getEvents().get(2).getProductId());
+        Assertions.assertNull(all.getEvents().get(2).getProduct());
+
+        ChangeBatchDto tail = feed.read(1, 1, 0);
+
+        Assertions.assertEquals(1, tail.getEvents().size());
+        Assertions.assertEquals(2L, tail.getEvents().get(0).getSequence());
+        Assertions.assertEquals(3, tail.getLatestSequence());
+    }
+
+    /**
+     * Prueba: consulta larga sin eventos nuevos.
+     *
+     * Escenario:
+     * - Se pide el feed desde la última secuencia con una espera de diez segundos
+     *   y otro hilo crea un producto mientras tanto.
+     *
+     * Verifica:
+     * - Que la respuesta llegue con el evento nuevo antes de agotar la espera.
+     */
+
+    @Test
+    void testReadWaitsForNextEvent() throws Exception {
+        ChangeFeed feed = new ChangeFeed(repository, 100);
+        CompletableFuture<ChangeBatchDto> pending = CompletableFuture.supplyAsync(() -> {
+            try {
+                return feed.read(0, 10, 10_000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        long start = System.nanoTime();
+        repository.insert(product(repository.nextId(), "Balon"));
+
+        ChangeBatchDto batch = pending.get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(1, batch.getEvents().size());
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    /**
+     * Prueba: eventos descartados por la capacidad del feed.
+     *
+     * Verifica:
+     * - Que pedir desde antes del primer evento guardado lance {@link ChangeFeedGapException}.
+     * - Que pedir desde una secuencia posterior a la última, como la que trae una
+     *   réplica después de que la principal se reinicia, también lance {@link ChangeFeedGapException}.
+     */
+
+    @Test
+    void testDiscardedEventsAreReportedAsGap() throws Exception {
+        ChangeFeed feed = new ChangeFeed(repository, 2);
+        for (int i = 0; i < 3; i++) {
+            repository.insert(product(repository.nextId(), "Producto " + i));
+        }
+
+        Assertions.assertThrows(ChangeFeedGapException.class, () -> feed.read(0, 10, 0));
+        Assertions.assertEquals(2, feed.read(1, 10, 0).getEvents().size());
+        Assertions.assertThrows(ChangeFeedGapException.class, () -> feed.read(4, 10, 0));
+    }
+
+    private static Product product(long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(100.0);
+        return product;
+    }
+}
@@ -0,0 +1,236 @@
+package com.hackerrank.sample.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.dto.ChangeBatchDto;
+import com.hackerrank.sample.dto.ChangeSnapshotDto;
+import com.hackerrank.sample.exception.ChangeFeedGapException;
+import com.hackerrank.sample.exception.ReadOnlyReplicaException;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.repository.IProductRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+public class FeedReplicatorTest {
+
+    @TempDir
+    Path directory;
+
+    private ProductMetrics metrics;
+    private IProductRepository primary;
+    private IProductRepository replica;
+    private ChangeFeed feed;
+    private FeedReplicator replicator;
+
+    /**
+     * Configuración previa a cada test:
+     * - Crea una instancia principal en memoria con su feed de cambios y dos productos.
+     * - Crea una réplica vacía y su replicador, sin arrancar el hilo que consulta por HTTP.
+     */
+
+    @BeforeEach
+    void setUp() {
+        metrics = new ProductMetrics(new SimpleMeterRegistry());
+        primary = new IProductRepository("memory", directory.resolve("primary.json").toString(), 1000, 100, 8, false, 1, metrics);
+        primary.init();
+        feed = new ChangeFeed(primary, 100);
+        primary.insert(product(primary.nextId(), "Balon"));
+        primary.insert(product(primary.nextId(), "Raqueta"));
+
+        replica = new IProductRepository("replica", directory.resolve("replica.json").toString(), 1000, 100, 8, false, 1, metrics);
+        replica.init();
+        replicator = new FeedReplicator(replica, new ObjectMapper(), metrics, "http://localhost:0", 1000, 1000, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.close();
+        primary.close();
+    }
+
+    /**
+     * Prueba: réplica cargada desde la foto y actualizada con el feed.
+     *
+     * Escenario:
+     * - La réplica carga la foto y luego la principal modifica, elimina y crea productos.
+     *
+     * Verifica:
+     * - Que la réplica termine con los mismos productos y versiones que la principal.
+     * - Que el retraso sea cero al aplicar todos los eventos publicados.
+     */
+
+    @Test
+    void testReplicaConvergesWithPrimary() throws Exception {
+        replicator.load(feed.snapshot());
+        long first = primary.getAll().get(0).getId();
+        primary.update(product(first, "Balon nuevo"));
+        primary.delete(primary.getAll().get(1).getId());
+        primary.insert(product(primary.nextId(), "Red"));
+
+        Assertions.assertTrue(replicator.apply(feed.read(2, 100, 0)));
+
+        Assertions.assertEquals(primary.getAll(), replica.getAll());
+        Assertions.assertEquals(2L, replica.versionOf(first));
+        Assertions.assertEquals(0, replicator.lagEvents());
+        Assertions.assertEquals(0.0, replicator.lagSeconds());
+    }
+
+    /**
+     * Prueba: eventos que obligan a volver a cargar la foto.
+     *
+     * Verifica:
+     * - Que una respuesta de otra ejecución de la principal no se aplique.
+     * - Que un reemplazo completo del catálogo no se aplique.
+     */
+
+    @Test
+    void testEpochChangeAndReloadRequireSnapshot() throws Exception {
+        replicator.load(feed.snapshot());
+        ChangeBatchDto other = feed.read(0, 100, 0);
+        other.setEpoch(other.getEpoch() + 1);
+
+        Assertions.assertFalse(replicator.apply(other));
+
+        long since = feed.latestSequence();
+        primary.save(List.of(product(50L, "Pelota")));
+
+        Assertions.assertFalse(replicator.apply(feed.read(since, 100, 0)));
+        Assertions.assertEquals(2, replica.count());
+    }
+
+    /**
+     * Prueba: retraso medido con el reloj de la principal.
+     *
+     * Escenario:
+     * - El reloj de la principal va atrasado respecto del de la réplica.
+     * - Después de la foto, la principal publica un evento dos segundos posterior.
+     *
+     * Verifica:
+     * - Que el retraso se calcule con los momentos que informa la principal,
+     *   sin mezclarlos con el reloj de la réplica.
+     */
+
+    @Test
+    void testLagUsesPrimaryClock() {
+        ChangeSnapshotDto snapshot = feed.snapshot();
+        snapshot.setLatestTimestamp(1_000);
+        replicator.load(snapshot);
+
+        ChangeBatchDto batch = new ChangeBatchDto(snapshot.getEpoch(), snapshot.getSequence() + 1, 3_000, List.of());
+        Assertions.assertTrue(replicator.apply(batch));
+
+        Assertions.assertEquals(1, replicator.lagEvents());
+        Assertions.assertEquals(2.0, replicator.lagSeconds());
+    }
+
+    /**
+     * Prueba: la principal se reinicia mientras la réplica la sigue por HTTP.
+     *
+     * Escenario:
+     * - La réplica sigue el feed hasta la secuencia 4.
+     * - La principal se reemplaza por una nueva ejecución con un solo evento, así
+     *   que la secuencia de la réplica queda por delante de la última publicada.
+     *
+     * Verifica:
+     * - Que la réplica vuelva a cargar la foto en lugar de reintentar para siempre.
+     * - Que termine con el catálogo de la nueva ejecución.
+     */
+
+    @Test
+    void testReplicaReloadsAfterPrimaryRestart() throws Exception {
+        AtomicReference<ChangeFeed> served = new AtomicReference<>(feed);
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/product/changes/snapshot",
+                exchange -> send(exchange, 200, objectMapper.writeValueAsString(served.get().snapshot())));
+        server.createContext("/product/changes", exchange -> {
+            long since = Long.parseLong(exchange.getRequestURI().getQuery().replaceAll(".*since=(\\d+).*", "$1"));
+            try {
+                send(exchange, 200, objectMapper.writeValueAsString(served.get().read(since, 100, 50)));
+            } catch (ChangeFeedGapException e) {
+                send(exchange, 410, e.getMessage());
+            } catch (InterruptedException e) {
+                send(exchange, 503, e.getMessage());
+            }
+        });
+        server.start();
+        FeedReplicator following = new FeedReplicator(replica, objectMapper, metrics,
+                "http://localhost:" + server.getAddress().getPort(), 50, 50, 100);
+        IProductRepository restarted = new IProductRepository("memory", directory.resolve("restarted.json").toString(), 1000, 100, 8, false, 1, metrics);
+        try {
+            following.start();
+            primary.insert(product(primary.nextId(), "Red"));
+            primary.insert(product(primary.nextId(), "Guantes"));
+            awaitUntil(() -> replica.count() == 4);
+
+            restarted.init();
+            ChangeFeed restartedFeed = new ChangeFeed(restarted, 100);
+            restarted.insert(product(restarted.nextId(), "Pelota"));
+            served.set(restartedFeed);
+
+            awaitUntil(() -> replica.getAll().equals(restarted.getAll()));
+            Assertions.assertEquals(1, replica.count());
+        } finally {
+            following.stop();
+            server.stop(0);
+            restarted.close();
+        }
+    }
+
+    /**
+     * Prueba: escrituras sobre la réplica.
+     *
+     * Verifica:
+     * - Que crear, modificar o reservar IDs lance {@link ReadOnlyReplicaException}.
+     */
+
+    @Test
+    void testReplicaRejectsWrites() {
+        replicator.load(feed.snapshot());
+
+        Assertions.assertThrows(ReadOnlyReplicaException.class, replica::nextId);
+        Assertions.assertThrows(ReadOnlyReplicaException.class, () -> replica.insert(product(9L, "Red")));
+        Assertions.assertThrows(ReadOnlyReplicaException.class, () -> replica.update(product(1L, "Balon nuevo")));
+        Assertions.assertThrows(ReadOnlyReplicaException.class, () -> replica.delete(1L));
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "la réplica no alcanzó el estado esperado");
+            Thread.sleep(10);
+        }
+    }
+
+    private static Product product(long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(100.0);
+        return product;
+    }
+}
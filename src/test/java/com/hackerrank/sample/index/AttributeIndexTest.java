@@ -0,0 +1,100 @@
+package com.hackerrank.sample.index;
+
+import com.hackerrank.sample.dto.FilterDto;
+import com.hackerrank.sample.filter.AttributeClause;
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.model.Product;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class AttributeIndexTest {
+
+    /**
+     * Prueba: resolver condiciones por atributo.
+     *
+     * Verifica:
+     * - Que la igualdad de texto no distinga mayúsculas.
+     * - Que los intervalos usen el valor numérico sin importar la unidad.
+     * - Que quitar un producto lo saque de los candidatos.
+     */
+
+    @Test
+    void testCandidates() {
+        AttributeIndex index = new AttributeIndex();
+        index.load(List.of(
+                product(1, "color: Black; weight: 1200g"),
+                product(2, "color: white; weight: 800 g"),
+                product(3, "Prueba")));
+        index.add(4, "color: black; weight: 950g");
+
+        Assertions.assertArrayEquals(new long[]{1, 4}, index.candidates(clause("spec.color", null, "BLACK", null)));
+        Assertions.assertArrayEquals(new long[]{2, 4}, index.candidates(clause("spec.weight", "lt", "1000", null)));
+        Assertions.assertArrayEquals(new long[0], index.candidates(clause("spec.size", null, "xl", null)));
+
+        index.remove(4, "color: black; weight: 950g");
+        Assertions.assertArrayEquals(new long[]{1}, index.candidates(clause("spec.color", null, "black", null)));
+        Assertions.assertArrayEquals(new long[]{2}, index.candidates(clause("spec.weight", "between", "500", "1000")));
+    }
+
+    /**
+     * Prueba: el índice coincide con evaluar la condición sobre cada producto.
+     *
+     * Escenario:
+     * - Especificaciones aleatorias con altas y bajas.
+     *
+     * Verifica:
+     * - Que los candidatos sean exactamente los productos que cumplen la condición.
+     */
+
+    @Test
+    void testCandidatesMatchEvaluation() {
+        Random random = new Random(7);
+        String[] colors = {"black", "White", "red"};
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            products.add(product(id, "color: " + colors[random.nextInt(colors.length)]
+                    + "; weight: " + random.nextInt(20) + "g"));
+        }
+        AttributeIndex index = new AttributeIndex();
+        index.load(products.subList(0, 200));
+        for (Product product : products.subList(200, 300)) {
+            index.add(product.getId(), product.getSpecifications());
+        }
+        List<Product> live = new ArrayList<>();
+        for (Product product : products) {
+            if (product.getId() % 3 == 0) {
+                index.remove(product.getId(), product.getSpecifications());
+            } else {
+                live.add(product);
+            }
+        }
+
+        for (AttributeClause clause : List.of(
+                clause("spec.color", null, "white", null),
+                clause("spec.weight", "gte", "10", null),
+                clause("spec.weight", null, "5", null))) {
+            long[] expected = live.stream().filter(clause::test).mapToLong(Product::getId).toArray();
+            Assertions.assertArrayEquals(expected, index.candidates(clause));
+        }
+    }
+
+    private static AttributeClause clause(String key, String operator, String value, String valueTo) {
+        FilterDto filter = new FilterDto();
+        filter.setKey(key);
+        filter.setOperator(operator);
+        filter.setValue(value);
+        filter.setValueTo(valueTo);
+        return (AttributeClause) FilterPlan.compile(List.of(filter)).clauses().get(0);
+    }
+
+    private static Product product(long id, String specifications) {
+        Product product = new Product();
+        product.setId(id);
+        product.setSpecifications(specifications);
+        return product;
+    }
+}
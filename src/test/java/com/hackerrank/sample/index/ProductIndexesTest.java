@@ -0,0 +1,94 @@
+package com.hackerrank.sample.index;
+
+import com.hackerrank.sample.dto.FilterDto;
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.model.Product;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ProductIndexesTest {
+
+    /**
+     * Prueba: alta notificada mientras los índices se construyen.
+     *
+     * Escenario:
+     * - La construcción toma una foto del catálogo sin el producto 3 y se
+     *   detiene antes de terminar.
+     * - Mientras tanto se notifica el alta del producto 3.
+     *
+     * Verifica:
+     * - Que el alta espere a que termine la construcción en lugar de descartarse.
+     * - Que, una vez construidos, los índices incluyan el producto agregado.
+     */
+
+    @Test
+    void testMutationDuringBuildIsApplied() throws Exception {
+        ProductIndexes indexes = new ProductIndexes();
+        CountDownLatch snapshotTaken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread builder = new Thread(() -> indexes.ensureBuilt(() -> {
+            List<Product> snapshot = List.of(product(1L, 10.0), product(2L, 20.0));
+            snapshotTaken.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return snapshot;
+        }));
+        builder.start();
+        Assertions.assertTrue(snapshotTaken.await(5, TimeUnit.SECONDS));
+
+        Thread mutation = new Thread(() -> indexes.added(product(3L, 30.0)));
+        mutation.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (mutation.getState() != Thread.State.WAITING && mutation.getState() != Thread.State.TERMINATED
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        builder.join(5000);
+        mutation.join(5000);
+
+        Assertions.assertTrue(indexes.isBuilt());
+        Assertions.assertArrayEquals(new long[]{1, 2, 3}, indexes.candidates(priceAtLeast(0)));
+    }
+
+    /**
+     * Prueba: cambios notificados antes de construir los índices.
+     *
+     * Verifica:
+     * - Que se ignoren, porque la construcción parte del catálogo vigente.
+     */
+
+    @Test
+    void testMutationBeforeBuildIsIgnored() {
+        ProductIndexes indexes = new ProductIndexes();
+        indexes.added(product(9L, 90.0));
+
+        indexes.ensureBuilt(() -> List.of(product(1L, 10.0)));
+
+        Assertions.assertArrayEquals(new long[]{1}, indexes.candidates(priceAtLeast(0)));
+    }
+
+    private static FilterPlan priceAtLeast(double value) {
+        FilterDto filter = new FilterDto();
+        filter.setKey("price");
+        filter.setOperator("gte");
+        filter.setValue(String.valueOf(value));
+        return FilterPlan.compile(List.of(filter));
+    }
+
+    private static Product product(Long id, double price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Producto " + id);
+        product.setPrice(price);
+        return product;
+    }
+}
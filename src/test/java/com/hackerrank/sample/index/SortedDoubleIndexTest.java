@@ -0,0 +1,73 @@
+package com.hackerrank.sample.index;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class SortedDoubleIndexTest {
+
+    /**
+     * Prueba: rangos inclusivos y exclusivos sobre valores repetidos.
+     *
+     * Verifica:
+     * - Que los límites respeten la inclusividad pedida.
+     * - Que los valores vacíos (NaN) no se indexen.
+     */
+
+    @Test
+    void testRangeBounds() {
+        SortedDoubleIndex index = new SortedDoubleIndex();
+        index.load(new long[]{1, 2, 3, 4, 5}, new double[]{10, 20, 20, Double.NaN, 30});
+
+        Assertions.assertEquals(4, index.size());
+        Assertions.assertArrayEquals(new long[]{2, 3}, index.range(20, true, 20, true));
+        Assertions.assertArrayEquals(new long[]{5}, index.range(20, false, Double.POSITIVE_INFINITY, true));
+        Assertions.assertArrayEquals(new long[]{1}, index.range(Double.NEGATIVE_INFINITY, true, 20, false));
+        Assertions.assertEquals(0, index.count(21, true, 29, true));
+    }
+
+    /**
+     * Prueba: altas y bajas aleatorias comparadas contra un recorrido completo.
+     *
+     * Verifica:
+     * - Que cada rango consultado devuelva los mismos IDs que filtrar un mapa.
+     * - Que agregar dos veces o quitar un par ausente no tenga efecto.
+     */
+
+    @Test
+    void testMatchesScan() {
+        SortedDoubleIndex index = new SortedDoubleIndex();
+        Map<Long, Double> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(500);
+            Double current = expected.get(id);
+            if (current != null && random.nextBoolean()) {
+                Assertions.assertTrue(index.remove(id, current));
+                Assertions.assertFalse(index.remove(id, current));
+                expected.remove(id);
+            } else if (current == null) {
+                double value = random.nextInt(50);
+                Assertions.assertTrue(index.add(id, value));
+                Assertions.assertFalse(index.add(id, value));
+                expected.put(id, value);
+            }
+
+            double lower = random.nextInt(50);
+            double upper = lower + random.nextInt(10);
+            long[] actual = index.range(lower, true, upper, false);
+            Arrays.sort(actual);
+            long[] scan = expected.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= lower && entry.getValue() < upper)
+                    .mapToLong(Map.Entry::getKey)
+                    .sorted()
+                    .toArray();
+            Assertions.assertArrayEquals(scan, actual);
+        }
+    }
+}
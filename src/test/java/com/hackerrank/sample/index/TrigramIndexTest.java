@@ -0,0 +1,83 @@
+package com.hackerrank.sample.index;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TrigramIndexTest {
+
+    /**
+     * Prueba: buscar subcadenas sin distinguir mayúsculas.
+     *
+     * Verifica:
+     * - Que los candidatos incluyan los productos que contienen el texto.
+     * - Que un texto más corto que un trigrama no use el índice.
+     * - Que quitar un producto lo saque de los candidatos.
+     */
+
+    @Test
+    void testCandidates() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "Balón Blanco");
+        index.add(2, "Camiseta blanca");
+        index.add(3, "Balón Rojo");
+
+        Assertions.assertArrayEquals(new long[]{1, 2}, index.candidates("BLANC"));
+        Assertions.assertArrayEquals(new long[]{1, 3}, index.candidates("balón"));
+        Assertions.assertArrayEquals(new long[0], index.candidates("verde"));
+        Assertions.assertNull(index.candidates("ba"));
+
+        index.remove(1, "Balón Blanco");
+        Assertions.assertArrayEquals(new long[]{2}, index.candidates("blanc"));
+    }
+
+    /**
+     * Prueba: los candidatos siempre contienen las coincidencias reales.
+     *
+     * Escenario:
+     * - Textos aleatorios sobre un alfabeto pequeño, con altas y bajas.
+     *
+     * Verifica:
+     * - Que todo producto que contiene la subcadena esté entre los candidatos.
+     */
+
+    @Test
+    void testCandidatesContainMatches() {
+        TrigramIndex index = new TrigramIndex();
+        Map<Long, String> texts = new HashMap<>();
+        Random random = new Random(11);
+
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(300);
+            String previous = texts.remove(id);
+            if (previous != null) {
+                index.remove(id, previous);
+            } else {
+                String text = randomText(random, 5 + random.nextInt(20));
+                index.add(id, text);
+                texts.put(id, text);
+            }
+
+            String needle = randomText(random, 3 + random.nextInt(2));
+            long[] candidates = index.candidates(needle);
+            for (Map.Entry<Long, String> entry : texts.entrySet()) {
+                if (entry.getValue().toLowerCase().contains(needle.toLowerCase())) {
+                    Assertions.assertTrue(Arrays.binarySearch(candidates, entry.getKey()) >= 0);
+                }
+            }
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            char c = (char) ('a' + random.nextInt(4));
+            builder.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.hackerrank.sample.page;
+
+import com.hackerrank.sample.model.Product;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PageSelectorTest {
+
+    /**
+     * Prueba: recorrer todas las páginas con el cursor.
+     *
+     * Escenario:
+     * - Catálogo con precios y nombres repetidos o vacíos.
+     * - Se pagina de a 7 productos en cada orden admitido.
+     *
+     * Verifica:
+     * - Que concatenar las páginas dé el mismo resultado que ordenar todo el catálogo.
+     * - Que ningún producto se repita ni se pierda entre páginas.
+     */
+
+    @Test
+    void testPagesMatchFullSort() {
+        Random random = new Random(3);
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setPrice(random.nextInt(5) == 0 ? null : (double) random.nextInt(40));
+            product.setName(random.nextInt(6) == 0 ? null : "Producto " + random.nextInt(30));
+            products.add(product);
+        }
+
+        for (String sort : List.of("price", "-price", "name", "-name", "id", "-id")) {
+            SortOrder order = SortOrder.from(sort);
+            List<Product> pages = new ArrayList<>();
+            KeysetCursor cursor = null;
+            while (true) {
+                ProductSlice slice = PageSelector.select(products, order, cursor, 7);
+                pages.addAll(slice.items());
+                if (!slice.hasMore()) {
+                    break;
+                }
+                Product last = slice.items().get(slice.items().size() - 1);
+                cursor = KeysetCursor.decode(KeysetCursor.of(last, order).encode(), order);
+            }
+            Assertions.assertEquals(PageSelector.sortAll(products, order), pages, sort);
+        }
+    }
+}
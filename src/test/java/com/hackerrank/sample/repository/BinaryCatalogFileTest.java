@@ -0,0 +1,106 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BinaryCatalogFileTest {
+
+    @TempDir
+    Path directory;
+
+    private BinaryCatalogFile file;
+
+    /**
+     * Configuración previa a cada test:
+     * - Crea un catálogo binario sobre un archivo temporal.
+     */
+
+    @BeforeEach
+    void setUp() {
+        file = new BinaryCatalogFile(directory.resolve("products.bin"), BlockingIo.inline(),
+                new ProductMetrics(new SimpleMeterRegistry()));
+    }
+
+    /**
+     * Prueba: escritura y lectura completa.
+     *
+     * Escenario:
+     * - Productos desordenados, con campos nulos y textos repetidos.
+     *
+     * Verifica:
+     * - Que se lean los mismos productos, ordenados por ID y con los nulos conservados.
+     * - Que los textos repetidos se compartan entre productos.
+     */
+
+    @Test
+    void testRoundTripKeepsValuesAndNulls() {
+        file.write(List.of(product(3L, "Balon", 100.0, null), product(1L, "Raqueta", null, 4.5), product(2L, "Balon", 50.0, 3.0)));
+
+        List<Product> products = file.read();
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), products.stream().map(Product::getId).toList());
+        Assertions.assertNull(products.get(0).getPrice());
+        Assertions.assertEquals(4.5, products.get(0).getRating());
+        Assertions.assertNull(products.get(2).getRating());
+        Assertions.assertNull(products.get(0).getImage());
+        Assertions.assertEquals(3L, products.get(2).getVersion());
+        Assertions.assertSame(products.get(1).getName(), products.get(2).getName());
+    }
+
+    /**
+     * Prueba: búsqueda y conteo sin leer el catálogo completo.
+     *
+     * Verifica:
+     * - Que {@code find} encuentre un ID existente y devuelva {@code null} para uno inexistente.
+     * - Que {@code count} y {@code maxId} salgan de la foto mapeada.
+     * - Que un archivo inexistente se cree vacío.
+     */
+
+    @Test
+    void testFindCountAndMaxId() {
+        Assertions.assertEquals(0, file.count());
+
+        file.write(List.of(product(10L, "Balon", 1.0, 1.0), product(20L, "Red", 2.0, 2.0)));
+
+        Assertions.assertEquals("Red", file.find(20L).getName());
+        Assertions.assertNull(file.find(15L));
+        Assertions.assertEquals(2, file.count());
+        Assertions.assertEquals(20L, file.maxId());
+    }
+
+    /**
+     * Prueba: un archivo dañado no se carga.
+     *
+     * Verifica:
+     * - Que un byte alterado haga fallar la validación del CRC.
+     */
+
+    @Test
+    void testRejectsCorruptedFile() throws Exception {
+        file.write(List.of(product(1L, "Balon", 1.0, 1.0)));
+        byte[] bytes = Files.readAllBytes(file.path());
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file.path(), bytes);
+
+        Assertions.assertThrows(RuntimeException.class, () -> file.read());
+    }
+
+    private static Product product(Long id, String name, Double price, Double rating) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        product.setRating(rating);
+        product.setVersion(id);
+        return product;
+    }
+}
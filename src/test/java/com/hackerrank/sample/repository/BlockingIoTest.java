@@ -0,0 +1,64 @@
+package com.hackerrank.sample.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BlockingIoTest {
+
+    /**
+     * Prueba: hilo virtual interrumpido mientras espera una E/S descargada.
+     *
+     * Escenario:
+     * - Un hilo virtual descarga una tarea que ya está en ejecución en el grupo de E/S.
+     * - El hilo virtual se interrumpe antes de que la tarea termine.
+     *
+     * Verifica:
+     * - Que el hilo de E/S no se interrumpa, porque eso cerraría el {@code FileChannel}.
+     * - Que el hilo virtual reciba el resultado de la tarea y conserve la interrupción.
+     */
+
+    @Test
+    void testInterruptWaitsForRunningTask() throws Exception {
+        try (BlockingIo io = BlockingIo.offloaded(1)) {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicBoolean ioInterrupted = new AtomicBoolean();
+            AtomicReference<String> result = new AtomicReference<>();
+            AtomicBoolean callerInterrupted = new AtomicBoolean();
+
+            Thread caller = Thread.ofVirtual().start(() -> {
+                try {
+                    result.set(io.call(() -> {
+                        started.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            ioInterrupted.set(true);
+                        }
+                        return "escrito";
+                    }));
+                } catch (InterruptedIOException e) {
+                    result.set("interrumpido");
+                } catch (Exception e) {
+                    result.set(e.toString());
+                }
+                callerInterrupted.set(Thread.currentThread().isInterrupted());
+            });
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            caller.interrupt();
+            Thread.sleep(50);
+            release.countDown();
+            caller.join(5000);
+
+            Assertions.assertFalse(ioInterrupted.get());
+            Assertions.assertEquals("escrito", result.get());
+            Assertions.assertTrue(callerInterrupted.get());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.dto.FilterDto;
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.model.Product;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ColumnarProductStoreTest {
+
+    private ColumnarProductStore store;
+
+    /**
+     * Configuración previa a cada test:
+     * - Carga un almacén por columnas con tres productos desordenados.
+     */
+
+    @BeforeEach
+    void setUp() {
+        store = new ColumnarProductStore();
+        store.load(List.of(product(3L, "Balon", 300.0), product(1L, "Raqueta", null), product(2L, "Balon", 200.0)));
+    }
+
+    /**
+     * Prueba: lectura de productos guardados por columnas.
+     *
+     * Verifica:
+     * - Que se devuelvan en orden de ID con los mismos valores.
+     * - Que los campos nulos sigan siendo nulos.
+     * - Que los textos repetidos se guarden una sola vez.
+     */
+
+    @Test
+    void testReadsBackProductsInIdOrder() {
+        List<Product> products = store.getAll();
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), products.stream().map(Product::getId).toList());
+        Assertions.assertNull(products.get(0).getPrice());
+        Assertions.assertEquals(200.0, products.get(1).getPrice());
+        Assertions.assertEquals(2L, store.versionOf(2L));
+        Assertions.assertEquals(2, store.distinctTexts());
+    }
+
+    /**
+     * Prueba: altas, modificaciones y bajas.
+     *
+     * Verifica:
+     * - Que reemplazar devuelva la versión anterior y guarde la nueva.
+     * - Que un texto que deja de usarse salga del diccionario.
+     * - Que un producto eliminado ya no se encuentre y que un ID menor se inserte en orden.
+     */
+
+    @Test
+    void testMutationsKeepColumnsConsistent() {
+        Product previous = store.replace(product(1L, "Red", 50.0));
+
+        Assertions.assertEquals("Raqueta", previous.getName());
+        Assertions.assertEquals("Red", store.get(1L).getName());
+        Assertions.assertEquals(2, store.distinctTexts());
+
+        Assertions.assertEquals(1, store.removeAll(new long[]{2L, 9L}).size());
+        Assertions.assertNull(store.get(2L));
+
+        store.put(product(0L, "Arco", 10.0));
+
+        Assertions.assertEquals(List.of(0L, 1L, 3L), store.getAll().stream().map(Product::getId).toList());
+        Assertions.assertEquals(3, store.size());
+        Assertions.assertEquals(3L, store.maxId());
+    }
+
+    /**
+     * Prueba: recorrido con un filtro sobre las columnas.
+     *
+     * Verifica:
+     * - Que solo se devuelvan los productos que cumplen el plan.
+     * - Que el predicado reciba la misma vista para todas las filas.
+     */
+
+    @Test
+    void testFilterEvaluatesPlanOverRowView() {
+        FilterDto filter = new FilterDto();
+        filter.setKey("price");
+        filter.setOperator("gte");
+        filter.setValue("250");
+        FilterPlan plan = FilterPlan.compile(List.of(filter));
+        List<Product> seen = new ArrayList<>();
+
+        List<Product> matches = store.filter(product -> {
+            seen.add(product);
+            return plan.matches(product);
+        });
+
+        Assertions.assertEquals(List.of(3L), matches.stream().map(Product::getId).toList());
+        Assertions.assertEquals(3, seen.size());
+        Assertions.assertSame(seen.get(0), seen.get(2));
+        Assertions.assertNotSame(seen.get(0), matches.get(0));
+    }
+
+    private static Product product(Long id, String name, Double price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        product.setVersion(id);
+        return product;
+    }
+}
@@ -0,0 +1,180 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.dto.FilterDto;
+import com.hackerrank.sample.filter.FilterPlan;
+import com.hackerrank.sample.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class H2CatalogBackendTest {
+
+    private H2CatalogBackend backend;
+
+    /**
+     * Configuración previa a cada test:
+     * - Abre una base H2 en memoria nueva con lotes de dos filas, para que
+     *   las escrituras ocupen más de un lote.
+     */
+
+    @BeforeEach
+    void setUp() {
+        backend = new H2CatalogBackend(new H2Settings(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "", 2, 2000, 2));
+        backend.insertAll(List.of(
+                product(1L, "Balon Blanco", 100.0, 4.5),
+                product(2L, "Raqueta", 250.0, null),
+                product(3L, "Balon 100%", 80.0, 3.0),
+                product(4L, "Red", null, 4.0),
+                product(5L, "balon_rojo", 120.0, 5.0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    /**
+     * Prueba: lecturas por ID, varias a la vez y por página.
+     *
+     * Verifica:
+     * - Que un ID inexistente devuelva {@code null} y se omita en las búsquedas múltiples.
+     * - Que la búsqueda múltiple respete el orden de los IDs pedidos.
+     * - Que la página continúe después del cursor en el sentido pedido.
+     */
+
+    @Test
+    void testReadsByIdAndPage() {
+        Assertions.assertEquals("Raqueta", backend.find(2L).getName());
+        Assertions.assertNull(backend.find(9L));
+        Assertions.assertEquals(List.of(5L, 1L), ids(backend.findAll(new long[]{5, 9, 1})));
+        Assertions.assertEquals(List.of(3L, 2L), ids(backend.page(4L, true, 2)));
+        Assertions.assertEquals(5, backend.count());
+        Assertions.assertEquals(5L, backend.maxId());
+    }
+
+    /**
+     * Prueba: filtros traducidos a SQL.
+     *
+     * Verifica:
+     * - Que el resultado coincida con evaluar el plan en Java, con rangos abiertos y nulos.
+     * - Que los comodines de LIKE en el texto buscado se tomen literalmente.
+     */
+
+    @Test
+    void testFilterMatchesPlanEvaluation() {
+        List<FilterPlan> plans = List.of(
+                FilterPlan.compile(List.of(filter("name", "BALON", null, null))),
+                FilterPlan.compile(List.of(filter("price", "100", "gte", null), filter("rating", "4", "gt", null))),
+                FilterPlan.compile(List.of(filter("price", "80", "between", "120"), filter("name", "balon", null, null))),
+                FilterPlan.compile(List.of(filter("rating", "5", "lt", null))),
+                FilterPlan.compile(List.of(filter("name", "100%", null, null))),
+                FilterPlan.compile(List.of(filter("name", "_", null, null))));
+
+        for (FilterPlan plan : plans) {
+            List<Product> expected = new ArrayList<>();
+            backend.forEach(product -> {
+                if (plan.matches(product)) {
+                    expected.add(product);
+                }
+            });
+            Assertions.assertEquals(ids(expected), ids(backend.filter(plan)), plan.clauses().toString());
+        }
+        Assertions.assertEquals(List.of(3L), ids(backend.filter(plans.get(4))));
+        Assertions.assertEquals(List.of(5L), ids(backend.filter(plans.get(5))));
+    }
+
+    /**
+     * Prueba: modificaciones y bajas por lotes.
+     *
+     * Verifica:
+     * - Que una modificación devuelva cada producto anterior con su reemplazo.
+     * - Que si el cambio falla en un producto no se escriba ninguno.
+     * - Que la baja devuelva solo los productos existentes.
+     */
+
+    @Test
+    void testBatchedWritesAreTransactional() {
+        List<CatalogBackend.Change> changes = backend.updateAll(new long[]{1, 3, 9}, current -> {
+            Product next = product(current.getId(), current.getName(), current.getPrice(), current.getRating());
+            next.setVersion(current.getVersion() + 1);
+            return next;
+        });
+        Assertions.assertEquals(2, changes.size());
+        Assertions.assertEquals(1L, changes.get(0).previous().getVersion());
+        Assertions.assertEquals(2L, backend.versionOf(3L));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> backend.updateAll(new long[]{1, 2}, current -> {
+            if (current.getId() == 2L) {
+                throw new IllegalStateException("falla");
+            }
+            return product(current.getId(), "Cambiado", 1.0, 1.0);
+        }));
+        Assertions.assertEquals("Balon Blanco", backend.find(1L).getName());
+
+        Assertions.assertEquals(List.of(2L, 4L), ids(backend.deleteAll(new long[]{2, 4, 9})));
+        Assertions.assertEquals(3, backend.count());
+        Assertions.assertNull(backend.versionOf(2L));
+    }
+
+    /**
+     * Prueba: recorrido completo con un pool de una sola conexión.
+     *
+     * Escenario:
+     * - El catálogo ocupa más de un tramo de lectura y la acción consulta la
+     *   base por cada producto, como otra petición concurrente.
+     *
+     * Verifica:
+     * - Que el recorrido no retenga la conexión mientras se ejecuta la acción.
+     * - Que se entreguen todos los productos, en orden de ID y sin repetir.
+     */
+
+    @Test
+    void testForEachReleasesConnectionBetweenChunks() {
+        H2CatalogBackend single = new H2CatalogBackend(new H2Settings(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "", 1, 250, 100));
+        try {
+            int total = IProductRepository.STREAM_CHUNK_SIZE * 2 + 3;
+            List<Product> products = new ArrayList<>(total);
+            for (long id = 1; id <= total; id++) {
+                products.add(product(id, "Producto " + id, 1.0, 1.0));
+            }
+            single.insertAll(products);
+
+            List<Long> seen = new ArrayList<>(total);
+            single.forEach(product -> seen.add(single.find(product.getId()).getId()));
+
+            Assertions.assertEquals(ids(products), seen);
+        } finally {
+            single.close();
+        }
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static FilterDto filter(String key, String value, String operator, String valueTo) {
+        FilterDto filter = new FilterDto();
+        filter.setKey(key);
+        filter.setValue(value);
+        filter.setOperator(operator);
+        filter.setValueTo(valueTo);
+        return filter;
+    }
+
+    private static Product product(Long id, String name, Double price, Double rating) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        product.setRating(rating);
+        product.setVersion(1L);
+        return product;
+    }
+}
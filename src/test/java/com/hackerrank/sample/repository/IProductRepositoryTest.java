@@ -0,0 +1,156 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.exception.VersionConflictException;
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IProductRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private IProductRepository repository;
+
+    /**
+     * Configuración previa a cada test:
+     * - Crea un repositorio en memoria sobre un archivo temporal.
+     */
+
+    @BeforeEach
+    void setUp() {
+        repository = new IProductRepository("memory", directory.resolve("products.json").toString(), 1000, 100, 8, false, 1,
+                new ProductMetrics(new SimpleMeterRegistry()));
+        repository.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    /**
+     * Prueba: creaciones y actualizaciones concurrentes.
+     *
+     * Escenario:
+     * - Varios hilos crean productos y luego actualizan cada uno muchas veces
+     *   sin comprobar versión.
+     *
+     * Verifica:
+     * - Que no se repitan IDs ni se pierdan productos.
+     * - Que cada producto termine con una versión por cada actualización.
+     */
+
+    @Test
+    void testConcurrentMutationsKeepEveryWrite() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Long>> created = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            created.add(executor.submit(() -> {
+                Product product = product(repository.nextId(), "Producto");
+                return repository.insert(product).getId();
+            }));
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Future<Long> future : created) {
+            ids.add(future.get());
+        }
+
+        List<Future<?>> updates = new ArrayList<>();
+        for (Long id : ids) {
+            for (int i = 0; i < 5; i++) {
+                updates.add(executor.submit(() -> repository.update(product(id, "Actualizado"))));
+            }
+        }
+        for (Future<?> future : updates) {
+            future.get();
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(200, repository.count());
+        Assertions.assertEquals(200, ids.stream().distinct().count());
+        for (Long id : ids) {
+            Assertions.assertEquals(6L, repository.findById(id).getVersion());
+        }
+    }
+
+    /**
+     * Prueba: dos actualizaciones que esperan la misma versión.
+     *
+     * Verifica:
+     * - Que solo una tenga éxito y la otra reciba {@link VersionConflictException}.
+     */
+
+    @Test
+    void testOptimisticUpdateRejectsStaleVersion() throws Exception {
+        repository.insert(product(repository.nextId(), "Balon"));
+        long id = repository.getAll().get(0).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> attempts = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            attempts.add(executor.submit(() -> {
+                try {
+                    repository.update(product(id, "Balon nuevo"), 1L);
+                } catch (VersionConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> attempt : attempts) {
+            attempt.get();
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(1, conflicts.get());
+        Assertions.assertEquals(2L, repository.findById(id).getVersion());
+    }
+
+    /**
+     * Prueba: versiones del catálogo y de cada producto.
+     *
+     * Verifica:
+     * - Que cada mutación aumente la versión del catálogo.
+     * - Que la versión de un producto se obtenga sin leerlo y que sea nula si no existe.
+     */
+
+    @Test
+    void testCatalogVersionAdvancesOnEveryMutation() {
+        long initial = repository.catalogVersion();
+        long id = repository.insert(product(repository.nextId(), "Balon")).getId();
+        repository.update(product(id, "Balon nuevo"));
+
+        Assertions.assertEquals(initial + 2, repository.catalogVersion());
+        Assertions.assertEquals(2L, repository.versionOf(id));
+        Assertions.assertTrue(repository.lastModified() >= repository.startedAt());
+
+        repository.delete(id);
+
+        Assertions.assertEquals(initial + 3, repository.catalogVersion());
+        Assertions.assertNull(repository.versionOf(id));
+    }
+
+    private static Product product(long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(100.0);
+        return product;
+    }
+}
@@ -0,0 +1,107 @@
+package com.hackerrank.sample.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+public class IdSequenceTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Prueba: reserva de bloques en disco.
+     *
+     * Verifica:
+     * - Que el primer ID reserve un bloque completo con una sola escritura.
+     * - Que los IDs siguientes del bloque no escriban en disco.
+     * - Que, tras un reinicio, la secuencia continúe después del bloque reservado.
+     */
+
+    @Test
+    void testBlockReservationSurvivesRestart() throws IOException {
+        IdSequence sequence = open();
+
+        Assertions.assertEquals(1, sequence.next());
+        Assertions.assertEquals(BLOCK_SIZE, persisted());
+        for (long expected = 2; expected <= BLOCK_SIZE; expected++) {
+            Assertions.assertEquals(expected, sequence.next());
+        }
+        Assertions.assertEquals(BLOCK_SIZE, persisted());
+
+        Assertions.assertEquals(BLOCK_SIZE + 1, sequence.next());
+        Assertions.assertEquals(2 * BLOCK_SIZE, persisted());
+        Assertions.assertEquals(2 * BLOCK_SIZE + 1, open().next());
+    }
+
+    /**
+     * Prueba: caída a mitad de un bloque.
+     *
+     * Escenario:
+     * - Se entregan algunos IDs sueltos y un lote, y la secuencia se abandona
+     *   sin agotar el bloque, como tras una caída.
+     *
+     * Verifica:
+     * - Que la secuencia reabierta no repita ningún ID ya entregado y salte al bloque siguiente.
+     */
+
+    @Test
+    void testNoRepeatAfterCrashMidBlock() {
+        Set<Long> issued = new HashSet<>();
+        IdSequence sequence = open();
+        for (int i = 0; i < 3; i++) {
+            issued.add(sequence.next());
+        }
+        long first = sequence.nextBlock(4);
+        for (long id = first; id < first + 4; id++) {
+            issued.add(id);
+        }
+
+        IdSequence restarted = open();
+        long resumed = restarted.next();
+        Assertions.assertEquals(BLOCK_SIZE + 1, resumed);
+        issued.add(resumed);
+        for (int i = 0; i < 3 * BLOCK_SIZE; i++) {
+            long id = restarted.next();
+            Assertions.assertTrue(issued.add(id), "ID repetido: " + id);
+        }
+    }
+
+    /**
+     * Prueba: IDs importados mayores que la secuencia.
+     *
+     * Verifica:
+     * - Que {@code observe} adelante la secuencia más allá del ID observado.
+     * - Que un ID menor al actual no la haga retroceder.
+     * - Que el avance quede en disco y se conserve tras un reinicio.
+     */
+
+    @Test
+    void testObserveMovesSequenceForward() {
+        IdSequence sequence = open();
+        sequence.next();
+
+        sequence.observe(500);
+        sequence.observe(3);
+
+        Assertions.assertEquals(501, sequence.next());
+        Assertions.assertTrue(open().next() > 501);
+    }
+
+    private IdSequence open() {
+        return new IdSequence(directory.resolve("products.json.seq"), BLOCK_SIZE, BlockingIo.inline());
+    }
+
+    private long persisted() throws IOException {
+        return Long.parseLong(Files.readString(directory.resolve("products.json.seq"), StandardCharsets.UTF_8).trim());
+    }
+}
@@ -0,0 +1,123 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+public class ParallelScanTest {
+
+    private static final int PRODUCTS = 20_000;
+
+    private ParallelScan scan;
+    private List<ProductStore> stores;
+
+    /**
+     * Configuración previa a cada test:
+     * - Crea un recorrido paralelo de cuatro hilos que se usa con cualquier tamaño de catálogo.
+     * - Carga el mismo catálogo en un almacén de objetos y en uno por columnas,
+     *   con un hueco cada siete IDs para que haya filas borradas.
+     */
+
+    @BeforeEach
+    void setUp() {
+        scan = ParallelScan.of(4, 1);
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= PRODUCTS; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Producto " + id);
+            product.setPrice((double) (id % 100));
+            product.setVersion(1L);
+            products.add(product);
+        }
+        stores = List.of(new ObjectProductStore(), new ColumnarProductStore());
+        for (ProductStore store : stores) {
+            store.load(products);
+            store.removeAll(products.stream().mapToLong(Product::getId).filter(id -> id % 7 == 0).toArray());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        scan.close();
+    }
+
+    /**
+     * Prueba: recorrido paralelo sin límite.
+     *
+     * Verifica:
+     * - Que devuelva los mismos productos que el recorrido secuencial, en orden de ID.
+     * - Que el predicado se evalúe en los hilos del pool propio.
+     */
+
+    @Test
+    void testParallelFilterMatchesSerialOrder() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        Predicate<Product> cheap = product -> {
+            threads.add(Thread.currentThread().getName());
+            return product.getPrice() < 10;
+        };
+
+        for (ProductStore store : stores) {
+            List<Long> serial = ids(store.filter(cheap));
+            List<Long> parallel = ids(store.filter(cheap, Integer.MAX_VALUE, scan));
+
+            Assertions.assertEquals(serial, parallel);
+            Assertions.assertEquals(parallel.stream().sorted().toList(), parallel);
+        }
+        Assertions.assertTrue(threads.stream().anyMatch(name -> name.startsWith("product-scan-")));
+    }
+
+    /**
+     * Prueba: recorrido paralelo con límite.
+     *
+     * Verifica:
+     * - Que devuelva los primeros productos en orden de ID, aunque los tramos
+     *   posteriores terminen antes.
+     * - Que deje de evaluar filas en lugar de recorrer todo el catálogo.
+     */
+
+    @Test
+    void testParallelFilterStopsAtLimit() {
+        for (ProductStore store : stores) {
+            AtomicInteger evaluated = new AtomicInteger();
+            List<Product> first = store.filter(product -> {
+                evaluated.incrementAndGet();
+                return product.getPrice() % 2 == 1;
+            }, 5, scan);
+
+            Assertions.assertEquals(List.of(1L, 3L, 5L, 9L, 11L), ids(first));
+            Assertions.assertTrue(evaluated.get() < PRODUCTS / 2, "filas evaluadas: " + evaluated.get());
+        }
+    }
+
+    /**
+     * Prueba: elección entre recorrido secuencial y paralelo.
+     *
+     * Verifica:
+     * - Que por debajo del umbral, o con un solo hilo, el recorrido sea secuencial.
+     */
+
+    @Test
+    void testSerialBelowThreshold() {
+        try (ParallelScan large = ParallelScan.of(4, PRODUCTS * 2)) {
+            Assertions.assertFalse(large.isParallel(PRODUCTS));
+            Assertions.assertTrue(large.isParallel(PRODUCTS * 2));
+        }
+        Assertions.assertSame(ParallelScan.SERIAL, ParallelScan.of(1, 1));
+        Assertions.assertFalse(ParallelScan.SERIAL.isParallel(Integer.MAX_VALUE - 1));
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
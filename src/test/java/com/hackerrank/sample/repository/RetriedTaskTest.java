@@ -0,0 +1,43 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.metrics.ProductMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RetriedTaskTest {
+
+    /**
+     * Prueba: tarea en segundo plano que falla y luego se recupera.
+     *
+     * Escenario:
+     * - La tarea falla en los dos primeros ciclos (por ejemplo, disco lleno) y funciona en el tercero.
+     *
+     * Verifica:
+     * - Que las fallas no se propaguen al planificador, que dejaría de ejecutarla.
+     * - Que cada falla se cuente en {@code product.repository.persistence.failures} con su tarea.
+     */
+
+    @Test
+    void testFailuresAreCountedAndRetried() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicInteger runs = new AtomicInteger();
+        RetriedTask task = new RetriedTask("fsync", () -> {
+            if (runs.incrementAndGet() <= 2) {
+                throw new UncheckedIOException(new IOException("No queda espacio en el dispositivo"));
+            }
+        }, new ProductMetrics(registry));
+
+        task.run();
+        task.run();
+        task.run();
+
+        Assertions.assertEquals(3, runs.get());
+        Assertions.assertEquals(2.0, registry.get("product.repository.persistence.failures")
+                .tag("task", "fsync").counter().count());
+    }
+}
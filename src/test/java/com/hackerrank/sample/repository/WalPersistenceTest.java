@@ -0,0 +1,218 @@
+package com.hackerrank.sample.repository;
+
+import com.hackerrank.sample.metrics.ProductMetrics;
+import com.hackerrank.sample.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class WalPersistenceTest {
+
+    @TempDir
+    Path directory;
+
+    private ProductMetrics metrics;
+    private Map<Long, Product> catalog;
+
+    /**
+     * Configuración previa a cada test:
+     * - Usa un catálogo en memoria que hace de almacén y de foto para la compactación.
+     * - Cada instancia del log sincroniza en cada escritura y no compacta en segundo plano.
+     */
+
+    @BeforeEach
+    void setUp() {
+        metrics = new ProductMetrics(new SimpleMeterRegistry());
+        catalog = new TreeMap<>();
+    }
+
+    /**
+     * Prueba: reinicio después de altas, modificaciones y bajas.
+     *
+     * Escenario:
+     * - Se escriben registros sueltos y por lotes, y la instancia se abandona sin cerrarla.
+     *
+     * Verifica:
+     * - Que al volver a cargar se obtenga el catálogo resultante de aplicar todo el log en orden.
+     */
+
+    @Test
+    void testReplayAfterRestart() {
+        WalPersistence wal = open();
+        upsert(wal, product(1L, "Balon"));
+        upsert(wal, product(2L, "Raqueta"));
+        upsert(wal, product(2L, "Raqueta nueva"));
+        wal.deleted(1L);
+        wal.upsertedAll(List.of(product(3L, "Red"), product(4L, "Guantes")));
+        wal.deletedAll(new long[]{4L});
+
+        Assertions.assertEquals(Map.of(2L, "Raqueta nueva", 3L, "Red"), reloaded());
+    }
+
+    /**
+     * Prueba: registro incompleto al final del segmento por una caída a mitad de escritura.
+     *
+     * Verifica:
+     * - Que el registro incompleto se descarte y se conserven los anteriores.
+     * - Que las escrituras posteriores al reinicio vayan a un segmento nuevo y
+     *   se reapliquen en el siguiente reinicio.
+     */
+
+    @Test
+    void testTornTailIsDiscarded() throws IOException {
+        WalPersistence wal = open();
+        upsert(wal, product(1L, "Balon"));
+        upsert(wal, product(2L, "Raqueta"));
+        appendBytes(segment(1), ByteBuffer.allocate(13).putInt(100).putInt(0).flip());
+
+        WalPersistence restarted = open();
+        Assertions.assertEquals(Map.of(1L, "Balon", 2L, "Raqueta"), names(catalog.values()));
+        upsert(restarted, product(3L, "Red"));
+
+        Assertions.assertEquals(Map.of(1L, "Balon", 2L, "Raqueta", 3L, "Red"), reloaded());
+    }
+
+    /**
+     * Prueba: reemplazo completo del catálogo.
+     *
+     * Verifica:
+     * - Que el registro {@code CLEAR} descarte los productos anteriores y deje solo los nuevos.
+     * - Que un reemplazo cortado a mitad de escritura se descarte completo, sin
+     *   dejar el catálogo vacío ni a medio cargar.
+     */
+
+    @Test
+    void testReplacementIsAppliedWhole() throws IOException {
+        WalPersistence wal = open();
+        upsert(wal, product(1L, "Balon"));
+        wal.replacedAll(List.of(product(2L, "Raqueta"), product(3L, "Red")));
+
+        Assertions.assertEquals(Map.of(2L, "Raqueta", 3L, "Red"), reloaded());
+
+        wal.replacedAll(List.of(product(4L, "Guantes"), product(5L, "Pelota")));
+        try (FileChannel channel = FileChannel.open(segment(1), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        Assertions.assertEquals(Map.of(2L, "Raqueta", 3L, "Red"), reloaded());
+    }
+
+    /**
+     * Prueba: compactación del log.
+     *
+     * Verifica:
+     * - Que se escriba la foto y se borren los segmentos que cubre.
+     * - Que quede abierto un solo segmento nuevo para las escrituras siguientes.
+     */
+
+    @Test
+    void testCompactionRemovesSealedSegments() throws IOException {
+        WalPersistence wal = open();
+        upsert(wal, product(1L, "Balon"));
+        Assertions.assertEquals(List.of(segment(1)), segments());
+
+        wal.compact();
+
+        Assertions.assertTrue(Files.exists(walDirectory().resolve(WalPersistence.SNAPSHOT_FILE)));
+        Assertions.assertEquals(List.of(segment(2)), segments());
+    }
+
+    /**
+     * Prueba: reinicio con una foto y segmentos posteriores.
+     *
+     * Escenario:
+     * - Se compacta el log y después se modifica, agrega y elimina productos.
+     *
+     * Verifica:
+     * - Que la carga parta de la foto y reaplique los cambios posteriores.
+     */
+
+    @Test
+    void testSnapshotPlusLaterSegments() {
+        WalPersistence wal = open();
+        upsert(wal, product(1L, "Balon"));
+        upsert(wal, product(2L, "Raqueta"));
+        wal.compact();
+
+        upsert(wal, product(1L, "Balon nuevo"));
+        upsert(wal, product(3L, "Red"));
+        wal.deleted(2L);
+
+        Assertions.assertEquals(Map.of(1L, "Balon nuevo", 3L, "Red"), reloaded());
+    }
+
+    private WalPersistence open() {
+        WalPersistence wal = new WalPersistence(IProductRepository.mapper,
+                CatalogFile.of(IProductRepository.mapper, directory.resolve("products.json"), BlockingIo.inline(), metrics),
+                new WalSettings(walDirectory(), 0, 1, 0, 0, false),
+                () -> new ArrayList<>(catalog.values()), BlockingIo.inline(), metrics);
+        List<Product> loaded = wal.load();
+        catalog.clear();
+        loaded.forEach(product -> catalog.put(product.getId(), product));
+        return wal;
+    }
+
+    /**
+     * Abre una instancia nueva sobre la misma carpeta, como tras un reinicio, y devuelve lo que cargó.
+     */
+    private Map<Long, String> reloaded() {
+        open();
+        return names(catalog.values());
+    }
+
+    private void upsert(WalPersistence wal, Product product) {
+        wal.upserted(product);
+        catalog.put(product.getId(), product);
+    }
+
+    private Path walDirectory() {
+        return directory.resolve("wal");
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(walDirectory())) {
+            return files.filter(path -> path.getFileName().toString().startsWith(WalPersistence.SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segment(long generation) {
+        return walDirectory().resolve(WalPersistence.SEGMENT_PREFIX + generation);
+    }
+
+    private static void appendBytes(Path segment, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(bytes);
+        }
+    }
+
+    private static Map<Long, String> names(Collection<Product> products) {
+        return products.stream().collect(Collectors.toMap(Product::getId, Product::getName));
+    }
+
+    private static Product product(long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(100.0);
+        product.setVersion(1L);
+        return product;
+    }
+}
@@ -0,0 +1,116 @@
+package com.hackerrank.sample.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackerrank.sample.dto.ImportResultDto;
+import com.hackerrank.sample.dto.ProductDto;
+import com.hackerrank.sample.model.Product;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class ProductImportServiceTest {
+
+    @Mock
+    private ProductService productService;
+    private ProductImportService productImportService;
+
+    /**
+     * Configuración previa a cada test:
+     * - Inicializa los mocks.
+     * - Crea el servicio de carga con lotes de 2 productos.
+     * - Simula que el servicio de productos crea todo lo que recibe.
+     */
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        productImportService = new ProductImportService(productService, new ObjectMapper(), 2);
+        when(productService.createAll(anyList())).thenAnswer(invocation -> {
+            List<ProductDto> dtos = invocation.getArgument(0);
+            List<Product> created = new ArrayList<>();
+            dtos.forEach(dto -> created.add(new Product()));
+            return created;
+        });
+    }
+
+    /**
+     * Prueba: carga NDJSON con un registro inválido.
+     *
+     * Escenario:
+     * - Cuatro registros, el segundo sin nombre.
+     *
+     * Verifica:
+     * - Que el registro inválido se informe con su posición sin abortar la carga.
+     * - Que los válidos se creen en lotes del tamaño configurado.
+     */
+
+    @Test
+    void testImportNdjsonWithInvalidRecord() {
+        String body = """
+                {"name":"Balon","price":100.0}
+                {"price":50.0}
+                {"name":"Camiseta","rating":4.0}
+                {"name":"Guantes"}
+                """;
+
+        ImportResultDto result = productImportService.importProducts(input(body));
+
+        Assertions.assertEquals(4, result.getReceived());
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        Assertions.assertEquals(1, result.getErrors().get(0).getRecord());
+        Assertions.assertNull(result.getAborted());
+        verify(productService, times(2)).createAll(anyList());
+    }
+
+    /**
+     * Prueba: carga de un arreglo JSON con un valor de tipo incorrecto.
+     *
+     * Verifica:
+     * - Que el error de conversión se informe por registro.
+     * - Que el resto del arreglo se importe.
+     */
+
+    @Test
+    void testImportJsonArrayWithWrongType() {
+        String body = "[{\"name\":\"Balon\",\"price\":\"caro\"},{\"name\":\"Carro\",\"price\":10.0}]";
+
+        ImportResultDto result = productImportService.importProducts(input(body));
+
+        Assertions.assertEquals(2, result.getReceived());
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(0, result.getErrors().get(0).getRecord());
+    }
+
+    /**
+     * Prueba: entrada con un error de sintaxis a mitad de la carga.
+     *
+     * Verifica:
+     * - Que la lectura se detenga informando el motivo.
+     * - Que se conserven los registros leídos antes del error.
+     */
+
+    @Test
+    void testImportStopsOnSyntaxError() {
+        String body = "{\"name\":\"Balon\"}\n{\"name\": }\n{\"name\":\"Carro\"}";
+
+        ImportResultDto result = productImportService.importProducts(input(body));
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertNotNull(result.getAborted());
+    }
+
+    private static ByteArrayInputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
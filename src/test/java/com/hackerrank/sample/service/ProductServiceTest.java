@@ -1,20 +1,35 @@
 package com.hackerrank.sample.service;
 
+import com.hackerrank.sample.cache.FilterResultCache;
+import com.hackerrank.sample.dto.BatchResultDto;
+import com.hackerrank.sample.dto.ComparisonDto;
+import com.hackerrank.sample.dto.ComparisonRowDto;
+import com.hackerrank.sample.dto.FacetRequestDto;
+import com.hackerrank.sample.dto.FacetTermDto;
+import com.hackerrank.sample.dto.FacetsDto;
 import com.hackerrank.sample.dto.FilterDto;
+import com.hackerrank.sample.dto.PageDto;
 import com.hackerrank.sample.dto.ProductDto;
+import com.hackerrank.sample.dto.ProductPatchDto;
 import com.hackerrank.sample.exception.BadResourceRequestException;
 import com.hackerrank.sample.mapper.ProductMapper;
+import com.hackerrank.sample.metrics.ProductMetrics;
 import com.hackerrank.sample.model.Product;
+import com.hackerrank.sample.page.PageRequest;
 import com.hackerrank.sample.repository.IProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import static org.mockito.Mockito.*;
 
@@ -23,6 +38,7 @@ public class ProductServiceTest {
     @Mock
     private IProductRepository iProductRepository;
     private ProductMapper productMapper;
+    private SimpleMeterRegistry meterRegistry;
     private ProductService productService;
     private Product product;
 
@@ -37,7 +53,10 @@ public class ProductServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         productMapper = new ProductMapper();
-        productService = new ProductService(iProductRepository, productMapper);
+        meterRegistry = new SimpleMeterRegistry();
+        ProductMetrics productMetrics = new ProductMetrics(meterRegistry);
+        productService = new ProductService(iProductRepository, productMapper, productMetrics,
+                new FilterResultCache(100, 1 << 20, productMetrics));
 
         product = new Product();
         product.setId(1L);
@@ -121,6 +140,37 @@ public class ProductServiceTest {
         Assertions.assertEquals("Balon Blanco", result.get(0).getName());
     }
 
+    /**
+     * Prueba: métricas de un filtro que recorre el catálogo.
+     *
+     * Escenario:
+     * - El repositorio no está en memoria y devuelve dos productos.
+     * - Se filtra por nombre y solo uno coincide.
+     *
+     * Verifica:
+     * - Que se cuente una ejecución por el camino de recorrido completo.
+     * - Que se registren dos filas evaluadas y una coincidente.
+     */
+
+    @Test
+    void testFilterRecordsScanMetrics() {
+        Product other = new Product();
+        other.setId(2L);
+        other.setName("Raqueta");
+        when(iProductRepository.getAll()).thenReturn(List.of(product, other));
+
+        FilterDto filter = new FilterDto();
+        filter.setKey("name");
+        filter.setValue("Balon");
+
+        productService.filterProducts(List.of(filter));
+
+        Assertions.assertEquals(1.0, meterRegistry.get("product.filter.executions").tag("path", "scan").counter().count());
+        Assertions.assertEquals(0.0, meterRegistry.get("product.filter.executions").tag("path", "index").counter().count());
+        Assertions.assertEquals(2.0, meterRegistry.get("product.filter.rows.scanned").summary().totalAmount());
+        Assertions.assertEquals(1.0, meterRegistry.get("product.filter.rows.matched").summary().totalAmount());
+    }
+
     /**
      * Prueba: filtrar productos usando una columna inválida.
      *
@@ -144,18 +194,111 @@ public class ProductServiceTest {
         );
     }
 
+    /**
+     * Prueba: filtrar productos por un rango de precio usando el índice.
+     *
+     * Escenario:
+     * - El repositorio está en memoria y tiene dos productos con distinto precio.
+     * - Se filtra con el operador between sobre price.
+     *
+     * Verifica:
+     * - Que solo se busquen por ID los candidatos del índice.
+     * - Que se devuelva únicamente el producto dentro del rango.
+     */
+
+    @Test
+    void testFilterByPriceRangeUsesIndex() {
+        Product cheap = new Product();
+        cheap.setId(2L);
+        cheap.setName("Balon Rojo");
+        cheap.setPrice(500.0);
+        cheap.setRating(3.0);
+
+        when(iProductRepository.isInMemory()).thenReturn(true);
+        when(iProductRepository.getAll()).thenReturn(List.of(product, cheap));
+        when(iProductRepository.findAllById(new long[]{2L})).thenReturn(List.of(cheap));
+
+        FilterDto filter = new FilterDto();
+        filter.setKey("price");
+        filter.setOperator("between");
+        filter.setValue("100");
+        filter.setValueTo("1000");
+
+        List<Product> result = productService.filterProducts(List.of(filter));
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(2L, result.get(0).getId());
+        verify(iProductRepository, times(1)).findAllById(new long[]{2L});
+    }
+
+    /**
+     * Prueba: usar un operador de rango sobre un campo de texto.
+     *
+     * Verifica:
+     * - Que se lance una excepción {@link BadResourceRequestException}.
+     */
+
+    @Test
+    void testFilterRangeOnTextField() {
+        FilterDto filter = new FilterDto();
+        filter.setKey("name");
+        filter.setOperator("gt");
+        filter.setValue("Balon");
+
+        Assertions.assertThrows(BadResourceRequestException.class, () ->
+                productService.filterProducts(List.of(filter))
+        );
+    }
+
+    /**
+     * Prueba: búsqueda por palabras ordenada por relevancia.
+     *
+     * Escenario:
+     * - Dos productos contienen las palabras buscadas; uno las repite en la descripción.
+     * - Se filtra con el operador match y se pide ordenar por relevancia.
+     *
+     * Verifica:
+     * - Que solo se devuelvan los productos con todas las palabras.
+     * - Que primero aparezca el producto con más coincidencias.
+     */
+
+    @Test
+    void testFilterByKeywordsRankedByRelevance() {
+        Product other = new Product();
+        other.setId(2L);
+        other.setName("Balon Blanco");
+        other.setDescription("Balon blanco de futbol, balon oficial");
+        Product unrelated = new Product();
+        unrelated.setId(3L);
+        unrelated.setName("Camiseta");
+        unrelated.setDescription("Camiseta de futbol");
+
+        when(iProductRepository.getAll()).thenReturn(List.of(product, other, unrelated));
+
+        FilterDto filter = new FilterDto();
+        filter.setKey("description");
+        filter.setOperator("match");
+        filter.setValue("futbol balon");
+
+        List<Product> result = productService.filterProducts(List.of(filter), true);
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(2L, result.get(0).getId());
+        Assertions.assertEquals(1L, result.get(1).getId());
+    }
+
     /**
      * Prueba: creación de un nuevo producto.
      *
      * Escenario:
-     * - No existen productos previamente (lista vacía).
+     * - La secuencia del repositorio entrega el ID 1.
      * - Se crea un {@link ProductDto} con la información del nuevo producto.
      *
      * Verifica:
      * - Que el producto resultante no sea nulo.
      * - Que los datos coincidan con los del DTO.
-     * - Que se haya asignado un ID automáticamente.
-     * - Que el método save() del repositorio se haya invocado.
+     * - Que se haya asignado el ID de la secuencia.
+     * - Que el producto se inserte sin releer ni reescribir el catálogo.
      */
 
     @Test
@@ -168,13 +311,229 @@ public class ProductServiceTest {
         dto.setImage("imagen.png");
         dto.setSpecifications("Tamaño 5");
 
-        when(iProductRepository.getAll()).thenReturn(new ArrayList<>());
+        when(iProductRepository.nextId()).thenReturn(1L);
+        when(iProductRepository.insert(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
         Product result = productService.create(dto);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals("Balón Blanco", result.getName());
         Assertions.assertEquals(1L, result.getId());
-        verify(iProductRepository, times(1)).save(anyList());
+        verify(iProductRepository, times(1)).insert(any(Product.class));
+        verify(iProductRepository, never()).getAll();
+    }
+
+    /**
+     * Prueba: obtener varios productos por ID.
+     *
+     * Escenario:
+     * - Se piden los IDs 1, 1 y 9; solo existe el 1.
+     *
+     * Verifica:
+     * - Que el repositorio se consulte una sola vez sin IDs repetidos.
+     * - Que el ID inexistente se informe como faltante.
+     */
+
+    @Test
+    void testGetByIds() {
+        when(iProductRepository.findAllById(new long[]{1L, 9L})).thenReturn(List.of(product));
+
+        BatchResultDto result = productService.getByIds(List.of(1L, 1L, 9L));
+
+        Assertions.assertEquals(List.of(product), result.getItems());
+        Assertions.assertEquals(List.of(9L), result.getMissing());
+        verify(iProductRepository, times(1)).findAllById(new long[]{1L, 9L});
+    }
+
+    /**
+     * Prueba: facetas del resultado de un filtro.
+     *
+     * Escenario:
+     * - El catálogo está en archivo y se recorre con {@code forEach}.
+     * - Se filtra por nombre y se piden intervalos de precio y los colores.
+     *
+     * Verifica:
+     * - Que solo se cuenten los productos que cumplen el filtro.
+     * - Que no se lea el catálogo completo como lista.
+     */
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFacetsCountMatchesWithoutMaterializing() {
+        product.setSpecifications("color: white");
+        Product red = new Product();
+        red.setId(2L);
+        red.setName("Balon Rojo");
+        red.setPrice(500.0);
+        red.setSpecifications("color: red");
+        Product racket = new Product();
+        racket.setId(3L);
+        racket.setName("Raqueta");
+        racket.setPrice(800.0);
+        racket.setSpecifications("color: red");
+        doAnswer(invocation -> {
+            Consumer<Product> action = invocation.getArgument(0);
+            List.of(product, red, racket).forEach(action);
+            return null;
+        }).when(iProductRepository).forEach(ArgumentMatchers.<Consumer<? super Product>>any());
+
+        FilterDto filter = new FilterDto();
+        filter.setKey("name");
+        filter.setValue("balon");
+        FacetRequestDto request = new FacetRequestDto();
+        request.setFilters(List.of(filter));
+        request.setPriceBuckets(List.of(1000.0));
+        request.setTerms(List.of("spec.color"));
+
+        FacetsDto result = productService.facets(request);
+
+        Assertions.assertEquals(2, result.getTotal());
+        Assertions.assertEquals(1, result.getPrice().getBuckets().get(0).getCount());
+        Assertions.assertEquals(1, result.getPrice().getBuckets().get(1).getCount());
+        Assertions.assertEquals(List.of(new FacetTermDto("red", 1), new FacetTermDto("white", 1)),
+                result.getTerms().get("spec.color"));
+        verify(iProductRepository, never()).getAll();
+    }
+
+    /**
+     * Prueba: comparar productos lado a lado.
+     *
+     * Escenario:
+     * - Dos productos con especificaciones que comparten algunos atributos.
+     *
+     * Verifica:
+     * - Que haya una fila por atributo con un valor por producto, en el orden pedido.
+     * - Que los valores numéricos con la misma unidad se entreguen como números.
+     * - Que se marque qué filas difieren y se informen los IDs inexistentes.
+     */
+
+    @Test
+    void testCompare() {
+        product.setSpecifications("color: white; weight: 450g");
+        Product other = new Product();
+        other.setId(2L);
+        other.setName("Balon Rojo");
+        other.setPrice(10000.0);
+        other.setSpecifications("weight: 430 g; material: leather");
+        when(iProductRepository.findAllById(new long[]{2L, 1L, 9L})).thenReturn(List.of(other, product));
+
+        ComparisonDto result = productService.compare(List.of(2L, 1L, 9L));
+
+        Assertions.assertEquals(List.of(2L, 1L), result.getProductIds());
+        Assertions.assertEquals(List.of(9L), result.getMissing());
+        List<String> names = result.getAttributes().stream().map(ComparisonRowDto::getName).toList();
+        Assertions.assertEquals(List.of("price", "rating", "weight", "material", "color"), names);
+        ComparisonRowDto weight = result.getAttributes().get(2);
+        Assertions.assertEquals("g", weight.getUnit());
+        Assertions.assertEquals(Arrays.asList(430.0, 450.0), weight.getValues());
+        Assertions.assertTrue(weight.isDiffers());
+        Assertions.assertFalse(result.getAttributes().get(0).isDiffers());
+        Assertions.assertEquals(Arrays.asList(null, "white"), result.getAttributes().get(4).getValues());
+        Assertions.assertThrows(BadResourceRequestException.class, () -> productService.compare(List.of(1L, 1L)));
+    }
+
+    /**
+     * Prueba: filtrar por un atributo de las especificaciones.
+     *
+     * Escenario:
+     * - El repositorio está en memoria y dos productos tienen distinto peso.
+     * - Se filtra con {@code spec.weight} y el operador lt.
+     *
+     * Verifica:
+     * - Que solo se busquen por ID los candidatos del índice de atributos.
+     * - Que la unidad del valor enviado se ignore.
+     */
+
+    @Test
+    void testFilterBySpecAttributeUsesIndex() {
+        product.setSpecifications("weight: 450g");
+        Product light = new Product();
+        light.setId(2L);
+        light.setName("Balon Liviano");
+        light.setSpecifications("color: red; weight: 300g");
+
+        when(iProductRepository.isInMemory()).thenReturn(true);
+        when(iProductRepository.getAll()).thenReturn(List.of(product, light));
+        when(iProductRepository.findAllById(new long[]{2L})).thenReturn(List.of(light));
+
+        FilterDto filter = new FilterDto();
+        filter.setKey("spec.weight");
+        filter.setOperator("lt");
+        filter.setValue("400g");
+
+        List<Product> result = productService.filterProducts(List.of(filter));
+
+        Assertions.assertEquals(List.of(light), result);
+        verify(iProductRepository, times(1)).findAllById(new long[]{2L});
+    }
+
+    /**
+     * Prueba: página de un filtro sin índice en orden de ID.
+     *
+     * Escenario:
+     * - Se pide una página de dos productos filtrando por un texto demasiado
+     *   corto para el índice de trigramas.
+     *
+     * Verifica:
+     * - Que el repositorio recorra el catálogo pidiendo solo un producto más que la página.
+     * - Que ese producto extra se use para anunciar la página siguiente.
+     */
+
+    @Test
+    void testFilterPageByIdStopsAtLimit() {
+        Product second = new Product();
+        second.setId(2L);
+        second.setName("Balon Rojo");
+        Product third = new Product();
+        third.setId(3L);
+        third.setName("Balon Azul");
+
+        when(iProductRepository.isInMemory()).thenReturn(true);
+        when(iProductRepository.getAll()).thenReturn(List.of(product, second, third));
+        when(iProductRepository.findAll(ArgumentMatchers.<Predicate<? super Product>>any(), eq(3))).thenReturn(List.of(product, second, third));
+
+        FilterDto filter = new FilterDto();
+        filter.setKey("name");
+        filter.setValue("ba");
+
+        PageDto result = productService.filterPage(List.of(filter), PageRequest.of(2, null, null, null));
+
+        Assertions.assertEquals(List.of(product, second), result.getItems());
+        Assertions.assertNotNull(result.getNextCursor());
+        verify(iProductRepository, times(1)).findAll(ArgumentMatchers.<Predicate<? super Product>>any(), eq(3));
+        verify(iProductRepository, never()).findAll(ArgumentMatchers.<Predicate<? super Product>>any());
+    }
+
+    /**
+     * Prueba: actualización parcial en lote.
+     *
+     * Escenario:
+     * - Se envía un parche que solo cambia el precio del producto 1.
+     *
+     * Verifica:
+     * - Que se conserven los campos no enviados.
+     * - Que el repositorio reciba una sola actualización en lote, aplicada sobre la versión vigente.
+     * - Que el producto original no se modifique.
+     */
+
+    @Test
+    void testUpdateAllKeepsMissingFields() {
+        ProductPatchDto patch = new ProductPatchDto();
+        patch.setId(1L);
+        patch.setPrice(500.0);
+
+        when(iProductRepository.updateAll(eq(new long[]{1L}), any())).thenAnswer(invocation -> {
+            UnaryOperator<Product> change = invocation.getArgument(1);
+            return List.of(change.apply(product));
+        });
+
+        BatchResultDto result = productService.updateAll(List.of(patch));
+
+        Product updated = (Product) result.getItems().get(0);
+        Assertions.assertEquals(500.0, updated.getPrice());
+        Assertions.assertEquals("Balon Blanco", updated.getName());
+        Assertions.assertEquals(10000.0, product.getPrice());
+        Assertions.assertTrue(result.getMissing().isEmpty());
+        verify(iProductRepository, times(1)).updateAll(eq(new long[]{1L}), any());
     }
 
     /**
@@ -0,0 +1,51 @@
+package com.hackerrank.sample.spec;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class SpecificationsTest {
+
+    /**
+     * Prueba: interpretar especificaciones como atributos tipados.
+     *
+     * Verifica:
+     * - Que los nombres queden en minúsculas y los valores sin espacios en los extremos.
+     * - Que un número con unidad sea numérico y conserve la unidad.
+     * - Que los fragmentos sin separador se ignoren y un nombre repetido tome el último valor.
+     */
+
+    @Test
+    void testParseTypedAttributes() {
+        Specifications specifications = Specifications.parse(
+                " Color : Black; weight: 1200g\nscreen=15.6 in; libre; warranty: 12 months; color: red; version: 1.2.3");
+
+        List<String> names = specifications.attributes().stream().map(Attribute::name).toList();
+        Assertions.assertEquals(List.of("weight", "screen", "warranty", "color", "version"), names);
+        Assertions.assertEquals("red", specifications.get("color").value());
+        Assertions.assertFalse(specifications.get("color").isNumeric());
+        Assertions.assertEquals(1200.0, specifications.get("weight").number());
+        Assertions.assertEquals("g", specifications.get("weight").unit());
+        Assertions.assertEquals(15.6, specifications.get("screen").number());
+        Assertions.assertEquals("in", specifications.get("screen").unit());
+        Assertions.assertEquals("months", specifications.get("warranty").unit());
+        Assertions.assertFalse(specifications.get("version").isNumeric());
+        Assertions.assertNull(specifications.get("libre"));
+    }
+
+    /**
+     * Prueba: textos sin atributos.
+     *
+     * Verifica:
+     * - Que un texto nulo, vacío o libre no tenga atributos.
+     */
+
+    @Test
+    void testFreeTextHasNoAttributes() {
+        Assertions.assertTrue(Specifications.parse(null).isEmpty());
+        Assertions.assertTrue(Specifications.parse("  ").isEmpty());
+        Assertions.assertTrue(Specifications.parse("Prueba").isEmpty());
+        Assertions.assertTrue(Specifications.parse(": sin nombre; sin valor:").isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+package com.hackerrank.sample.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongObjectHashMapTest {
+
+    /**
+     * Prueba: insertar, buscar y eliminar claves.
+     *
+     * Verifica:
+     * - Que put() devuelva el valor anterior.
+     * - Que remove() devuelva el valor eliminado y la clave deje de existir.
+     */
+
+    @Test
+    void testPutGetRemove() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        Assertions.assertNull(map.put(1L, "uno"));
+        Assertions.assertEquals("uno", map.put(1L, "otro"));
+        Assertions.assertEquals("otro", map.get(1L));
+        Assertions.assertEquals("otro", map.remove(1L));
+        Assertions.assertNull(map.get(1L));
+        Assertions.assertEquals(0, map.size());
+    }
+
+    /**
+     * Prueba: operaciones aleatorias comparadas contra {@link HashMap}.
+     *
+     * Escenario:
+     * - Se mezclan inserciones, borrados y lecturas sobre un rango pequeño de
+     *   claves para forzar colisiones, crecimiento y reubicación tras borrar.
+     *
+     * Verifica:
+     * - Que ambos mapas devuelvan siempre lo mismo.
+     */
+
+    @Test
+    void testMatchesHashMap() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(2_000) - 100;
+            switch (random.nextInt(3)) {
+                case 0 -> Assertions.assertEquals(expected.put(key, key * 2), map.put(key, key * 2));
+                case 1 -> Assertions.assertEquals(expected.remove(key), map.remove(key));
+                default -> Assertions.assertEquals(expected.get(key), map.get(key));
+            }
+        }
+        Assertions.assertEquals(expected.size(), map.size());
+    }
+}